@@ -0,0 +1,19 @@
+package com.example.LogAnalyser.analysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement Spring publié quand une métrique d'un build s'écarte de la ligne de base de son pipeline.
+ *
+ * @param metric   durationMs, totalLines ou errorLines
+ * @param expected moyenne EWMA du pipeline avant ce build
+ * @param zScore   écart en écarts-types (positif = au-dessus de la normale)
+ */
+public record BuildAnomalyEvent(String pipelineId,
+                                Integer buildNumber,
+                                String metric,
+                                double value,
+                                double expected,
+                                double zScore,
+                                LocalDateTime detectedAt) {
+}
@@ -0,0 +1,178 @@
+package com.example.LogAnalyser.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extraction de templates de logs en ligne, façon Drain (arbre de préfixes à profondeur fixe).
+ *
+ * Une ligne est découpée en tokens ; les tokens contenant un chiffre sont remplacés d'office par {@code <*>}
+ * (ids, durées, ports, numéros de build...). L'arbre route ensuite la ligne par nombre de tokens puis par ses
+ * (depth - 2) premiers tokens jusqu'à une feuille, qui contient une petite liste de clusters. La ligne rejoint
+ * le cluster le plus similaire (proportion de tokens identiques à la même position) si la similarité dépasse
+ * le seuil, sinon elle crée un nouveau cluster. Les positions qui diffèrent deviennent {@code <*>} dans le
+ * template du cluster.
+ *
+ * Coût par ligne : un découpage, depth lookups HashMap et quelques comparaisons de tableaux, sans regex ni
+ * allocation de chaîne hors tokens. Non thread-safe : l'appelant sérialise les appels.
+ */
+public class DrainTemplateMiner {
+
+    public static final String WILDCARD = "<*>";
+
+    private final int depth;
+    private final double similarityThreshold;
+    private final int maxChildren;
+
+    private final Map<Integer, Node> rootByLength = new HashMap<>();
+    private final List<LogCluster> clusters = new ArrayList<>();
+    private int nextClusterId = 1;
+
+    public DrainTemplateMiner() {
+        this(4, 0.4, 100);
+    }
+
+    /**
+     * @param depth profondeur de l'arbre (>= 3) : longueur + (depth - 2) tokens de préfixe
+     * @param similarityThreshold similarité minimale pour rejoindre un cluster existant
+     * @param maxChildren enfants maximum par noeud ; au-delà les nouveaux tokens passent par {@code <*>}
+     */
+    public DrainTemplateMiner(int depth, double similarityThreshold, int maxChildren) {
+        if (depth < 3) throw new IllegalArgumentException("depth must be >= 3");
+        this.depth = depth;
+        this.similarityThreshold = similarityThreshold;
+        this.maxChildren = maxChildren;
+    }
+
+    /** Classe une ligne et renvoie son cluster (créé au besoin). */
+    public LogCluster add(String line) {
+        String[] tokens = tokenize(line);
+        Node leaf = descend(tokens);
+
+        LogCluster best = null;
+        double bestSimilarity = -1;
+        for (LogCluster cluster : leaf.clusters) {
+            double similarity = similarity(cluster.template, tokens);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                best = cluster;
+            }
+        }
+
+        if (best != null && bestSimilarity >= similarityThreshold) {
+            best.merge(tokens);
+            return best;
+        }
+
+        LogCluster cluster = new LogCluster(nextClusterId++, tokens);
+        cluster.size = 1;
+        leaf.clusters.add(cluster);
+        clusters.add(cluster);
+        return cluster;
+    }
+
+    /** Recharge un cluster persisté (id et template) pour garder des ids stables d'un redémarrage à l'autre. */
+    public LogCluster restore(int clusterId, String template, long size) {
+        String[] tokens = template.isEmpty() ? new String[0] : template.split(" ");
+        LogCluster cluster = new LogCluster(clusterId, tokens);
+        cluster.size = size;
+        descend(tokens).clusters.add(cluster);
+        clusters.add(cluster);
+        nextClusterId = Math.max(nextClusterId, clusterId + 1);
+        return cluster;
+    }
+
+    public List<LogCluster> getClusters() {
+        return clusters;
+    }
+
+    private Node descend(String[] tokens) {
+        Node node = rootByLength.computeIfAbsent(tokens.length, length -> new Node());
+        int prefixLength = Math.min(depth - 2, tokens.length);
+        for (int i = 0; i < prefixLength; i++) {
+            String token = tokens[i];
+            Node child = node.children.get(token);
+            if (child == null) {
+                if (node.children.size() >= maxChildren && !WILDCARD.equals(token)) {
+                    token = WILDCARD;
+                    child = node.children.get(token);
+                }
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(token, child);
+                }
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private static double similarity(String[] template, String[] tokens) {
+        if (tokens.length == 0) return 1.0;
+        int same = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            String t = template[i];
+            if (t == tokens[i] || t.equals(tokens[i])) same++;
+        }
+        return same / (double) tokens.length;
+    }
+
+    /** Découpe sur les espaces et masque les tokens contenant un chiffre. */
+    static String[] tokenize(String line) {
+        List<String> tokens = new ArrayList<>(16);
+        int length = line.length();
+        int start = -1;
+        boolean digit = false;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? line.charAt(i) : ' ';
+            if (c == ' ' || c == '\t') {
+                if (start >= 0) {
+                    tokens.add(digit ? WILDCARD : line.substring(start, i));
+                    start = -1;
+                    digit = false;
+                }
+            } else {
+                if (start < 0) start = i;
+                if (c >= '0' && c <= '9') digit = true;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final List<LogCluster> clusters = new ArrayList<>(2);
+    }
+
+    /** Cluster de lignes partageant un template. */
+    public static final class LogCluster {
+
+        private final int id;
+        private final String[] template;
+        private long size;
+
+        LogCluster(int id, String[] template) {
+            this.id = id;
+            this.template = template;
+        }
+
+        void merge(String[] tokens) {
+            for (int i = 0; i < template.length; i++) {
+                if (!template[i].equals(tokens[i])) {
+                    template[i] = WILDCARD;
+                }
+            }
+            size++;
+        }
+
+        public int getId() { return id; }
+
+        public long getSize() { return size; }
+
+        public String getTemplate() {
+            return String.join(" ", template);
+        }
+    }
+}
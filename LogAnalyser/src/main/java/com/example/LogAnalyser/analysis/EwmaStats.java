@@ -0,0 +1,56 @@
+package com.example.LogAnalyser.analysis;
+
+/**
+ * Moyenne et variance à décroissance exponentielle (EWMA), mises à jour en O(1) et en mémoire constante :
+ * le coût de détection ne dépend pas de la longueur de l'historique.
+ * Non thread-safe : l'appelant synchronise.
+ */
+public class EwmaStats {
+
+    private final double alpha;
+    private double mean;
+    private double variance;
+    private long count;
+
+    public EwmaStats(double alpha) {
+        if (alpha <= 0 || alpha > 1) throw new IllegalArgumentException("alpha must be in (0, 1]");
+        this.alpha = alpha;
+    }
+
+    public EwmaStats(double alpha, double mean, double variance, long count) {
+        this(alpha);
+        this.mean = mean;
+        this.variance = variance;
+        this.count = count;
+    }
+
+    /**
+     * Écart à la moyenne en nombre d'écarts-types, calculé AVANT d'intégrer la valeur.
+     * L'écart-type est borné par minStdDev pour ne pas crier à l'anomalie sur une série quasi constante.
+     */
+    public double zScore(double value, double minStdDev) {
+        double std = Math.max(Math.sqrt(variance), minStdDev);
+        return std == 0 ? 0 : (value - mean) / std;
+    }
+
+    public void update(double value) {
+        if (count == 0) {
+            mean = value;
+            variance = 0;
+        } else {
+            double diff = value - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        count++;
+    }
+
+    public double mean() { return mean; }
+
+    public double variance() { return variance; }
+
+    public double stdDev() { return Math.sqrt(variance); }
+
+    public long count() { return count; }
+}
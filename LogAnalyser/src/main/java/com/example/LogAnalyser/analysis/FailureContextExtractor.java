@@ -0,0 +1,190 @@
+package com.example.LogAnalyser.analysis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sélection du contexte utile d'un build en échec, à envoyer à l'IA au lieu du console complet.
+ *
+ * Par ordre de priorité, tant que le budget d'octets le permet :
+ * <ol>
+ *   <li>l'en-tête du stage où se produit la première erreur ({@code [Pipeline] { (Stage)}) ;</li>
+ *   <li>la première erreur avec linesBefore lignes avant et linesAfter lignes après ;</li>
+ *   <li>les stack traces, dédoublonnées (même exception et mêmes premières frames), tronquées à maxFrames ;</li>
+ *   <li>les autres lignes d'erreur distinctes (chiffres masqués pour dédoublonner).</li>
+ * </ol>
+ * Une seule passe sur les lignes, sans regex : utilisable en ligne dans l'ingestion.
+ */
+public class FailureContextExtractor {
+
+    private static final String STAGE_MARKER = "[Pipeline] { (";
+
+    private final int linesBefore;
+    private final int linesAfter;
+    private final int maxFrames;
+    private final int maxBytes;
+
+    public FailureContextExtractor(int linesBefore, int linesAfter, int maxFrames, int maxBytes) {
+        this.linesBefore = linesBefore;
+        this.linesAfter = linesAfter;
+        this.maxFrames = maxFrames;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Ligne de console et son niveau (ERROR, WARN, INFO...). */
+    public record Line(String level, String message) {}
+
+    public record FailureContext(String stage,
+                                 int firstErrorLine,
+                                 List<String> lines,
+                                 int stackTraces,
+                                 long originalBytes,
+                                 long contextBytes,
+                                 boolean truncated) {
+
+        public String text() {
+            return String.join("\n", lines);
+        }
+    }
+
+    public FailureContext extract(List<Line> lines) {
+        long originalBytes = 0;
+        int firstError = -1;
+        String stage = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String message = lines.get(i).message();
+            originalBytes += utf8Length(message) + 1;
+            if (firstError < 0) {
+                if (message.startsWith(STAGE_MARKER)) {
+                    stage = message;
+                } else if (isError(lines.get(i))) {
+                    firstError = i;
+                }
+            }
+        }
+
+        Budget budget = new Budget(maxBytes);
+        if (firstError < 0) {
+            // pas de ligne d'erreur : la fin du console est ce qu'il y a de plus parlant
+            for (int i = Math.max(0, lines.size() - linesAfter); i < lines.size(); i++) {
+                budget.add(lines.get(i).message());
+            }
+            return new FailureContext(stage, -1, budget.lines, 0, originalBytes, budget.used, budget.truncated);
+        }
+
+        // 1️⃣ stage + fenêtre autour de la première erreur
+        if (stage != null) budget.add(stage);
+        int from = Math.max(0, firstError - linesBefore);
+        int to = Math.min(lines.size(), firstError + linesAfter + 1);
+        for (int i = from; i < to; i++) {
+            budget.add(lines.get(i).message());
+        }
+
+        // 2️⃣ stack traces dédoublonnées, 3️⃣ autres erreurs distinctes
+        Set<String> seenTraces = new HashSet<>();
+        Set<String> seenErrors = new HashSet<>();
+        seenErrors.add(normalize(lines.get(firstError).message()));
+        int traces = 0;
+        List<String> otherErrors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String message = lines.get(i).message();
+            if (isFrame(message)) continue;
+
+            int frames = 0;
+            while (i + 1 + frames < lines.size() && isFrame(lines.get(i + 1 + frames).message())) frames++;
+
+            if (frames > 0) {
+                String key = traceKey(lines, i, frames);
+                if (seenTraces.add(key)) {
+                    traces++;
+                    if (i < from || i >= to) {
+                        budget.add(message);
+                        for (int f = 1; f <= Math.min(frames, maxFrames); f++) {
+                            budget.add(lines.get(i + f).message());
+                        }
+                        if (frames > maxFrames) budget.add("\t... " + (frames - maxFrames) + " more");
+                    }
+                }
+                seenErrors.add(normalize(message));
+                i += frames;
+            } else if (isError(lines.get(i)) && (i < from || i >= to) && seenErrors.add(normalize(message))) {
+                otherErrors.add(message);
+            }
+        }
+        for (String error : otherErrors) {
+            budget.add(error);
+        }
+
+        return new FailureContext(stage, firstError, budget.lines, traces, originalBytes, budget.used, budget.truncated);
+    }
+
+    private static boolean isError(Line line) {
+        return "ERROR".equals(line.level());
+    }
+
+    private static boolean isFrame(String message) {
+        int i = 0;
+        while (i < message.length() && (message.charAt(i) == ' ' || message.charAt(i) == '\t')) i++;
+        return i > 0 && message.startsWith("at ", i);
+    }
+
+    /** Exception + premières frames : deux traces identiques aux numéros de ligne près ont la même clé. */
+    private String traceKey(List<Line> lines, int header, int frames) {
+        StringBuilder key = new StringBuilder(normalize(lines.get(header).message()));
+        for (int f = 1; f <= Math.min(frames, 5); f++) {
+            key.append('|').append(normalize(lines.get(header + f).message()));
+        }
+        return key.toString();
+    }
+
+    /** Chiffres masqués : "took 1234 ms" et "took 87 ms" se dédoublonnent. */
+    static String normalize(String message) {
+        StringBuilder out = new StringBuilder(message.length());
+        boolean inDigits = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (!inDigits) out.append('#');
+                inDigits = true;
+            } else {
+                out.append(c);
+                inDigits = false;
+            }
+        }
+        return out.toString().trim();
+    }
+
+    private static int utf8Length(String s) {
+        int length = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return s.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return length;
+    }
+
+    private static final class Budget {
+        final List<String> lines = new ArrayList<>();
+        final int max;
+        long used;
+        boolean truncated;
+
+        Budget(int max) {
+            this.max = max;
+        }
+
+        void add(String line) {
+            int size = utf8Length(line) + 1;
+            if (used + size > max) {
+                truncated = true;
+                return;
+            }
+            lines.add(line);
+            used += size;
+        }
+    }
+}
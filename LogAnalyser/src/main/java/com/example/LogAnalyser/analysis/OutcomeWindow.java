@@ -0,0 +1,104 @@
+package com.example.LogAnalyser.analysis;
+
+/**
+ * Fenêtre glissante des N derniers résultats d'un pipeline (ring buffer), mise à jour en O(1).
+ *
+ * Les agrégats (échecs, bascules SUCCESS/FAILURE entre builds consécutifs, somme et somme des carrés des
+ * durées) sont maintenus à l'ajout et à l'éviction : aucune statistique ne relit la fenêtre.
+ * Non thread-safe : l'appelant synchronise sur la fenêtre.
+ */
+public class OutcomeWindow {
+
+    public static final int NO_DURATION = -1;
+
+    private final boolean[] failed;
+    private final int[] durationsMs;
+    private int head;   // prochaine case écrite
+    private int size;
+
+    private int failures;
+    private int flips;
+    private int durationCount;
+    private double durationSum;
+    private double durationSquares;
+
+    public OutcomeWindow(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be >= 2");
+        this.failed = new boolean[capacity];
+        this.durationsMs = new int[capacity];
+    }
+
+    public void add(boolean buildFailed, int durationMs) {
+        int capacity = failed.length;
+        if (size == capacity) {
+            evictOldest();
+        }
+        if (size > 0 && failed[index(size - 1)] != buildFailed) {
+            flips++;
+        }
+        failed[head] = buildFailed;
+        durationsMs[head] = durationMs;
+        head = (head + 1) % capacity;
+        size++;
+
+        if (buildFailed) failures++;
+        if (durationMs != NO_DURATION) {
+            durationCount++;
+            durationSum += durationMs;
+            durationSquares += (double) durationMs * durationMs;
+        }
+    }
+
+    private void evictOldest() {
+        int oldest = index(0);
+        if (size > 1 && failed[oldest] != failed[index(1)]) {
+            flips--;
+        }
+        if (failed[oldest]) failures--;
+        int duration = durationsMs[oldest];
+        if (duration != NO_DURATION) {
+            durationCount--;
+            durationSum -= duration;
+            durationSquares -= (double) duration * duration;
+        }
+        size--;
+    }
+
+    /** i-ème résultat de la fenêtre, 0 = le plus ancien. */
+    private int index(int i) {
+        int capacity = failed.length;
+        return Math.floorMod(head - size + i, capacity);
+    }
+
+    public int size() { return size; }
+
+    public int capacity() { return failed.length; }
+
+    public int failures() { return failures; }
+
+    public int flips() { return flips; }
+
+    /** Bascules / transitions possibles : 1.0 = alterne à chaque build. */
+    public double flipRate() {
+        return size < 2 ? 0.0 : flips / (double) (size - 1);
+    }
+
+    public double failureRate() {
+        return size == 0 ? 0.0 : failures / (double) size;
+    }
+
+    public double meanDurationMs() {
+        return durationCount == 0 ? 0.0 : durationSum / durationCount;
+    }
+
+    public double durationStdDevMs() {
+        if (durationCount < 2) return 0.0;
+        double mean = meanDurationMs();
+        return Math.sqrt(Math.max(0.0, durationSquares / durationCount - mean * mean));
+    }
+
+    /** Résultat i (0 = le plus ancien), pour l'export de la fenêtre. */
+    public boolean failedAt(int i) { return failed[index(i)]; }
+
+    public int durationAt(int i) { return durationsMs[index(i)]; }
+}
@@ -0,0 +1,47 @@
+package com.example.LogAnalyser.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Snapshot binaire d'un état en mémoire : écrit dans un fichier temporaire puis renommé atomiquement,
+ * pour qu'un crash pendant l'écriture laisse toujours le snapshot précédent intact.
+ */
+public final class SnapshotFile {
+
+    public interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    public interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    private SnapshotFile() {}
+
+    public static void save(Path file, int version, Writer writer) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(version);
+            writer.write(out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** @return false si le fichier n'existe pas ou n'est pas dans la version attendue */
+    public static boolean load(Path file, int version, Reader reader) throws IOException {
+        if (!Files.exists(file)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != version) return false;
+            reader.read(in);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.LogAnalyser.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica en lecture (datasource.replica.url renseignée) : pool primaire (spring.datasource.*), pool réplica
+ * en lecture seule, et DataSource principale = {@link ReadWriteRoutingDataSource} derrière un
+ * LazyConnectionDataSourceProxy ; seules les transactions readOnly peuvent aller au réplica, dont le retard est
+ * mesuré toutes les datasource.replica.lag-check-ms. Sans datasource.replica.url, Boot configure la DataSource
+ * habituelle.
+ *
+ * Fichier identique (au package près) dans le Collector et l'Analyzer, comme ReadWriteRoutingDataSource.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isEmpty()")
+public class DataSourceRoutingConfig {
+
+    /** Retard de rejeu d'un standby PostgreSQL ; 0 quand tout le WAL reçu est rejoué (primaire inactive). */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(@Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${datasource.replica.maximum-pool-size:10}") int poolSize,
+                                              @Value("${datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        // le pool démarre même si le réplica est arrêté : les lectures restent sur la primaire en attendant
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                        @Qualifier("replicaDataSource") DataSource replica,
+                                                        @Value("${datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+                                                        @Value("${datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                                        @Value("${datasource.replica.read-your-writes-ms:2000}") long readYourWritesMs) {
+        return new ReadWriteRoutingDataSource(primary, replica, lagQuery, maxLagMs, readYourWritesMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.LogAnalyser.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Réponses JSON compactes ; ?pretty=true sur n'importe quel endpoint pour une sortie indentée (debug).
+     * Remplace le convertisseur Jackson par défaut de Spring MVC, avec l'ObjectMapper configuré par Boot.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                return prettyRequested() ? writer.withDefaultPrettyPrinter() : writer;
+            }
+        };
+    }
+
+    private static boolean prettyRequested() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && "true".equalsIgnoreCase(attributes.getRequest().getParameter("pretty"));
+    }
+}
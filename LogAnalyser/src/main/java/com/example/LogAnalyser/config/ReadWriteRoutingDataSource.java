@@ -0,0 +1,208 @@
+package com.example.LogAnalyser.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Routage des connexions entre la base primaire et un réplica en lecture.
+ *
+ * Une transaction @Transactional(readOnly = true) lit sur le réplica ; tout le reste (transactions d'écriture,
+ * requêtes hors transaction, Flyway, Hibernate au démarrage) va sur la primaire. La décision est prise à
+ * l'obtention de la connexion, d'où le {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * devant cette classe (voir {@link DataSourceRoutingConfig}) : le gestionnaire de transactions a alors déjà posé
+ * le drapeau readOnly.
+ *
+ * Retour sur la primaire pour une lecture :
+ * - retard du réplica inconnu (réplica injoignable) ou supérieur à maxLagMillis ({@link #checkReplicaLag}) ;
+ * - read-your-writes : le thread vient de valider une transaction d'écriture, depuis moins de
+ *   readYourWritesMillis + retard mesuré ;
+ * - lecture passée par {@link #onPrimary} ;
+ * - échec d'obtention d'une connexion réplica.
+ *
+ * Garantie : un thread relit ses propres écritures. Une lecture sur un autre thread que celui de l'écriture
+ * (requête HTTP pendant une ingestion) peut avoir jusqu'à maxLagMillis de retard, sauf si elle passe par
+ * {@link #onPrimary} : à réserver aux lectures qui doivent voir la dernière écriture (dernier build ingéré).
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+
+    /** Lectures forcées sur la primaire par {@link #onPrimary}, pour toutes les instances de la classe. */
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    /** Échéance (System.nanoTime) jusqu'à laquelle le thread lit sur la primaire après une écriture. */
+    private final ThreadLocal<Long> primaryUntil = new ThreadLocal<>();
+
+    /** Dernier retard mesuré en millisecondes, -1 si inconnu (pas encore mesuré ou réplica injoignable). */
+    private volatile long replicaLagMillis = -1;
+    private volatile String lastError;
+
+    private final AtomicLong writeConnections = new AtomicLong();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong lagFallbacks = new AtomicLong();
+    private final AtomicLong readYourWritesFallbacks = new AtomicLong();
+    private final AtomicLong forcedPrimaryReads = new AtomicLong();
+    private final AtomicLong replicaErrors = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, String lagQuery,
+                                      long maxLagMillis, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    /**
+     * Exécute read (une méthode @Transactional(readOnly = true) par exemple) avec ses lectures sur la primaire.
+     * Sans effet si aucun réplica n'est configuré.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (route() == Target.PRIMARY) {
+            return connector.connect(primary);
+        }
+        try {
+            return connector.connect(replica);
+        } catch (SQLException e) {
+            replicaErrors.incrementAndGet();
+            replicaDown(e);
+            return connector.connect(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /** Cible de la connexion demandée par le thread courant, d'après la transaction en cours. */
+    Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeConnections.incrementAndGet();
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) pinToPrimary();
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        if (FORCE_PRIMARY.get() != null) {
+            forcedPrimaryReads.incrementAndGet();
+            return Target.PRIMARY;
+        }
+        Long until = primaryUntil.get();
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                readYourWritesFallbacks.incrementAndGet();
+                return Target.PRIMARY;
+            }
+            primaryUntil.remove();
+        }
+        long lag = replicaLagMillis;
+        if (lag < 0 || lag > maxLagMillis) {
+            lagFallbacks.incrementAndGet();
+            return Target.PRIMARY;
+        }
+        replicaReads.incrementAndGet();
+        return Target.REPLICA;
+    }
+
+    private void pinToPrimary() {
+        long window = readYourWritesMillis + Math.max(replicaLagMillis, 0);
+        primaryUntil.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(window));
+    }
+
+    /** Mesure le retard du réplica (lagQuery, en millisecondes). */
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:1000}")
+    public void checkReplicaLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            long lag = rs.next() ? Math.round(rs.getDouble(1)) : 0;
+            long previous = replicaLagMillis;
+            if (previous < 0) {
+                System.out.println("✅ Read replica available, lag " + lag + " ms");
+            } else if (lag > maxLagMillis && previous <= maxLagMillis) {
+                System.err.println("⚠️ Read replica lag " + lag + " ms > " + maxLagMillis + " ms, reads go to the primary");
+            } else if (lag <= maxLagMillis && previous > maxLagMillis) {
+                System.out.println("✅ Read replica caught up, lag " + lag + " ms");
+            }
+            replicaLagMillis = lag;
+            lastError = null;
+        } catch (SQLException e) {
+            replicaDown(e);
+        }
+    }
+
+    private void replicaDown(SQLException e) {
+        if (replicaLagMillis >= 0 || lastError == null) {
+            System.err.println("❌ Read replica unavailable, reads go to the primary: " + e.getMessage());
+        }
+        replicaLagMillis = -1;
+        lastError = e.getMessage();
+    }
+
+    public long getReplicaLagMillis() {
+        return replicaLagMillis;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("routing", true);
+        stats.put("replicaLagMs", replicaLagMillis);
+        stats.put("replicaUsable", replicaLagMillis >= 0 && replicaLagMillis <= maxLagMillis);
+        stats.put("maxLagMs", maxLagMillis);
+        stats.put("readYourWritesMs", readYourWritesMillis);
+        stats.put("writeConnections", writeConnections.get());
+        stats.put("replicaReads", replicaReads.get());
+        stats.put("lagFallbacks", lagFallbacks.get());
+        stats.put("readYourWritesFallbacks", readYourWritesFallbacks.get());
+        stats.put("forcedPrimaryReads", forcedPrimaryReads.get());
+        stats.put("replicaErrors", replicaErrors.get());
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
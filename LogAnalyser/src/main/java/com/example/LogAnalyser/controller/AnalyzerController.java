@@ -1,19 +1,36 @@
 package com.example.LogAnalyser.controller;
 
+import com.example.LogAnalyser.config.ReadWriteRoutingDataSource;
 import com.example.LogAnalyser.dto.BuildMessageDTO;
+import com.example.LogAnalyser.dto.LogView;
+import com.example.LogAnalyser.dto.PageResponse;
 import com.example.LogAnalyser.entity.BuildEntity;
 import com.example.LogAnalyser.entity.LogEntity;
 import com.example.LogAnalyser.entity.PipelineEntity;
 import com.example.LogAnalyser.repository.BuildRepository;
 import com.example.LogAnalyser.repository.LogRepository;
 import com.example.LogAnalyser.repository.PipelineRepository;
+import com.example.LogAnalyser.service.AnomalyDetectionService;
 import com.example.LogAnalyser.service.BuildAnalyzerService;
+import com.example.LogAnalyser.service.FailureContextService;
+import com.example.LogAnalyser.service.FailureSignatureService;
+import com.example.LogAnalyser.service.FlakinessService;
+import com.example.LogAnalyser.service.IaAnalysisClient;
+import com.example.LogAnalyser.service.PartitionMaintenanceService;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 
 
@@ -27,12 +44,32 @@ public class AnalyzerController {
     private final BuildAnalyzerService analyzerService;
     private final BuildRepository buildRepository;
         private final LogRepository logRepository;
+    private final FailureSignatureService failureSignatureService;
+    private final FlakinessService flakinessService;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final FailureContextService failureContextService;
+    private final IaAnalysisClient iaAnalysisClient;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
 
 
-    public AnalyzerController(BuildAnalyzerService analyzerService, BuildRepository buildRepository, LogRepository logRepository) {
+    public AnalyzerController(BuildAnalyzerService analyzerService, BuildRepository buildRepository, LogRepository logRepository,
+                              FailureSignatureService failureSignatureService, FlakinessService flakinessService,
+                              AnomalyDetectionService anomalyDetectionService,
+                              FailureContextService failureContextService,
+                              IaAnalysisClient iaAnalysisClient,
+                              PartitionMaintenanceService partitionMaintenanceService,
+                              ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
         this.analyzerService = analyzerService;
         this.buildRepository = buildRepository;
         this.logRepository = logRepository;
+        this.failureSignatureService = failureSignatureService;
+        this.flakinessService = flakinessService;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.failureContextService = failureContextService;
+        this.iaAnalysisClient = iaAnalysisClient;
+        this.partitionMaintenanceService = partitionMaintenanceService;
+        this.routingDataSource = routingDataSource;
     }
 
 @PostMapping("/builds/analyze")
@@ -48,13 +85,150 @@ public ResponseEntity<Map<String, Object>> analyzeBuild(@RequestBody BuildMessag
     return ResponseEntity.ok(analysisResult);
 }
 
+    // GET liste paginée des builds (projection, sans logs) : ?page=0&size=50&sort=createdAt,desc&pipelineId=
+    // from/to (ISO, sur createdAt) limitent la lecture aux partitions mensuelles concernées
     @GetMapping("/builds")
-public ResponseEntity<List<BuildEntity>> getAllBuilds() {
-    return ResponseEntity.ok(buildRepository.findAll());
-}
+    public ResponseEntity<Map<String, Object>> getAllBuilds(@RequestParam(required = false) String pipelineId,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                            @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        String invalid = PageResponse.invalidSort(pageable, PageResponse.BUILD_SORTS);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", "Unsupported sort: " + invalid));
+        }
+        if (from == null && to == null) {
+            return ResponseEntity.ok(PageResponse.of(buildRepository.findSummaries(pipelineId, pageable)));
+        }
+        return ResponseEntity.ok(PageResponse.of(buildRepository.findSummariesBetween(pipelineId,
+                from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0),
+                to != null ? to : LocalDateTime.of(9999, 1, 1, 0, 0), pageable)));
+    }
+    // GET léger : un build est-il déjà persisté ? (utilisé par le harness de charge pour mesurer le lag)
+    @GetMapping("/builds/lookup")
+    public ResponseEntity<Map<String, Object>> lookupBuild(@RequestParam String pipelineId,
+                                                           @RequestParam Integer buildNumber) {
+        return buildRepository.findFirstByPipeline_IdAndBuildNumberOrderByIdDesc(pipelineId, buildNumber)
+                .map(build -> {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("id", build.getId());
+                    data.put("buildNumber", build.getBuildNumber());
+                    data.put("createdAt", build.getCreatedAt());
+                    return ResponseEntity.ok(Map.<String, Object>of("status", "success", "data", data));
+                })
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(Map.of("status", "error", "message", "Build not found")));
+    }
+
   // GET pour récupérer les logs d'un build spécifique
     @GetMapping("/builds/{id}/logs")
-    public ResponseEntity<List<LogEntity>> getBuildLogs(@PathVariable Long id) {
-        return ResponseEntity.ok(logRepository.findByBuildId(id));
+    public ResponseEntity<Map<String, Object>> getBuildLogs(@PathVariable Long id,
+                                                            @RequestParam(required = false) String level,
+                                                            @PageableDefault(size = 200, sort = "id") Pageable pageable) {
+        String invalid = PageResponse.invalidSort(pageable, PageResponse.LOG_SORTS);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", "Unsupported sort: " + invalid));
+        }
+        return buildLogsResponse(analyzerService, id, level, pageable);
+    }
+
+    /**
+     * Page de logs, 404 si le build n'existe pas. Build terminé : Cache-Control immutable, seul signal qui
+     * autorise l'api-gateway à garder la réponse sans invalidation.
+     */
+    static ResponseEntity<Map<String, Object>> buildLogsResponse(BuildAnalyzerService analyzerService, Long id,
+                                                                 String level, Pageable pageable) {
+        return analyzerService.getBuildLogs(id, level, pageable)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+                    if (analyzerService.isBuildFinished(id)) {
+                        ok.cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+                    }
+                    return ok.body(PageResponse.of(page));
+                })
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(Map.of("status", "error", "message", "Build not found")));
+    }
+
+    // GET top signatures d'échec (clusters Drain) d'un pipeline
+    @GetMapping("/pipelines/{pipelineId}/signatures/top")
+    public ResponseEntity<Map<String, Object>> getTopSignatures(@PathVariable String pipelineId,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> signatures = failureSignatureService.topSignatures(pipelineId, limit);
+        return ResponseEntity.ok(Map.of("status", "success", "pipelineId", pipelineId, "data", signatures));
+    }
+
+    // GET pipelines instables (fenêtres glissantes en mémoire, pas de scan de la table builds)
+    @GetMapping("/pipelines/flaky")
+    public ResponseEntity<Map<String, Object>> getFlakyPipelines(@RequestParam(required = false) Double minScore,
+                                                                 @RequestParam(defaultValue = "20") int limit) {
+        double threshold = minScore != null ? minScore : flakinessService.getFlakyThreshold();
+        return ResponseEntity.ok(Map.of("status", "success", "minScore", threshold,
+                "data", flakinessService.getFlakyPipelines(threshold, limit)));
+    }
+
+    // GET statistiques flaky d'un pipeline
+    @GetMapping("/pipelines/{pipelineId}/flakiness")
+    public ResponseEntity<Map<String, Object>> getPipelineFlakiness(@PathVariable String pipelineId) {
+        Map<String, Object> stats = flakinessService.getFlakiness(pipelineId);
+        if (stats == null) {
+            return ResponseEntity.status(404).body(Map.of("status", "error", "message", "No builds for pipeline " + pipelineId));
+        }
+        return ResponseEntity.ok(Map.of("status", "success", "data", stats));
+    }
+
+    // GET anomalies récentes (durée, volume de logs, lignes ERROR), filtrables par pipeline
+    @GetMapping("/anomalies")
+    public ResponseEntity<Map<String, Object>> getAnomalies(@RequestParam(required = false) String pipelineId,
+                                                            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(Map.of("status", "success",
+                "data", anomalyDetectionService.getRecentAnomalies(pipelineId, limit)));
+    }
+
+    // GET ligne de base EWMA d'un pipeline
+    @GetMapping("/pipelines/{pipelineId}/baseline")
+    public ResponseEntity<Map<String, Object>> getPipelineBaseline(@PathVariable String pipelineId) {
+        Map<String, Object> baseline = anomalyDetectionService.getBaseline(pipelineId);
+        if (baseline == null) {
+            return ResponseEntity.status(404).body(Map.of("status", "error", "message", "No builds for pipeline " + pipelineId));
+        }
+        return ResponseEntity.ok(Map.of("status", "success", "data", baseline));
+    }
+
+    // GET contexte d'échec d'un build (ce qui serait envoyé à l'IA à la place du console complet)
+    @GetMapping("/builds/{id}/context")
+    public ResponseEntity<Map<String, Object>> getBuildContext(@PathVariable Long id) {
+        List<LogView> logs = buildRepository.findCreatedAtById(id)
+                .map(since -> logRepository.findViewsByBuildOrderById(id, since))
+                .orElse(List.of());
+        if (logs.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("status", "error", "message", "No logs for build " + id));
+        }
+        return ResponseEntity.ok(Map.of("status", "success", "data", failureContextService.extractStored(logs)));
+    }
+
+    // GET réduction mesurée : octets du console vs octets du contexte, temps d'extraction
+    @GetMapping("/context/stats")
+    public ResponseEntity<Map<String, Object>> getContextStats() {
+        return ResponseEntity.ok(Map.of("status", "success", "data", failureContextService.getStats()));
+    }
+
+    // GET partitions mensuelles de builds/logs : lignes estimées et taille des index par mois
+    @GetMapping("/partitions")
+    public ResponseEntity<Map<String, Object>> getPartitions() {
+        return ResponseEntity.ok(Map.of("status", "success", "data", partitionMaintenanceService.getPartitions()));
+    }
+
+    // GET routage primaire / réplica : retard mesuré, lectures servies par le réplica, replis sur la primaire
+    @GetMapping("/datasource/stats")
+    public ResponseEntity<Map<String, Object>> getDataSourceStats() {
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        return ResponseEntity.ok(Map.of("status", "success",
+                "data", routing != null ? routing.getStats() : Map.of("routing", false)));
+    }
+
+    // GET état du client IA (cache, lots, disjoncteur)
+    @GetMapping("/ia/stats")
+    public ResponseEntity<Map<String, Object>> getIaStats() {
+        return ResponseEntity.ok(Map.of("status", "success", "data", iaAnalysisClient.getStats()));
     }
 }
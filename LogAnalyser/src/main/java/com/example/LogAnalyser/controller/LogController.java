@@ -1,22 +1,17 @@
 package com.example.LogAnalyser.controller;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.LogAnalyser.entity.BuildEntity;
-import com.example.LogAnalyser.entity.LogEntity;
-import com.example.LogAnalyser.repository.BuildRepository;
-
-import lombok.extern.java.Log;
+import com.example.LogAnalyser.dto.PageResponse;
+import com.example.LogAnalyser.service.BuildAnalyzerService;
 
 @RestController
 @RequestMapping("/api/builds")
@@ -24,16 +19,17 @@ public class LogController {
 
    
     @Autowired
-    private BuildRepository buildRepository;
+    private BuildAnalyzerService analyzerService;
 
+    // Page de logs en projection : plus de chargement de build.getLogs() complet
     @GetMapping("/{id}/logs")
-public List<LogEntity> getLogs(@PathVariable Long id) {
-    return buildRepository.findById(id)
-            .map(build -> {
-                build.getLogs().size(); // force Hibernate à charger les logs
-                return build.getLogs();
-            })
-            .orElse(Collections.emptyList());
-}
+    public ResponseEntity<Map<String, Object>> getLogs(@PathVariable Long id,
+                                                       @PageableDefault(size = 200, sort = "id") Pageable pageable) {
+        String invalid = PageResponse.invalidSort(pageable, PageResponse.LOG_SORTS);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", "Unsupported sort: " + invalid));
+        }
+        return AnalyzerController.buildLogsResponse(analyzerService, id, null, pageable);
+    }
 
 }
@@ -0,0 +1,26 @@
+package com.example.LogAnalyser.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection d'un build pour les listes : colonnes de la table builds uniquement,
+ * sans stages ni logs (aucun chargement lazy à la sérialisation).
+ */
+public interface BuildSummaryView {
+
+    Long getId();
+
+    Integer getBuildNumber();
+
+    String getStatus();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    String getTriggeredBy();
+
+    LocalDateTime getCreatedAt();
+
+    String getPipelineId();
+}
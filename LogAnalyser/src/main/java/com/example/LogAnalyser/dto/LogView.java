@@ -0,0 +1,21 @@
+package com.example.LogAnalyser.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection d'une ligne de log : pas de référence vers le build ni le stage.
+ */
+public interface LogView {
+
+    Long getId();
+
+    String getLogLevel();
+
+    String getMessage();
+
+    String getStackTrace();
+
+    Integer getSignatureId();
+
+    LocalDateTime getCreatedAt();
+}
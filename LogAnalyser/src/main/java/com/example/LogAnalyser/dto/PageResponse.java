@@ -0,0 +1,46 @@
+package com.example.LogAnalyser.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Réponse paginée au format habituel de l'API ({"status", "data"}) + métadonnées de page.
+ */
+public final class PageResponse {
+
+    public static final Set<String> BUILD_SORTS = Set.of("id", "buildNumber", "status", "startTime", "endTime", "createdAt");
+    public static final Set<String> LOG_SORTS = Set.of("id", "logLevel", "createdAt");
+
+    private PageResponse() {
+    }
+
+    /** Premier critère de tri hors liste blanche (null si tout est accepté) : pas de tri sur une colonne non indexée ou inconnue. */
+    public static String invalidSort(Pageable pageable, Set<String> allowed) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!allowed.contains(order.getProperty())) {
+                return order.getProperty();
+            }
+        }
+        return null;
+    }
+
+    public static Map<String, Object> of(Page<?> page) {
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("number", page.getNumber());
+        meta.put("size", page.getSize());
+        meta.put("totalElements", page.getTotalElements());
+        meta.put("totalPages", page.getTotalPages());
+        meta.put("sort", page.getSort().toString());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "success");
+        body.put("data", page.getContent());
+        body.put("page", meta);
+        return body;
+    }
+}
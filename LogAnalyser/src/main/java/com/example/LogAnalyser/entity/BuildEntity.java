@@ -6,7 +6,10 @@ import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -28,9 +31,17 @@ public class BuildEntity {
     @JoinColumn(name = "pipeline_id")
     private PipelineEntity pipeline;
 
+    // Collections jamais sérialisées ni incluses dans toString/equals : évite le chargement de tous les logs
+    // et la récursion build -> logs -> build (les lectures passent par BuildSummaryView / LogView)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "build", cascade = CascadeType.ALL)
     private List<StageEntity> stages;
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "build", cascade = CascadeType.ALL)
     private List<LogEntity> logs;
 
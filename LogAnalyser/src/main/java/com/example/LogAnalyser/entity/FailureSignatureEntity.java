@@ -0,0 +1,26 @@
+package com.example.LogAnalyser.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Template de signature d'échec (cluster Drain). L'id est celui du cluster en mémoire,
+ * rechargé au démarrage pour que les ids restent stables.
+ */
+@Data
+@Entity
+@Table(name = "failure_signatures")
+public class FailureSignatureEntity {
+
+    @Id
+    private Integer id;
+
+    @Column(columnDefinition = "TEXT")
+    private String template;
+
+    private Long totalCount;
+
+    private LocalDateTime updatedAt;
+}
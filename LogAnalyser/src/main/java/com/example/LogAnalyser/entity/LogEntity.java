@@ -5,10 +5,13 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 @Data
 @Entity
-@Table(name = "logs")
+@Table(name = "logs", indexes = @Index(name = "idx_logs_build_id", columnList = "build_id"))
 public class LogEntity {
 
     @Id
@@ -19,12 +22,21 @@ public class LogEntity {
     private String message;
     private String stackTrace;
 
-    @ManyToOne
-    @JoinColumn(name = "build_id")
+    // Cluster Drain (ERROR/WARN uniquement), voir FailureSignatureService
+    private Integer signatureId;
 
+    // LAZY : lire une page de logs ne recharge pas build + pipeline pour chaque ligne
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "build_id")
     private BuildEntity build;
 
-    @ManyToOne
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stage_id")
     private StageEntity stage;
 
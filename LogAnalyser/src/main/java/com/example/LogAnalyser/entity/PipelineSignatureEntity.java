@@ -0,0 +1,34 @@
+package com.example.LogAnalyser.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compteurs d'une signature pour un pipeline : lignes, builds touchés, dernier build.
+ */
+@Data
+@Entity
+@Table(name = "pipeline_signatures",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"pipeline_id", "signature_id"}))
+public class PipelineSignatureEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pipeline_id", nullable = false)
+    private String pipelineId;
+
+    @Column(name = "signature_id", nullable = false)
+    private Integer signatureId;
+
+    private Long occurrences;
+
+    private Long buildCount;
+
+    private Integer lastBuildNumber;
+
+    private LocalDateTime lastSeen;
+}
@@ -2,6 +2,10 @@ package com.example.LogAnalyser.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.List;
 @Data
@@ -16,10 +20,16 @@ public class StageEntity {
     private String stageName; // build / test / deploy
     private String status;    // success / failed / running
 
-    @ManyToOne
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "build_id")
     private BuildEntity build;
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "stage", cascade = CascadeType.ALL)
     private List<LogEntity> logs;
 
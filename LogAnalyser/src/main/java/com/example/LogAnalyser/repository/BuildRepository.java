@@ -1,14 +1,49 @@
 package com.example.LogAnalyser.repository;
 
+import com.example.LogAnalyser.dto.BuildSummaryView;
 import com.example.LogAnalyser.entity.BuildEntity;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface BuildRepository extends JpaRepository<BuildEntity, Long> {
         @Query("SELECT b FROM BuildEntity b LEFT JOIN FETCH b.logs WHERE b.id = :id")
     Optional<BuildEntity> findByIdWithLogs(@Param("id") Long id);
+
+    Optional<BuildEntity> findFirstByPipeline_IdAndBuildNumberOrderByIdDesc(String pipelineId, Integer buildNumber);
+
+    // Liste paginée : une requête pour la page + une pour le total, quel que soit le nombre de logs
+    // (readOnly : servie par le réplica s'il est configuré, voir ReadWriteRoutingDataSource)
+    @Query(value = "SELECT b.id AS id, b.buildNumber AS buildNumber, b.status AS status, b.startTime AS startTime, "
+            + "b.endTime AS endTime, b.triggeredBy AS triggeredBy, b.createdAt AS createdAt, b.pipeline.id AS pipelineId "
+            + "FROM BuildEntity b WHERE (:pipelineId IS NULL OR b.pipeline.id = :pipelineId)",
+            countQuery = "SELECT COUNT(b) FROM BuildEntity b WHERE (:pipelineId IS NULL OR b.pipeline.id = :pipelineId)")
+    @Transactional(readOnly = true)
+    Page<BuildSummaryView> findSummaries(@Param("pipelineId") String pipelineId, Pageable pageable);
+
+    // Même liste bornée sur createdAt : PostgreSQL ne lit que les partitions mensuelles concernées
+    @Query(value = "SELECT b.id AS id, b.buildNumber AS buildNumber, b.status AS status, b.startTime AS startTime, "
+            + "b.endTime AS endTime, b.triggeredBy AS triggeredBy, b.createdAt AS createdAt, b.pipeline.id AS pipelineId "
+            + "FROM BuildEntity b WHERE b.createdAt >= :from AND b.createdAt < :to "
+            + "AND (:pipelineId IS NULL OR b.pipeline.id = :pipelineId)",
+            countQuery = "SELECT COUNT(b) FROM BuildEntity b WHERE b.createdAt >= :from AND b.createdAt < :to "
+                    + "AND (:pipelineId IS NULL OR b.pipeline.id = :pipelineId)")
+    @Transactional(readOnly = true)
+    Page<BuildSummaryView> findSummariesBetween(@Param("pipelineId") String pipelineId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                Pageable pageable);
+
+    @Query("SELECT b.createdAt FROM BuildEntity b WHERE b.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
+
+    @Query("SELECT b.status FROM BuildEntity b WHERE b.id = :id")
+    Optional<String> findStatusById(@Param("id") Long id);
 }
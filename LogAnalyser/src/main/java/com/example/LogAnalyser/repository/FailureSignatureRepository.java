@@ -0,0 +1,8 @@
+package com.example.LogAnalyser.repository;
+
+import com.example.LogAnalyser.entity.FailureSignatureEntity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FailureSignatureRepository extends JpaRepository<FailureSignatureEntity, Integer> {
+}
@@ -1,11 +1,35 @@
 package com.example.LogAnalyser.repository;
 
+import com.example.LogAnalyser.dto.LogView;
 import com.example.LogAnalyser.entity.LogEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface LogRepository extends JpaRepository<LogEntity, Long> {
     List<LogEntity> findByBuildId(Long buildId);
+
+    // Projection paginée : seules les colonnes de LogView sont lues, sans jointure sur builds.
+    // createdAt >= date du build : les partitions mensuelles antérieures au build sont écartées
+    @Query(value = "SELECT l.id AS id, l.logLevel AS logLevel, l.message AS message, l.stackTrace AS stackTrace, "
+            + "l.signatureId AS signatureId, l.createdAt AS createdAt FROM LogEntity l "
+            + "WHERE l.build.id = :buildId AND l.createdAt >= :since AND (:level IS NULL OR l.logLevel = :level)",
+            countQuery = "SELECT COUNT(l) FROM LogEntity l "
+                    + "WHERE l.build.id = :buildId AND l.createdAt >= :since AND (:level IS NULL OR l.logLevel = :level)")
+    Page<LogView> findViewsByBuild(@Param("buildId") Long buildId,
+                                   @Param("since") LocalDateTime since,
+                                   @Param("level") String level,
+                                   Pageable pageable);
+
+    // Toutes les lignes du build dans l'ordre du console, même élagage des partitions (contexte d'échec)
+    @Query("SELECT l.id AS id, l.logLevel AS logLevel, l.message AS message, l.stackTrace AS stackTrace, "
+            + "l.signatureId AS signatureId, l.createdAt AS createdAt FROM LogEntity l "
+            + "WHERE l.build.id = :buildId AND l.createdAt >= :since ORDER BY l.id")
+    List<LogView> findViewsByBuildOrderById(@Param("buildId") Long buildId, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,8 @@
+package com.example.LogAnalyser.repository;
+
+import com.example.LogAnalyser.entity.PipelineSignatureEntity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PipelineSignatureRepository extends JpaRepository<PipelineSignatureEntity, Long> {
+}
@@ -0,0 +1,208 @@
+package com.example.LogAnalyser.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LogAnalyser.analysis.BuildAnomalyEvent;
+import com.example.LogAnalyser.analysis.EwmaStats;
+import com.example.LogAnalyser.analysis.SnapshotFile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Détection d'anomalies à l'ingestion : durée du build, nombre de lignes et nombre de lignes ERROR.
+ *
+ * Chaque pipeline garde une moyenne/variance EWMA par métrique (anomalies.alpha). Un build est comparé à
+ * la ligne de base AVANT d'y être intégré ; au-delà de anomalies.z-threshold écarts-types (après
+ * anomalies.warmup-builds builds), un {@link BuildAnomalyEvent} est publié. O(1) par build, quelle que soit
+ * la taille de l'historique. L'état est sauvegardé dans un snapshot comme pour la détection flaky.
+ */
+@Service
+public class AnomalyDetectionService {
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String[] METRICS = {"durationMs", "totalLines", "errorLines"};
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, EwmaStats[]> baselines = new ConcurrentHashMap<>();
+    private final Deque<BuildAnomalyEvent> recentAnomalies = new ArrayDeque<>();
+
+    private final double alpha;
+    private final double zThreshold;
+    private final int warmupBuilds;
+    private final double minRelativeStdDev;
+    private final int recentCapacity;
+    private final Path snapshotFile;
+    private volatile boolean dirty;
+
+    public AnomalyDetectionService(ApplicationEventPublisher eventPublisher,
+                                   @Value("${anomalies.alpha:0.1}") double alpha,
+                                   @Value("${anomalies.z-threshold:3.0}") double zThreshold,
+                                   @Value("${anomalies.warmup-builds:10}") int warmupBuilds,
+                                   @Value("${anomalies.min-relative-stddev:0.05}") double minRelativeStdDev,
+                                   @Value("${anomalies.recent-capacity:500}") int recentCapacity,
+                                   @Value("${anomalies.snapshot-file:data/snapshots/anomalies.bin}") String snapshotFile) {
+        this.eventPublisher = eventPublisher;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.warmupBuilds = warmupBuilds;
+        this.minRelativeStdDev = minRelativeStdDev;
+        this.recentCapacity = recentCapacity;
+        this.snapshotFile = Path.of(snapshotFile);
+    }
+
+    /**
+     * Compare le build à la ligne de base de son pipeline puis l'y intègre.
+     * @param durationMs null si le build n'a pas de startTime/endTime
+     * @param totalLines null (comme errorLines) pour la fin d'un build dont les lignes ont déjà été comptées
+     */
+    public void inspect(String pipelineId, Integer buildNumber, Long durationMs, Integer totalLines, Integer errorLines) {
+        Double[] values = {durationMs != null ? durationMs.doubleValue() : null,
+                totalLines != null ? totalLines.doubleValue() : null, errorLines != null ? errorLines.doubleValue() : null};
+        EwmaStats[] stats = baselines.computeIfAbsent(pipelineId, id -> newBaseline());
+
+        List<BuildAnomalyEvent> anomalies = new ArrayList<>(0);
+        synchronized (stats) {
+            for (int m = 0; m < METRICS.length; m++) {
+                Double value = values[m];
+                if (value == null) continue;
+
+                EwmaStats metric = stats[m];
+                if (metric.count() >= warmupBuilds) {
+                    // plancher d'écart-type : 1 unité ou x % de la moyenne
+                    double minStd = Math.max(1.0, minRelativeStdDev * Math.abs(metric.mean()));
+                    double z = metric.zScore(value, minStd);
+                    if (Math.abs(z) >= zThreshold) {
+                        anomalies.add(new BuildAnomalyEvent(pipelineId, buildNumber, METRICS[m], value,
+                                metric.mean(), Math.round(z * 100) / 100.0, LocalDateTime.now()));
+                    }
+                }
+                metric.update(value);
+            }
+        }
+        dirty = true;
+        anomalies.forEach(eventPublisher::publishEvent);
+    }
+
+    @EventListener
+    public void onAnomaly(BuildAnomalyEvent event) {
+        System.out.println("⚠️ Anomaly on pipeline " + event.pipelineId() + " build #" + event.buildNumber()
+                + ": " + event.metric() + "=" + Math.round(event.value())
+                + " (expected ~" + Math.round(event.expected()) + ", z=" + event.zScore() + ")");
+        synchronized (recentAnomalies) {
+            recentAnomalies.addFirst(event);
+            while (recentAnomalies.size() > recentCapacity) {
+                recentAnomalies.removeLast();
+            }
+        }
+    }
+
+    /** Anomalies récentes, de la plus récente à la plus ancienne. */
+    public List<BuildAnomalyEvent> getRecentAnomalies(String pipelineId, int limit) {
+        List<BuildAnomalyEvent> result = new ArrayList<>();
+        synchronized (recentAnomalies) {
+            for (BuildAnomalyEvent event : recentAnomalies) {
+                if (result.size() >= limit) break;
+                if (pipelineId == null || pipelineId.equals(event.pipelineId())) {
+                    result.add(event);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Ligne de base courante d'un pipeline (moyenne et écart-type par métrique). */
+    public Map<String, Object> getBaseline(String pipelineId) {
+        EwmaStats[] stats = baselines.get(pipelineId);
+        if (stats == null) return null;
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        synchronized (stats) {
+            for (int m = 0; m < METRICS.length; m++) {
+                Map<String, Object> metric = new LinkedHashMap<>();
+                metric.put("mean", Math.round(stats[m].mean() * 100) / 100.0);
+                metric.put("stdDev", Math.round(stats[m].stdDev() * 100) / 100.0);
+                metric.put("samples", stats[m].count());
+                baseline.put(METRICS[m], metric);
+            }
+        }
+        return baseline;
+    }
+
+    private EwmaStats[] newBaseline() {
+        EwmaStats[] stats = new EwmaStats[METRICS.length];
+        for (int m = 0; m < METRICS.length; m++) {
+            stats[m] = new EwmaStats(alpha);
+        }
+        return stats;
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    @PostConstruct
+    void loadSnapshot() {
+        try {
+            boolean loaded = SnapshotFile.load(snapshotFile, SNAPSHOT_VERSION, in -> {
+                int pipelines = in.readInt();
+                for (int p = 0; p < pipelines; p++) {
+                    String pipelineId = in.readUTF();
+                    EwmaStats[] stats = new EwmaStats[METRICS.length];
+                    for (int m = 0; m < METRICS.length; m++) {
+                        stats[m] = new EwmaStats(alpha, in.readDouble(), in.readDouble(), in.readLong());
+                    }
+                    baselines.put(pipelineId, stats);
+                }
+            });
+            if (loaded) {
+                System.out.println("✓ Anomaly baselines restored for " + baselines.size() + " pipeline(s)");
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Anomaly snapshot ignored: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${anomalies.snapshot-interval-ms:60000}")
+    public void saveSnapshot() {
+        if (!dirty) return;
+        dirty = false;
+        try {
+            SnapshotFile.save(snapshotFile, SNAPSHOT_VERSION, out -> {
+                Map<String, EwmaStats[]> copy = new LinkedHashMap<>(baselines);
+                out.writeInt(copy.size());
+                for (Map.Entry<String, EwmaStats[]> entry : copy.entrySet()) {
+                    EwmaStats[] stats = entry.getValue();
+                    synchronized (stats) {
+                        out.writeUTF(entry.getKey());
+                        for (EwmaStats metric : stats) {
+                            out.writeDouble(metric.mean());
+                            out.writeDouble(metric.variance());
+                            out.writeLong(metric.count());
+                        }
+                    }
+                }
+            });
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("❌ Anomaly snapshot failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void saveOnShutdown() {
+        saveSnapshot();
+    }
+}
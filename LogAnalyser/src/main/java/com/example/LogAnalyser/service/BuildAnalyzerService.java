@@ -1,15 +1,23 @@
 package com.example.LogAnalyser.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.LogAnalyser.analysis.FailureContextExtractor.FailureContext;
+import com.example.LogAnalyser.dto.LogView;
 import com.example.LogAnalyser.entity.BuildEntity;
 import com.example.LogAnalyser.entity.LogEntity;
 import com.example.LogAnalyser.entity.PipelineEntity;
@@ -24,13 +32,28 @@ public class BuildAnalyzerService {
     private final PipelineRepository pipelineRepository;
     private final BuildRepository buildRepository;
     private final LogRepository logRepository;
+    private final FailureSignatureService failureSignatureService;
+    private final FlakinessService flakinessService;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final FailureContextService failureContextService;
+    private final IaAnalysisClient iaAnalysisClient;
 
     public BuildAnalyzerService(PipelineRepository pipelineRepository,
                                 BuildRepository buildRepository,
-                                LogRepository logRepository) {
+                                LogRepository logRepository,
+                                FailureSignatureService failureSignatureService,
+                                FlakinessService flakinessService,
+                                AnomalyDetectionService anomalyDetectionService,
+                                FailureContextService failureContextService,
+                                IaAnalysisClient iaAnalysisClient) {
         this.pipelineRepository = pipelineRepository;
         this.buildRepository = buildRepository;
         this.logRepository = logRepository;
+        this.failureSignatureService = failureSignatureService;
+        this.flakinessService = flakinessService;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.failureContextService = failureContextService;
+        this.iaAnalysisClient = iaAnalysisClient;
     }
 
   @Transactional
@@ -56,7 +79,6 @@ String pipelineId = data.get("pipelineId").toString();
 
         String status = (String) data.get("status");
         String triggeredBy = data.get("triggeredBy") != null ? data.get("triggeredBy").toString() : null;
-        String startTimeStr = data.get("startTime") != null ? data.get("startTime").toString() : null;
 
         // Récupération des logs
         List<Map<String, Object>> logs = new ArrayList<>();
@@ -81,6 +103,15 @@ String pipelineId = data.get("pipelineId").toString();
                     return pipelineRepository.save(p);
                 });
 
+        // Build déjà reçu : ingéré RUNNING par le Collector puis renvoyé, sans logs, à sa fin
+        Optional<BuildEntity> existing = buildNumber != null
+                ? buildRepository.findFirstByPipeline_IdAndBuildNumberOrderByIdDesc(pipelineId, buildNumber)
+                : Optional.empty();
+        if (existing.isPresent()) {
+            savedBuilds.add(completeBuild(pipelineId, existing.get(), status, data));
+            continue;
+        }
+
         // Sauvegarde du build
         BuildEntity buildEntity = new BuildEntity();
         buildEntity.setBuildNumber(buildNumber);
@@ -88,17 +119,15 @@ String pipelineId = data.get("pipelineId").toString();
         buildEntity.setTriggeredBy(triggeredBy);
         buildEntity.setPipeline(pipeline);
 
-        if (startTimeStr != null && !startTimeStr.equals("null")) {
-            try {
-                buildEntity.setStartTime(LocalDateTime.parse(startTimeStr));
-            } catch (Exception e) {
-                System.err.println("⚠️ startTime invalide pour build #" + buildNumber);
-            }
-        }
+        buildEntity.setStartTime(parseDateTime(data.get("startTime"), "startTime", buildNumber));
+        buildEntity.setEndTime(parseDateTime(data.get("endTime"), "endTime", buildNumber));
         buildEntity.setCreatedAt(LocalDateTime.now());
 
         buildRepository.saveAndFlush(buildEntity);
 
+        // Fenêtre glissante des résultats du pipeline (détection flaky), O(1) par build
+        afterCommit(() -> flakinessService.record(pipelineId, buildEntity));
+
         // Sauvegarde des logs
         if (!logs.isEmpty()) {
             List<LogEntity> entities = new ArrayList<>();
@@ -110,10 +139,27 @@ String pipelineId = data.get("pipelineId").toString();
                 logEntity.setBuild(buildEntity);
                 entities.add(logEntity);
             }
+            // Signatures d'échec (Drain) sur les lignes ERROR/WARN, avant sauvegarde pour persister signatureId
+            Map<Integer, Long> signatures = failureSignatureService.classify(entities);
             logRepository.saveAll(entities);
             System.out.println("Logs sauvegardés: " + entities.size() + " pour build #" + buildNumber);
+            afterCommit(() -> failureSignatureService.record(pipelineId, buildNumber, signatures));
+
+            // Contexte borné (première erreur, stage, stack traces dédoublonnées) pour l'IA, builds en échec uniquement
+            if (FailureContextService.isFailed(status)) {
+                afterCommit(() -> analyzeFailure(pipelineId, buildNumber, entities));
+            }
         }
 
+        // Anomalies (durée, volume de logs, lignes ERROR) par rapport à la ligne de base EWMA du pipeline
+        int errorLines = (int) logs.stream()
+                .filter(log -> "ERROR".equals(String.valueOf(log.get("logLevel"))))
+                .count();
+        Long durationMs = (buildEntity.getStartTime() != null && buildEntity.getEndTime() != null)
+                ? Duration.between(buildEntity.getStartTime(), buildEntity.getEndTime()).toMillis()
+                : null;
+        afterCommit(() -> anomalyDetectionService.inspect(pipelineId, buildNumber, durationMs, logs.size(), errorLines));
+
         savedBuilds.add("Build " + buildNumber + " pipeline " + pipelineId + " sauvegardé avec " + logs.size() + " logs");
     }
 
@@ -122,4 +168,106 @@ String pipelineId = data.get("pipelineId").toString();
     result.put("message", "Analyse terminée pour " + savedBuilds.size() + " build(s)");
     return result;
 }
+
+    /**
+     * Fin d'un build RUNNING : statut et horaires mis à jour, puis son résultat (flaky) et sa durée (anomalies)
+     * pris en compte. Les lignes ont été comptées à la première réception. Un build déjà terminé est ignoré.
+     */
+    private String completeBuild(String pipelineId, BuildEntity buildEntity, String status, Map<String, Object> data) {
+        Integer buildNumber = buildEntity.getBuildNumber();
+        if (!"RUNNING".equals(buildEntity.getStatus()) || status == null || "RUNNING".equals(status)) {
+            return "Build " + buildNumber + " pipeline " + pipelineId + " déjà reçu, ignoré";
+        }
+
+        buildEntity.setStatus(status);
+        LocalDateTime startTime = parseDateTime(data.get("startTime"), "startTime", buildNumber);
+        if (startTime != null) buildEntity.setStartTime(startTime);
+        buildEntity.setEndTime(parseDateTime(data.get("endTime"), "endTime", buildNumber));
+        buildRepository.saveAndFlush(buildEntity);
+
+        Long durationMs = (buildEntity.getStartTime() != null && buildEntity.getEndTime() != null)
+                ? Duration.between(buildEntity.getStartTime(), buildEntity.getEndTime()).toMillis()
+                : null;
+        afterCommit(() -> {
+            flakinessService.record(pipelineId, buildEntity);
+            anomalyDetectionService.inspect(pipelineId, buildNumber, durationMs, null, null);
+        });
+        return "Build " + buildNumber + " pipeline " + pipelineId + " terminé : " + status;
+    }
+
+    /** Contexte borné d'un build en échec puis analyse IA asynchrone (lots, cache, disjoncteur). */
+    private void analyzeFailure(String pipelineId, Integer buildNumber, List<LogEntity> entities) {
+        FailureContext context = failureContextService.extract(entities);
+        System.out.println("✓ Contexte d'échec build #" + buildNumber + ": " + context.contextBytes()
+                + "/" + context.originalBytes() + " octets");
+
+        // l'ingestion n'attend pas la réponse
+        if (iaAnalysisClient.isEnabled()) {
+            iaAnalysisClient.analyze(pipelineId, buildNumber, context.stage(), context.text())
+                    .whenComplete((analysis, error) -> {
+                        if (error != null) {
+                            System.err.println("⚠️ IA analysis skipped for build #" + buildNumber + ": " + error.getMessage());
+                        } else {
+                            System.out.println("🤖 IA analysis for build #" + buildNumber + ": " + analysis);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * État en mémoire (flaky, signatures, anomalies) et appel IA après le commit de processBuild : un build
+     * annulé (rollback) n'y laisse pas de trace. Tout de suite hors transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Date ISO-8601 ("2024-05-17T10:30:12.345") ou tableau Jackson [2024,5,17,10,30,12,345000000]
+     * (Collectors qui sérialisent les LocalDateTime en timestamps) ; null si absente ou invalide.
+     */
+    static LocalDateTime parseDateTime(Object value, String field, Integer buildNumber) {
+        try {
+            if (value instanceof List<?> parts && parts.size() >= 5) {
+                int[] f = new int[7];
+                for (int i = 0; i < Math.min(parts.size(), 7); i++) f[i] = ((Number) parts.get(i)).intValue();
+                return LocalDateTime.of(f[0], f[1], f[2], f[3], f[4], f[5], f[6]);
+            }
+            if (value != null && !"null".equals(value.toString())) {
+                return LocalDateTime.parse(value.toString());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ " + field + " invalide pour build #" + buildNumber + ": " + value);
+        }
+        return null;
+    }
+
+    /**
+     * Page de logs d'un build. Les logs sont insérés après leur build : la date du build sert de borne basse
+     * sur createdAt, ce qui limite la lecture aux partitions mensuelles à partir de ce build.
+     * Vide si le build n'existe pas (404 : une page vide serait mise en cache par la gateway).
+     */
+    @Transactional(readOnly = true)
+    public Optional<Page<LogView>> getBuildLogs(Long buildId, String level, Pageable pageable) {
+        return buildRepository.findCreatedAtById(buildId)
+                .map(since -> logRepository.findViewsByBuild(buildId, since,
+                        level != null ? level.toUpperCase() : null, pageable));
+    }
+
+    /** Build présent et terminé (pas RUNNING) : ses logs ne changent plus. */
+    @Transactional(readOnly = true)
+    public boolean isBuildFinished(Long buildId) {
+        return buildRepository.findStatusById(buildId)
+                .map(status -> !"RUNNING".equalsIgnoreCase(status))
+                .orElse(false);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.LogAnalyser.service;
+
+/**
+ * Disjoncteur simple : après failureThreshold échecs consécutifs (erreur ou appel trop lent), il s'ouvre
+ * pendant openMillis et refuse les appels ; ensuite un seul appel d'essai passe (HALF_OPEN) et referme le
+ * circuit s'il réussit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /** true si un appel peut partir maintenant (en HALF_OPEN, un seul appel d'essai à la fois). */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                System.err.println("⚡ IA circuit opened after " + consecutiveFailures + " failure(s)");
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /** Circuit ouvert et délai d'ouverture non écoulé : refuser sans appel réseau. */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMillis;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
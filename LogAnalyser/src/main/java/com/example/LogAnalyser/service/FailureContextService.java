@@ -0,0 +1,103 @@
+package com.example.LogAnalyser.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.LogAnalyser.analysis.FailureContextExtractor;
+import com.example.LogAnalyser.analysis.FailureContextExtractor.FailureContext;
+import com.example.LogAnalyser.analysis.FailureContextExtractor.Line;
+import com.example.LogAnalyser.dto.LogView;
+import com.example.LogAnalyser.entity.LogEntity;
+
+/**
+ * Pré-filtre avant l'IA : pour chaque build en échec, extrait un contexte borné (context.max-bytes,
+ * ou context.max-tokens x 4 octets) au lieu d'envoyer tout le console. Mesure la réduction obtenue.
+ */
+@Service
+public class FailureContextService {
+
+    private static final int BYTES_PER_TOKEN = 4;
+
+    private final FailureContextExtractor extractor;
+    private final int budgetBytes;
+
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder contextBytes = new LongAdder();
+    private final LongAdder truncated = new LongAdder();
+    private final LongAdder extractionNanos = new LongAdder();
+    private final AtomicLong maxExtractionNanos = new AtomicLong();
+
+    public FailureContextService(@Value("${context.lines-before:10}") int linesBefore,
+                                 @Value("${context.lines-after:20}") int linesAfter,
+                                 @Value("${context.max-frames:15}") int maxFrames,
+                                 @Value("${context.max-bytes:8192}") int maxBytes,
+                                 @Value("${context.max-tokens:0}") int maxTokens) {
+        this.budgetBytes = maxTokens > 0 ? Math.min(maxBytes, maxTokens * BYTES_PER_TOKEN) : maxBytes;
+        this.extractor = new FailureContextExtractor(linesBefore, linesAfter, maxFrames, budgetBytes);
+    }
+
+    public static boolean isFailed(String status) {
+        return "FAILURE".equals(status) || "UNSTABLE".equals(status);
+    }
+
+    /** Contexte d'un build ingéré à partir de ses logs, dans l'ordre du console ; compté dans les stats. */
+    public FailureContext extract(List<LogEntity> logs) {
+        long start = System.nanoTime();
+        FailureContext context = extractLines(logs);
+        long elapsed = System.nanoTime() - start;
+
+        builds.increment();
+        originalBytes.add(context.originalBytes());
+        contextBytes.add(context.contextBytes());
+        if (context.truncated()) truncated.increment();
+        extractionNanos.add(elapsed);
+        maxExtractionNanos.accumulateAndGet(elapsed, Math::max);
+        return context;
+    }
+
+    /**
+     * Logs relus depuis la base, déjà triés par id (ordre d'insertion = ordre du console), pour
+     * GET /builds/{id}/context : hors stats, qui mesurent la réduction à l'ingestion.
+     */
+    public FailureContext extractStored(List<LogView> logs) {
+        List<Line> lines = new ArrayList<>(logs.size());
+        for (LogView log : logs) {
+            lines.add(new Line(log.getLogLevel(), log.getMessage() != null ? log.getMessage() : ""));
+        }
+        return extractor.extract(lines);
+    }
+
+    private FailureContext extractLines(List<LogEntity> logs) {
+        List<Line> lines = new ArrayList<>(logs.size());
+        for (LogEntity log : logs) {
+            lines.add(new Line(log.getLogLevel(), log.getMessage() != null ? log.getMessage() : ""));
+        }
+        return extractor.extract(lines);
+    }
+
+    public Map<String, Object> getStats() {
+        long count = builds.sum();
+        long original = originalBytes.sum();
+        long context = contextBytes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("budgetBytes", budgetBytes);
+        stats.put("builds", count);
+        stats.put("originalBytes", original);
+        stats.put("contextBytes", context);
+        stats.put("reductionRatio", context == 0 ? 0 : Math.round(original * 10.0 / context) / 10.0);
+        stats.put("avgOriginalBytes", count == 0 ? 0 : original / count);
+        stats.put("avgContextBytes", count == 0 ? 0 : context / count);
+        stats.put("truncatedBuilds", truncated.sum());
+        stats.put("avgExtractionMicros", count == 0 ? 0 : extractionNanos.sum() / count / 1000);
+        stats.put("maxExtractionMicros", maxExtractionNanos.get() / 1000);
+        return stats;
+    }
+}
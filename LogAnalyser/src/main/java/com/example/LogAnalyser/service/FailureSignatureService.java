@@ -0,0 +1,225 @@
+package com.example.LogAnalyser.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LogAnalyser.analysis.DrainTemplateMiner;
+import com.example.LogAnalyser.analysis.DrainTemplateMiner.LogCluster;
+import com.example.LogAnalyser.entity.FailureSignatureEntity;
+import com.example.LogAnalyser.entity.LogEntity;
+import com.example.LogAnalyser.entity.PipelineSignatureEntity;
+import com.example.LogAnalyser.repository.FailureSignatureRepository;
+import com.example.LogAnalyser.repository.PipelineSignatureRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Signatures d'échec : chaque ligne ERROR/WARN reçue passe dans le miner Drain, reçoit l'id de son cluster,
+ * et les compteurs (pipeline, signature) sont tenus en mémoire. Un flush périodique
+ * (signatures.flush-interval-ms) écrit les compteurs modifiés ; au démarrage les templates et compteurs
+ * persistés sont rechargés.
+ */
+@Service
+public class FailureSignatureService {
+
+    private final FailureSignatureRepository signatureRepository;
+    private final PipelineSignatureRepository pipelineSignatureRepository;
+    private final DrainTemplateMiner miner;
+
+    private final Map<Integer, LogCluster> clustersById = new HashMap<>();
+    private final Set<Integer> dirtyTemplates = ConcurrentHashMap.newKeySet();
+    private final Map<String, Map<Integer, SignatureStats>> statsByPipeline = new ConcurrentHashMap<>();
+
+    public FailureSignatureService(FailureSignatureRepository signatureRepository,
+                                   PipelineSignatureRepository pipelineSignatureRepository,
+                                   @Value("${signatures.drain.depth:4}") int depth,
+                                   @Value("${signatures.drain.similarity:0.4}") double similarity,
+                                   @Value("${signatures.drain.max-children:100}") int maxChildren) {
+        this.signatureRepository = signatureRepository;
+        this.pipelineSignatureRepository = pipelineSignatureRepository;
+        this.miner = new DrainTemplateMiner(depth, similarity, maxChildren);
+    }
+
+    @PostConstruct
+    void restore() {
+        synchronized (miner) {
+            for (FailureSignatureEntity signature : signatureRepository.findAll()) {
+                LogCluster cluster = miner.restore(signature.getId(), signature.getTemplate(),
+                        signature.getTotalCount() != null ? signature.getTotalCount() : 0);
+                clustersById.put(cluster.getId(), cluster);
+            }
+        }
+        for (PipelineSignatureEntity entity : pipelineSignatureRepository.findAll()) {
+            SignatureStats stats = statsFor(entity.getPipelineId(), entity.getSignatureId());
+            stats.persistedId = entity.getId();
+            stats.occurrences.add(entity.getOccurrences() != null ? entity.getOccurrences() : 0);
+            stats.builds.set(entity.getBuildCount() != null ? entity.getBuildCount() : 0);
+            stats.lastBuildNumber = entity.getLastBuildNumber();
+            stats.lastSeen = entity.getLastSeen();
+        }
+        System.out.println("✓ Failure signatures restored: " + clustersById.size() + " templates");
+    }
+
+    /**
+     * Classe les lignes ERROR/WARN d'un build (renseigne LogEntity.signatureId) sans toucher aux compteurs.
+     * À appeler avant la sauvegarde des logs pour que signatureId soit persisté ; les templates Drain appris
+     * restent en mémoire même si la transaction est annulée.
+     * @return nombre de lignes par signature, à passer à {@link #record} une fois le build enregistré
+     */
+    public Map<Integer, Long> classify(List<LogEntity> logs) {
+        Map<Integer, Long> countsInBuild = new HashMap<>();
+        synchronized (miner) {
+            for (LogEntity log : logs) {
+                if (!isFailureLevel(log.getLogLevel()) || log.getMessage() == null) continue;
+
+                int sizeBefore = miner.getClusters().size();
+                LogCluster cluster = miner.add(log.getMessage());
+                if (miner.getClusters().size() != sizeBefore) {
+                    clustersById.put(cluster.getId(), cluster);
+                }
+                log.setSignatureId(cluster.getId());
+                countsInBuild.merge(cluster.getId(), 1L, Long::sum);
+            }
+        }
+        return countsInBuild;
+    }
+
+    /** Compteurs des signatures d'un build enregistré (résultat de {@link #classify}). */
+    public void record(String pipelineId, Integer buildNumber, Map<Integer, Long> countsInBuild) {
+        if (countsInBuild.isEmpty()) return;
+
+        dirtyTemplates.addAll(countsInBuild.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        countsInBuild.forEach((signatureId, count) -> {
+            SignatureStats stats = statsFor(pipelineId, signatureId);
+            stats.occurrences.add(count);
+            stats.builds.incrementAndGet();
+            stats.lastBuildNumber = buildNumber;
+            stats.lastSeen = now;
+            stats.dirty = true;
+        });
+    }
+
+    /** Signatures les plus fréquentes d'un pipeline, servies depuis la mémoire. */
+    public List<Map<String, Object>> topSignatures(String pipelineId, int limit) {
+        Map<Integer, SignatureStats> stats = statsByPipeline.getOrDefault(pipelineId, Map.of());
+        List<Map<String, Object>> result = new ArrayList<>();
+        stats.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<Integer, SignatureStats> e) -> e.getValue().occurrences.sum()).reversed())
+                .limit(limit)
+                .forEach(e -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("signatureId", e.getKey());
+                    row.put("template", templateOf(e.getKey()));
+                    row.put("occurrences", e.getValue().occurrences.sum());
+                    row.put("builds", e.getValue().builds.get());
+                    row.put("lastBuildNumber", e.getValue().lastBuildNumber);
+                    row.put("lastSeen", e.getValue().lastSeen);
+                    result.add(row);
+                });
+        return result;
+    }
+
+    public int getSignatureCount() {
+        synchronized (miner) {
+            return clustersById.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${signatures.flush-interval-ms:30000}")
+    public void flush() {
+        List<FailureSignatureEntity> templates = new ArrayList<>();
+        Set<Integer> flushed = new HashSet<>(dirtyTemplates);
+        synchronized (miner) {
+            for (Integer signatureId : flushed) {
+                LogCluster cluster = clustersById.get(signatureId);
+                if (cluster == null) continue;
+                FailureSignatureEntity entity = new FailureSignatureEntity();
+                entity.setId(cluster.getId());
+                entity.setTemplate(cluster.getTemplate());
+                entity.setTotalCount(cluster.getSize());
+                entity.setUpdatedAt(LocalDateTime.now());
+                templates.add(entity);
+            }
+        }
+
+        List<SignatureStats> dirtyStats = new ArrayList<>();
+        List<PipelineSignatureEntity> counters = new ArrayList<>();
+        statsByPipeline.forEach((pipelineId, stats) -> stats.forEach((signatureId, s) -> {
+            if (!s.dirty) return;
+            s.dirty = false;
+            PipelineSignatureEntity entity = new PipelineSignatureEntity();
+            entity.setId(s.persistedId);
+            entity.setPipelineId(pipelineId);
+            entity.setSignatureId(signatureId);
+            entity.setOccurrences(s.occurrences.sum());
+            entity.setBuildCount(s.builds.get());
+            entity.setLastBuildNumber(s.lastBuildNumber);
+            entity.setLastSeen(s.lastSeen);
+            dirtyStats.add(s);
+            counters.add(entity);
+        }));
+        if (templates.isEmpty() && counters.isEmpty()) return;
+
+        try {
+            signatureRepository.saveAll(templates);
+            dirtyTemplates.removeAll(flushed);
+            List<PipelineSignatureEntity> saved = pipelineSignatureRepository.saveAll(counters);
+            for (int i = 0; i < saved.size(); i++) {
+                dirtyStats.get(i).persistedId = saved.get(i).getId();
+            }
+            System.out.println("💾 Failure signatures flushed: " + templates.size() + " templates, "
+                    + counters.size() + " pipeline counters");
+        } catch (Exception e) {
+            dirtyStats.forEach(s -> s.dirty = true);
+            System.err.println("❌ Failure signature flush failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private String templateOf(Integer signatureId) {
+        synchronized (miner) {
+            LogCluster cluster = clustersById.get(signatureId);
+            return cluster != null ? cluster.getTemplate() : null;
+        }
+    }
+
+    private SignatureStats statsFor(String pipelineId, Integer signatureId) {
+        return statsByPipeline
+                .computeIfAbsent(pipelineId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(signatureId, id -> new SignatureStats());
+    }
+
+    private static boolean isFailureLevel(String level) {
+        return "ERROR".equals(level) || "WARN".equals(level);
+    }
+
+    private static final class SignatureStats {
+        final LongAdder occurrences = new LongAdder();
+        final AtomicLong builds = new AtomicLong();
+        volatile Integer lastBuildNumber;
+        volatile LocalDateTime lastSeen;
+        volatile boolean dirty;
+        volatile Long persistedId;
+    }
+}
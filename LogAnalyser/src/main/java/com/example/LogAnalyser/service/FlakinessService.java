@@ -0,0 +1,180 @@
+package com.example.LogAnalyser.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LogAnalyser.analysis.OutcomeWindow;
+import com.example.LogAnalyser.analysis.SnapshotFile;
+import com.example.LogAnalyser.entity.BuildEntity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Détection des pipelines instables (flaky) : fenêtre glissante des N derniers résultats par pipeline,
+ * mise à jour à chaque build reçu. Un job qui échoue toujours n'est pas flaky (aucune bascule) ;
+ * un job qui alterne SUCCESS/FAILURE l'est.
+ *
+ * Score = taux de bascule dans la fenêtre (bascules / (taille - 1)), de 0 à 1. Les statistiques sont
+ * lues directement sur les fenêtres en mémoire, sans requête sur la table builds. Les fenêtres sont
+ * sauvegardées dans un snapshot (flakiness.snapshot-file) et rechargées au démarrage.
+ */
+@Service
+public class FlakinessService {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Map<String, OutcomeWindow> windows = new ConcurrentHashMap<>();
+    private final int windowSize;
+    private final int minBuilds;
+    private final double flakyThreshold;
+    private final Path snapshotFile;
+    private volatile boolean dirty;
+
+    public FlakinessService(@Value("${flakiness.window-size:50}") int windowSize,
+                            @Value("${flakiness.min-builds:10}") int minBuilds,
+                            @Value("${flakiness.threshold:0.3}") double flakyThreshold,
+                            @Value("${flakiness.snapshot-file:data/snapshots/flakiness.bin}") String snapshotFile) {
+        this.windowSize = windowSize;
+        this.minBuilds = minBuilds;
+        this.flakyThreshold = flakyThreshold;
+        this.snapshotFile = Path.of(snapshotFile);
+    }
+
+    /** Ajoute le résultat d'un build ; les statuts autres que SUCCESS/FAILURE/UNSTABLE sont ignorés. */
+    public void record(String pipelineId, BuildEntity build) {
+        Boolean failed = outcomeOf(build.getStatus());
+        if (failed == null) return;
+
+        OutcomeWindow window = windows.computeIfAbsent(pipelineId, id -> new OutcomeWindow(windowSize));
+        int durationMs = durationMs(build.getStartTime(), build.getEndTime());
+        synchronized (window) {
+            window.add(failed, durationMs);
+        }
+        dirty = true;
+    }
+
+    public Map<String, Object> getFlakiness(String pipelineId) {
+        OutcomeWindow window = windows.get(pipelineId);
+        return window == null ? null : toStats(pipelineId, window);
+    }
+
+    /** Pipelines triés par score décroissant, limités à ceux ayant au moins flakiness.min-builds builds. */
+    public List<Map<String, Object>> getFlakyPipelines(double minScore, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        windows.forEach((pipelineId, window) -> {
+            Map<String, Object> stats = toStats(pipelineId, window);
+            if ((int) stats.get("builds") >= minBuilds && (double) stats.get("flakinessScore") >= minScore) {
+                result.add(stats);
+            }
+        });
+        result.sort(Comparator.comparingDouble((Map<String, Object> s) -> (double) s.get("flakinessScore")).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    public double getFlakyThreshold() {
+        return flakyThreshold;
+    }
+
+    private Map<String, Object> toStats(String pipelineId, OutcomeWindow window) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (window) {
+            double score = window.flipRate();
+            stats.put("pipelineId", pipelineId);
+            stats.put("builds", window.size());
+            stats.put("windowSize", window.capacity());
+            stats.put("failures", window.failures());
+            stats.put("flips", window.flips());
+            stats.put("failureRate", round(window.failureRate()));
+            stats.put("flipRate", round(window.flipRate()));
+            stats.put("flakinessScore", round(score));
+            stats.put("flaky", window.size() >= minBuilds && score >= flakyThreshold);
+            stats.put("meanDurationMs", Math.round(window.meanDurationMs()));
+            stats.put("durationStdDevMs", Math.round(window.durationStdDevMs()));
+        }
+        return stats;
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    @PostConstruct
+    void loadSnapshot() {
+        try {
+            boolean loaded = SnapshotFile.load(snapshotFile, SNAPSHOT_VERSION, in -> {
+                int pipelines = in.readInt();
+                for (int p = 0; p < pipelines; p++) {
+                    String pipelineId = in.readUTF();
+                    int size = in.readInt();
+                    OutcomeWindow window = new OutcomeWindow(windowSize);
+                    for (int i = 0; i < size; i++) {
+                        window.add(in.readBoolean(), in.readInt());
+                    }
+                    windows.put(pipelineId, window);
+                }
+            });
+            if (loaded) {
+                System.out.println("✓ Flakiness windows restored for " + windows.size() + " pipeline(s)");
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Flakiness snapshot ignored: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flakiness.snapshot-interval-ms:60000}")
+    public void saveSnapshot() {
+        if (!dirty) return;
+        dirty = false;
+        try {
+            SnapshotFile.save(snapshotFile, SNAPSHOT_VERSION, out -> {
+                Map<String, OutcomeWindow> copy = new LinkedHashMap<>(windows);
+                out.writeInt(copy.size());
+                for (Map.Entry<String, OutcomeWindow> entry : copy.entrySet()) {
+                    OutcomeWindow window = entry.getValue();
+                    synchronized (window) {
+                        out.writeUTF(entry.getKey());
+                        out.writeInt(window.size());
+                        for (int i = 0; i < window.size(); i++) {
+                            out.writeBoolean(window.failedAt(i));
+                            out.writeInt(window.durationAt(i));
+                        }
+                    }
+                }
+            });
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("❌ Flakiness snapshot failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void saveOnShutdown() {
+        saveSnapshot();
+    }
+
+    private static Boolean outcomeOf(String status) {
+        if ("SUCCESS".equals(status)) return false;
+        if ("FAILURE".equals(status) || "UNSTABLE".equals(status)) return true;
+        return null;
+    }
+
+    private static int durationMs(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || end.isBefore(start)) return OutcomeWindow.NO_DURATION;
+        return (int) Math.min(Integer.MAX_VALUE, Duration.between(start, end).toMillis());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
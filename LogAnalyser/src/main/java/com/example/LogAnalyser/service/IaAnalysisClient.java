@@ -0,0 +1,342 @@
+package com.example.LogAnalyser.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Client asynchrone de IA_Analyste_service (Flask, port 5000).
+ *
+ * Contrat : POST {ia.url}/analyze/batch avec {"items":[{"id","pipelineId","buildNumber","stage","context"}]},
+ * réponse {"results":[{"id", ...}]} ; chaque résultat est rendu tel quel à l'appelant de {@link #analyze}.
+ *
+ * <ul>
+ *   <li>micro-batching : les demandes sont regroupées par ia.batch-size, ou envoyées après ia.batch-linger-ms ;</li>
+ *   <li>au plus ia.max-in-flight requêtes HTTP en cours ; au-delà de ia.max-queue demandes en attente,
+ *       les nouvelles sont refusées (load shedding) ;</li>
+ *   <li>cache LRU par SHA-256 du contexte : un échec identique d'un build à l'autre ne repasse pas par l'IA,
+ *       et les demandes identiques en cours partagent la même réponse ;</li>
+ *   <li>disjoncteur : les erreurs et les appels plus lents que ia.slow-call-ms l'ouvrent ; circuit ouvert,
+ *       les demandes échouent immédiatement sans appel réseau. Pendant l'appel d'essai (HALF_OPEN), les
+ *       demandes attendent son résultat dans la file : refusées seulement s'il rouvre le circuit.</li>
+ * </ul>
+ * Aucune méthode publique ne bloque : l'ingestion de l'Analyzer n'attend jamais l'IA.
+ */
+@Service
+public class IaAnalysisClient {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI batchUri;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxQueue;
+    private final long slowCallMillis;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService scheduler;
+
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final Map<String, CompletableFuture<Map<String, Object>>> pendingByKey = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> cache;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public IaAnalysisClient(ObjectMapper objectMapper,
+                            @Value("${ia.url:http://localhost:5000}") String baseUrl,
+                            @Value("${ia.enabled:false}") boolean enabled,
+                            @Value("${ia.batch-size:16}") int batchSize,
+                            @Value("${ia.batch-linger-ms:50}") long lingerMillis,
+                            @Value("${ia.max-in-flight:4}") int maxInFlight,
+                            @Value("${ia.max-queue:1000}") int maxQueue,
+                            @Value("${ia.cache-size:10000}") int cacheSize,
+                            @Value("${ia.timeout-ms:10000}") long timeoutMillis,
+                            @Value("${ia.slow-call-ms:5000}") long slowCallMillis,
+                            @Value("${ia.circuit.failure-threshold:5}") int failureThreshold,
+                            @Value("${ia.circuit.open-ms:30000}") long openMillis) {
+        this.objectMapper = objectMapper;
+        this.batchUri = URI.create(baseUrl + "/analyze/batch");
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxQueue = maxQueue;
+        this.slowCallMillis = slowCallMillis;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(Math.min(timeoutMillis, 5000)))
+                .build();
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ia-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Demande d'analyse d'un contexte d'échec ; le futur échoue si le circuit est ouvert ou la file pleine. */
+    public CompletableFuture<Map<String, Object>> analyze(String pipelineId, Integer buildNumber, String stage, String context) {
+        requests.increment();
+        String key = sha256(context);
+
+        Map<String, Object> cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existing = pendingByKey.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        if (circuitBreaker.isOpen()) {
+            return reject(key, created, "IA circuit open");
+        }
+
+        boolean full;
+        synchronized (queue) {
+            full = queue.size() >= maxQueue;
+            if (!full) {
+                queue.add(new Pending(key, pipelineId, buildNumber, stage, context));
+            }
+        }
+        if (full) {
+            return reject(key, created, "IA queue full");
+        }
+        if (queueSize() >= batchSize) {
+            scheduler.execute(this::flush);
+        }
+        return created;
+    }
+
+    private CompletableFuture<Map<String, Object>> reject(String key, CompletableFuture<Map<String, Object>> future, String reason) {
+        shed.increment();
+        pendingByKey.remove(key, future);
+        future.completeExceptionally(new IllegalStateException(reason));
+        return future;
+    }
+
+    /** Envoie des lots tant qu'il y a des demandes, un permis in-flight et un circuit fermé. */
+    void flush() {
+        while (queueSize() > 0) {
+            if (!inFlight.tryAcquire()) return;
+            List<Pending> batch = new ArrayList<>(batchSize);
+            synchronized (queue) {
+                while (batch.size() < batchSize && !queue.isEmpty()) {
+                    batch.add(queue.poll());
+                }
+            }
+            if (batch.isEmpty()) {
+                inFlight.release();
+                return;
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                inFlight.release();
+                if (circuitBreaker.getState() != CircuitBreaker.State.OPEN) {
+                    // appel d'essai en cours : le lot reprend sa place en tête de file jusqu'à son résultat
+                    requeue(batch);
+                    return;
+                }
+                batch.forEach(pending -> shed(pending, "IA circuit open"));
+                failQueued("IA circuit open");
+                return;
+            }
+            send(batch);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        batches.increment();
+        long start = System.currentTimeMillis();
+        HttpRequest request;
+        try {
+            Map<String, Object> body = Map.of("items", batch.stream().map(Pending::toJson).toList());
+            request = HttpRequest.newBuilder(batchUri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            inFlight.release();
+            completeBatch(batch, null, e);
+            return;
+        }
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    long elapsed = System.currentTimeMillis() - start;
+                    Throwable failure = error;
+                    JsonNode results = null;
+                    if (failure == null && response.statusCode() != 200) {
+                        failure = new IllegalStateException("IA service returned HTTP " + response.statusCode());
+                    }
+                    if (failure == null) {
+                        try {
+                            results = objectMapper.readTree(response.body()).path("results");
+                        } catch (Exception e) {
+                            failure = e;
+                        }
+                    }
+
+                    if (failure != null || elapsed > slowCallMillis) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                    completeBatch(batch, results, failure);
+                    if (queueSize() > 0) {
+                        scheduler.execute(this::flush);
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void completeBatch(List<Pending> batch, JsonNode results, Throwable failure) {
+        if (failure != null) {
+            failures.increment();
+            System.err.println("❌ IA batch failed (" + batch.size() + " items): " + failure.getMessage());
+        }
+        Map<String, Map<String, Object>> byId = new ConcurrentHashMap<>();
+        if (results != null) {
+            for (JsonNode result : results) {
+                byId.put(result.path("id").asText(), objectMapper.convertValue(result, Map.class));
+            }
+        }
+        for (Pending pending : batch) {
+            CompletableFuture<Map<String, Object>> future = pendingByKey.remove(pending.key);
+            if (future == null) continue;
+            Map<String, Object> result = byId.get(pending.key);
+            if (result != null) {
+                synchronized (cache) {
+                    cache.put(pending.key, result);
+                }
+                future.complete(result);
+            } else {
+                future.completeExceptionally(failure != null ? failure
+                        : new IllegalStateException("No IA result for " + pending.key));
+            }
+        }
+    }
+
+    private void requeue(List<Pending> batch) {
+        synchronized (queue) {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                queue.addFirst(batch.get(i));
+            }
+        }
+    }
+
+    private void failQueued(String reason) {
+        List<Pending> dropped;
+        synchronized (queue) {
+            dropped = new ArrayList<>(queue);
+            queue.clear();
+        }
+        dropped.forEach(pending -> shed(pending, reason));
+    }
+
+    private void shed(Pending pending, String reason) {
+        CompletableFuture<Map<String, Object>> future = pendingByKey.remove(pending.key);
+        if (future != null) {
+            shed.increment();
+            future.completeExceptionally(new IllegalStateException(reason));
+        }
+    }
+
+    private int queueSize() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("circuit", circuitBreaker.getState().name());
+        stats.put("requests", requests.sum());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("batches", batches.sum());
+        stats.put("failedBatches", failures.sum());
+        stats.put("shed", shed.sum());
+        stats.put("queued", queueSize());
+        synchronized (cache) {
+            stats.put("cacheSize", cache.size());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Pending(String key, String pipelineId, Integer buildNumber, String stage, String context) {
+        Map<String, Object> toJson() {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", key);
+            item.put("pipelineId", pipelineId);
+            item.put("buildNumber", buildNumber);
+            item.put("stage", stage);
+            item.put("context", context);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.LogAnalyser.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Partitions mensuelles de builds et logs (schéma V1__partitioned_schema.sql, PostgreSQL uniquement).
+ *
+ * Au démarrage puis chaque nuit (partitions.cron) :
+ * <ul>
+ *   <li>crée les partitions du mois courant et des partitions.premake-months mois suivants, ainsi que
+ *       celles des mois présents dans la partition DEFAULT (les lignes y sont rapatriées) ;</li>
+ *   <li>détache puis supprime les partitions entièrement plus anciennes que partitions.retention-months :
+ *       un DROP TABLE au lieu d'un DELETE, sans VACUUM ni gonflement d'index.</li>
+ * </ul>
+ * Les partitions de logs sont traitées avant celles de builds. Désactivé par partitions.enabled=false (H2).
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final List<String> TABLES = List.of("logs", "builds");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int retentionMonths;
+    private final int premakeMonths;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${partitions.enabled:true}") boolean enabled,
+                                       @Value("${partitions.retention-months:6}") int retentionMonths,
+                                       @Value("${partitions.premake-months:2}") int premakeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retentionMonths = retentionMonths;
+        this.premakeMonths = premakeMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled) return;
+        try {
+            YearMonth current = YearMonth.now();
+            for (String table : TABLES) {
+                for (int i = 0; i <= premakeMonths; i++) {
+                    ensurePartition(table, current.plusMonths(i));
+                }
+                // lignes hors plage (horloge décalée, job arrêté) : leur mois obtient sa partition
+                for (YearMonth month : monthsInDefault(table)) {
+                    ensurePartition(table, month);
+                }
+            }
+            int dropped = dropExpired(current.minusMonths(retentionMonths));
+            System.out.println("✓ Partitions maintained (retention " + retentionMonths + " months, "
+                    + dropped + " dropped)");
+        } catch (Exception e) {
+            System.err.println("❌ Partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    /** Crée la partition du mois si besoin ; les lignes de ce mois déjà dans DEFAULT y sont déplacées. */
+    void ensurePartition(String table, YearMonth month) {
+        String partition = partitionName(table, month);
+        if (exists(partition)) return;
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + table + "_default"
+                    + " WHERE created_at >= ? AND created_at < ? RETURNING *)"
+                    + " INSERT INTO " + partition + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            System.out.println("✓ Partition " + partition + " created"
+                    + (moved > 0 ? " (" + moved + " rows moved from " + table + "_default)" : ""));
+        });
+    }
+
+    /** Supprime les partitions dont le mois est strictement antérieur à oldestKept. */
+    int dropExpired(YearMonth oldestKept) {
+        int dropped = 0;
+        for (String table : TABLES) {
+            for (String partition : listPartitions(table)) {
+                YearMonth month = monthOf(table, partition);
+                if (month == null || !month.isBefore(oldestKept)) continue;
+
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped++;
+                System.out.println("🗑️ Partition " + partition + " dropped (retention)");
+            }
+        }
+        return dropped;
+    }
+
+    /** Partitions, lignes estimées et taille (table + index) : le volume par partition reste borné à un mois. */
+    public List<Map<String, Object>> getPartitions() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (!enabled) return result;
+        for (String table : TABLES) {
+            result.addAll(jdbcTemplate.query(
+                    "SELECT c.relname, c.reltuples::bigint, pg_total_relation_size(c.oid), pg_indexes_size(c.oid)"
+                            + " FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                            + " JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ? ORDER BY c.relname",
+                    (rs, n) -> {
+                        Map<String, Object> partition = new LinkedHashMap<>();
+                        partition.put("table", table);
+                        partition.put("partition", rs.getString(1));
+                        partition.put("estimatedRows", Math.max(0, rs.getLong(2)));
+                        partition.put("totalBytes", rs.getLong(3));
+                        partition.put("indexBytes", rs.getLong(4));
+                        return partition;
+                    }, table));
+        }
+        return result;
+    }
+
+    private List<YearMonth> monthsInDefault(String table) {
+        return jdbcTemplate.query("SELECT DISTINCT EXTRACT(YEAR FROM created_at)::int, EXTRACT(MONTH FROM created_at)::int"
+                + " FROM " + table + "_default WHERE created_at IS NOT NULL",
+                (rs, n) -> YearMonth.of(rs.getInt(1), rs.getInt(2)));
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                + " JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?", String.class, table);
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation));
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    /** Mois d'une partition logs_pYYYYMM, null pour logs_default ou un nom inconnu. */
+    static YearMonth monthOf(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) return null;
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
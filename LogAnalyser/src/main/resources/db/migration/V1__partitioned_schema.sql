@@ -0,0 +1,76 @@
+-- Schéma de l'Analyzer géré par Flyway (spring.jpa.hibernate.ddl-auto=none).
+--
+-- builds et logs sont partitionnés par mois sur created_at (RANGE) : la rétention détache puis supprime
+-- des partitions entières (PartitionMaintenanceService) au lieu de DELETE ligne à ligne, et chaque index
+-- reste à la taille d'un mois. La clé primaire contient donc created_at, et aucune clé étrangère ne
+-- pointe vers builds (PostgreSQL l'exigerait sur (id, created_at)).
+-- Les partitions mensuelles sont créées à l'avance par le job ; *_default ne reçoit que les lignes
+-- hors plage (rapatriées à la création de la partition du mois concerné).
+
+CREATE TABLE pipelines (
+    id         varchar(255) PRIMARY KEY,
+    name       varchar(255),
+    created_at timestamp(6)
+);
+
+CREATE TABLE failure_signatures (
+    id          integer PRIMARY KEY,
+    template    text,
+    total_count bigint,
+    updated_at  timestamp(6)
+);
+
+CREATE TABLE pipeline_signatures (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pipeline_id       varchar(255) NOT NULL,
+    signature_id      integer      NOT NULL,
+    occurrences       bigint,
+    build_count       bigint,
+    last_build_number integer,
+    last_seen         timestamp(6),
+    UNIQUE (pipeline_id, signature_id)
+);
+
+-- Tables partitionnées : séquence explicite (IDENTITY n'est pas accepté sur une table partitionnée avant PG 17)
+CREATE SEQUENCE builds_id_seq;
+
+CREATE TABLE builds (
+    id           bigint       NOT NULL DEFAULT nextval('builds_id_seq'),
+    build_number integer,
+    status       varchar(255),
+    start_time   timestamp(6),
+    end_time     timestamp(6),
+    triggered_by varchar(255),
+    pipeline_id  varchar(255) REFERENCES pipelines (id),
+    created_at   timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE builds_id_seq OWNED BY builds.id;
+CREATE TABLE builds_default PARTITION OF builds DEFAULT;
+CREATE INDEX idx_builds_pipeline_number ON builds (pipeline_id, build_number);
+
+CREATE TABLE stages (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    build_id   bigint,
+    stage_name varchar(255),
+    status     varchar(255)
+);
+
+CREATE SEQUENCE logs_id_seq;
+
+CREATE TABLE logs (
+    id           bigint       NOT NULL DEFAULT nextval('logs_id_seq'),
+    build_id     bigint,
+    stage_id     bigint REFERENCES stages (id),
+    log_level    varchar(255),
+    message      text,
+    stack_trace  text,
+    signature_id integer,
+    created_at   timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE logs_id_seq OWNED BY logs.id;
+CREATE TABLE logs_default PARTITION OF logs DEFAULT;
+CREATE INDEX idx_logs_build_id ON logs (build_id);
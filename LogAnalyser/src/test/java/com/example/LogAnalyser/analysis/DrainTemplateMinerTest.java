@@ -0,0 +1,48 @@
+package com.example.LogAnalyser.analysis;
+
+import com.example.LogAnalyser.analysis.DrainTemplateMiner.LogCluster;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DrainTemplateMinerTest {
+
+    @Test
+    void linesDifferingOnlyByVariablesShareOneCluster() {
+        DrainTemplateMiner miner = new DrainTemplateMiner();
+
+        LogCluster first = miner.add("ERROR: connection refused to db-01.internal:5432 after 3 retries");
+        LogCluster second = miner.add("ERROR: connection refused to db-17.internal:5432 after 5 retries");
+        LogCluster other = miner.add("ERROR: test com.example.FooTest failed with AssertionError");
+
+        assertEquals(first.getId(), second.getId());
+        assertNotEquals(first.getId(), other.getId());
+        assertEquals(2, first.getSize());
+        assertEquals("ERROR: connection refused to <*> after <*> retries", first.getTemplate());
+    }
+
+    @Test
+    void differingTextTokensBecomeWildcards() {
+        DrainTemplateMiner miner = new DrainTemplateMiner();
+
+        LogCluster a = miner.add("WARN module alpha is deprecated use beta");
+        LogCluster b = miner.add("WARN module gamma is deprecated use delta");
+
+        assertEquals(a.getId(), b.getId());
+        assertEquals("WARN module <*> is deprecated use <*>", a.getTemplate());
+    }
+
+    @Test
+    void restoredClustersKeepTheirIds() {
+        DrainTemplateMiner miner = new DrainTemplateMiner();
+        miner.restore(42, "ERROR: connection refused to <*> after <*> retries", 10);
+
+        LogCluster cluster = miner.add("ERROR: connection refused to db-02:5432 after 1 retries");
+        LogCluster fresh = miner.add("ERROR: something else entirely happened here now");
+
+        assertEquals(42, cluster.getId());
+        assertEquals(11, cluster.getSize());
+        assertEquals(43, fresh.getId());
+    }
+}
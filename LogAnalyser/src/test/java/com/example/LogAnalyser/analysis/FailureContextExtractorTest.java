@@ -0,0 +1,57 @@
+package com.example.LogAnalyser.analysis;
+
+import com.example.LogAnalyser.analysis.FailureContextExtractor.FailureContext;
+import com.example.LogAnalyser.analysis.FailureContextExtractor.Line;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FailureContextExtractorTest {
+
+    private static void addTrace(List<Line> lines, int line) {
+        lines.add(new Line("ERROR", "java.lang.IllegalStateException: pool exhausted after " + line + " ms"));
+        for (int f = 0; f < 30; f++) {
+            lines.add(new Line("INFO", "\tat com.example.Pool.method" + f + "(Pool.java:" + (line + f) + ")"));
+        }
+    }
+
+    @Test
+    void keepsStageFirstErrorWindowAndDeduplicatedTraces() {
+        List<Line> lines = new ArrayList<>();
+        lines.add(new Line("INFO", "[Pipeline] { (Checkout)"));
+        for (int i = 0; i < 500; i++) lines.add(new Line("INFO", "checkout line " + i));
+        lines.add(new Line("INFO", "[Pipeline] { (Test)"));
+        for (int i = 0; i < 500; i++) lines.add(new Line("INFO", "test line " + i));
+        lines.add(new Line("ERROR", "ERROR: tests failed in module core"));
+        for (int i = 0; i < 500; i++) lines.add(new Line("INFO", "more output " + i));
+        addTrace(lines, 10);
+        for (int i = 0; i < 100; i++) lines.add(new Line("INFO", "noise " + i));
+        addTrace(lines, 20);
+
+        FailureContext context = new FailureContextExtractor(5, 5, 10, 64 * 1024).extract(lines);
+
+        assertEquals("[Pipeline] { (Test)", context.stage());
+        assertEquals(1002, context.firstErrorLine());
+        assertTrue(context.lines().contains("ERROR: tests failed in module core"));
+        assertTrue(context.lines().contains("test line 499"));
+        assertEquals(1, context.stackTraces());
+        assertEquals(1, context.lines().stream().filter(l -> l.startsWith("java.lang.IllegalStateException")).count());
+        assertTrue(context.lines().contains("\t... 20 more"));
+        assertTrue(context.contextBytes() * 20 < context.originalBytes());
+    }
+
+    @Test
+    void neverExceedsTheByteBudget() {
+        List<Line> lines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) lines.add(new Line("ERROR", "ERROR: distinct failure kind " + (char) ('a' + i % 26) + i));
+
+        FailureContext context = new FailureContextExtractor(10, 20, 15, 1024).extract(lines);
+
+        assertTrue(context.contextBytes() <= 1024);
+        assertTrue(context.truncated());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.LogAnalyser.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutcomeWindowTest {
+
+    @Test
+    void alternatingOutcomesFlipOnEveryBuild() {
+        OutcomeWindow window = new OutcomeWindow(10);
+        for (int i = 0; i < 6; i++) {
+            window.add(i % 2 == 1, 1000);
+        }
+        assertEquals(5, window.flips());
+        assertEquals(1.0, window.flipRate());
+        assertEquals(3, window.failures());
+    }
+
+    @Test
+    void evictionKeepsAggregatesInSyncWithTheWindow() {
+        OutcomeWindow window = new OutcomeWindow(4);
+        // F F S F S S sur 4 cases : la fenêtre finale est [S, F, S, S]
+        boolean[] outcomes = {true, true, false, true, false, false};
+        int[] durations = {100, 200, 300, 400, OutcomeWindow.NO_DURATION, 600};
+        for (int i = 0; i < outcomes.length; i++) {
+            window.add(outcomes[i], durations[i]);
+        }
+
+        assertEquals(4, window.size());
+        assertEquals(1, window.failures());
+        assertEquals(2, window.flips());
+        assertEquals((300 + 400 + 600) / 3.0, window.meanDurationMs(), 1e-9);
+    }
+
+    @Test
+    void alwaysFailingPipelineIsNotFlaky() {
+        OutcomeWindow window = new OutcomeWindow(5);
+        for (int i = 0; i < 8; i++) {
+            window.add(true, OutcomeWindow.NO_DURATION);
+        }
+        assertEquals(0.0, window.flipRate());
+        assertEquals(1.0, window.failureRate());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.LogAnalyser.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.LogAnalyser.dto.BuildMessageDTO;
+import com.example.LogAnalyser.entity.BuildEntity;
+import com.example.LogAnalyser.entity.PipelineEntity;
+import com.example.LogAnalyser.repository.BuildRepository;
+import com.example.LogAnalyser.repository.LogRepository;
+import com.example.LogAnalyser.repository.PipelineRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Payload construit comme JenkinsLogService.sendToAnalyzer (Collector), sérialisé comme par son RestTemplate. */
+class BuildAnalyzerServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 17, 10, 30, 12, 345_000_000);
+
+    @TempDir
+    Path snapshots;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final BuildRepository buildRepository = mock(BuildRepository.class);
+    private final LogRepository logRepository = mock(LogRepository.class);
+    private FlakinessService flakinessService;
+    private AnomalyDetectionService anomalyDetectionService;
+    private BuildAnalyzerService analyzerService;
+
+    @BeforeEach
+    void setUp() {
+        PipelineRepository pipelineRepository = mock(PipelineRepository.class);
+        PipelineEntity pipeline = new PipelineEntity();
+        pipeline.setId("7");
+        when(pipelineRepository.findById("7")).thenReturn(Optional.of(pipeline));
+        when(buildRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        flakinessService = new FlakinessService(50, 10, 0.3, snapshots.resolve("flakiness.bin").toString());
+        anomalyDetectionService = new AnomalyDetectionService(event -> { }, 0.1, 3.0, 10, 0.05, 500,
+                snapshots.resolve("anomalies.bin").toString());
+        analyzerService = new BuildAnalyzerService(pipelineRepository, buildRepository, logRepository,
+                mock(FailureSignatureService.class), flakinessService, anomalyDetectionService,
+                mock(FailureContextService.class), mock(IaAnalysisClient.class));
+    }
+
+    private BuildMessageDTO collectorPayload(int buildNumber, String status, Object startTime, Object endTime)
+            throws Exception {
+        return collectorPayload(buildNumber, status, startTime, endTime, true);
+    }
+
+    private BuildMessageDTO collectorPayload(int buildNumber, String status, Object startTime, Object endTime,
+                                             boolean withLogs) throws Exception {
+        Map<String, Object> log = new HashMap<>();
+        log.put("id", 1L);
+        log.put("logLevel", "INFO");
+        log.put("message", "[INFO] Finished: " + status);
+        log.put("stackTrace", null);
+        log.put("createdAt", LocalDateTime.now());
+
+        Map<String, Object> build = new HashMap<>();
+        build.put("pipelineId", 7L);
+        build.put("buildNumber", buildNumber);
+        build.put("status", status);
+        build.put("triggeredBy", "Jenkins Webhook");
+        build.put("startTime", startTime);
+        build.put("endTime", endTime);
+        build.put("logs", withLogs ? List.of(log) : List.of());
+
+        BuildMessageDTO message = new BuildMessageDTO();
+        message.setData(List.of(build));
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(message), BuildMessageDTO.class);
+    }
+
+    @Test
+    void usesJenkinsTimesForDurationStats() throws Exception {
+        analyzerService.processBuild(collectorPayload(12, "SUCCESS", START.toString(),
+                START.plusSeconds(90).toString()).getData());
+
+        Map<String, Object> duration = (Map<String, Object>) anomalyDetectionService.getBaseline("7").get("durationMs");
+        assertEquals(1L, ((Number) duration.get("samples")).longValue());
+        assertEquals(90_000.0, duration.get("mean"));
+        assertEquals(90_000L, flakinessService.getFlakiness("7").get("meanDurationMs"));
+    }
+
+    @Test
+    void acceptsDatesWrittenAsJacksonArrays() throws Exception {
+        // Collectors antérieurs : LocalDateTime sérialisés par le RestTemplate en [2024,5,17,10,30,12,345000000]
+        analyzerService.processBuild(collectorPayload(14, "SUCCESS", START, START.plusSeconds(45)).getData());
+
+        assertEquals(45_000L, flakinessService.getFlakiness("7").get("meanDurationMs"));
+    }
+
+    @Test
+    void finishedRunningBuildUpdatesTheSameBuild() throws Exception {
+        AtomicReference<BuildEntity> saved = new AtomicReference<>();
+        when(buildRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            saved.set(invocation.getArgument(0));
+            return saved.get();
+        });
+        analyzerService.processBuild(collectorPayload(15, "RUNNING", START.toString(), null).getData());
+        assertNull(flakinessService.getFlakiness("7"));
+
+        // fin du build renvoyée par le Collector : statut et horaires, sans logs
+        BuildEntity running = saved.get();
+        when(buildRepository.findFirstByPipeline_IdAndBuildNumberOrderByIdDesc("7", 15)).thenReturn(Optional.of(running));
+        analyzerService.processBuild(collectorPayload(15, "FAILURE", START.toString(),
+                START.plusSeconds(120).toString(), false).getData());
+
+        assertSame(running, saved.get());
+        assertEquals("FAILURE", running.getStatus());
+        assertEquals(1, flakinessService.getFlakiness("7").get("failures"));
+        assertEquals(120_000L, flakinessService.getFlakiness("7").get("meanDurationMs"));
+        Map<String, Object> baseline = anomalyDetectionService.getBaseline("7");
+        assertEquals(1L, ((Number) ((Map<String, Object>) baseline.get("durationMs")).get("samples")).longValue());
+        assertEquals(1L, ((Number) ((Map<String, Object>) baseline.get("totalLines")).get("samples")).longValue());
+        verify(logRepository, times(1)).saveAll(any());
+
+        // nouvel envoi du même build terminé : ignoré
+        analyzerService.processBuild(collectorPayload(15, "FAILURE", START.toString(),
+                START.plusSeconds(120).toString(), false).getData());
+        assertEquals(1, flakinessService.getFlakiness("7").get("builds"));
+    }
+
+    @Test
+    void updatesInMemoryStatsOnlyAfterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            analyzerService.processBuild(collectorPayload(16, "SUCCESS", START.toString(),
+                    START.plusSeconds(60).toString()).getData());
+            assertNull(flakinessService.getFlakiness("7"));
+            assertNull(anomalyDetectionService.getBaseline("7"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, flakinessService.getFlakiness("7").get("builds"));
+            assertEquals(60_000L, flakinessService.getFlakiness("7").get("meanDurationMs"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void buildWithoutEndTimeFeedsNoDuration() throws Exception {
+        analyzerService.processBuild(collectorPayload(13, "SUCCESS", START.toString(), null).getData());
+
+        Map<String, Object> baseline = anomalyDetectionService.getBaseline("7");
+        assertEquals(0L, ((Number) ((Map<String, Object>) baseline.get("durationMs")).get("samples")).longValue());
+        assertEquals(1L, ((Number) ((Map<String, Object>) baseline.get("totalLines")).get("samples")).longValue());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.LogAnalyser.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Client testé contre un faux IA_Analyste_service (HttpServer du JDK). */
+class IaAnalysisClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger items = new AtomicInteger();
+    private volatile int statusCode = 200;
+    private volatile long delayMillis;
+    private HttpServer server;
+    private IaAnalysisClient client;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/analyze/batch", exchange -> {
+            calls.incrementAndGet();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (JsonNode item : request.path("items")) {
+                items.incrementAndGet();
+                results.add(Map.of("id", item.path("id").asText(), "category", "COMPILATION",
+                        "buildNumber", item.path("buildNumber").asInt()));
+            }
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("results", results));
+            exchange.sendResponseHeaders(statusCode, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (client != null) client.shutdown();
+        server.stop(0);
+    }
+
+    private IaAnalysisClient newClient(int batchSize, long lingerMillis, int failureThreshold) {
+        return newClient(batchSize, lingerMillis, failureThreshold, 60_000);
+    }
+
+    private IaAnalysisClient newClient(int batchSize, long lingerMillis, int failureThreshold, long openMillis) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new IaAnalysisClient(objectMapper, url, true, batchSize, lingerMillis, 2, 100, 100,
+                2000, 2000, failureThreshold, openMillis);
+    }
+
+    @Test
+    void requestsAreGroupedIntoBatches() throws Exception {
+        client = newClient(8, 200, 5);
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(client.analyze("p1", i, "Build", "error: cannot find symbol " + i));
+        }
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS).get("buildNumber"));
+        }
+        assertEquals(16, items.get());
+        assertTrue(calls.get() <= 4, "16 demandes en " + calls.get() + " appels");
+    }
+
+    @Test
+    void identicalContextIsAnalyzedOnce() throws Exception {
+        client = newClient(16, 20, 5);
+        CompletableFuture<Map<String, Object>> first = client.analyze("p1", 1, "Build", "NullPointerException");
+        CompletableFuture<Map<String, Object>> concurrent = client.analyze("p1", 2, "Build", "NullPointerException");
+        first.get(5, TimeUnit.SECONDS);
+        concurrent.get(5, TimeUnit.SECONDS);
+        Map<String, Object> cached = client.analyze("p2", 3, "Test", "NullPointerException").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, items.get());
+        assertEquals(first.get(), cached);
+        assertEquals(1L, client.getStats().get("cacheHits"));
+        assertEquals(1L, client.getStats().get("coalesced"));
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedErrorsAndFailsFast() throws Exception {
+        statusCode = 500;
+        client = newClient(1, 10, 3);
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<Map<String, Object>> future = client.analyze("p1", i, "Build", "boom " + i);
+            assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals("OPEN", client.getStats().get("circuit"));
+
+        int before = calls.get();
+        CompletableFuture<Map<String, Object>> rejected = client.analyze("p1", 99, "Build", "boom 99");
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(before, calls.get());
+    }
+
+    @Test
+    void requestsWaitForTheHalfOpenTrialInsteadOfBeingShed() throws Exception {
+        statusCode = 500;
+        client = newClient(1, 10, 1, 200);
+        CompletableFuture<Map<String, Object>> failed = client.analyze("p1", 1, "Build", "boom");
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals("OPEN", client.getStats().get("circuit"));
+
+        Thread.sleep(250);
+        statusCode = 200;
+        delayMillis = 300;
+        CompletableFuture<Map<String, Object>> trial = client.analyze("p1", 2, "Build", "trial");
+        CompletableFuture<Map<String, Object>> waiting = client.analyze("p1", 3, "Build", "waiting");
+
+        assertEquals(2, trial.get(5, TimeUnit.SECONDS).get("buildNumber"));
+        assertEquals(3, waiting.get(5, TimeUnit.SECONDS).get("buildNumber"));
+        assertEquals("CLOSED", client.getStats().get("circuit"));
+        assertEquals(0L, client.getStats().get("shed"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.LogCollector.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Avancement du backfill par job : tous les builds <= lastBuildNumber sont ingérés.
+ * Relu au redémarrage pour reprendre là où le crawl s'était arrêté.
+ */
+@Data
+@Entity
+@Table(name = "backfill_checkpoint")
+public class BackfillCheckpoint {
+
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    @Column(name = "last_build_number", nullable = false)
+    private Integer lastBuildNumber;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public BackfillCheckpoint() {}
+
+    public BackfillCheckpoint(String jobName, Integer lastBuildNumber) {
+        this.jobName = jobName;
+        this.lastBuildNumber = lastBuildNumber;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -8,7 +8,11 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "build")
+// un build par (pipeline, numéro), même si deux instances du Collector reçoivent le même webhook ; l'index
+// unique sert aussi les recherches par pipeline et numéro. idx_build_created_at : dernier build
+@Table(name = "build",
+        uniqueConstraints = @UniqueConstraint(name = "uk_build_pipeline_number", columnNames = {"pipeline_id", "build_number"}),
+        indexes = @Index(name = "idx_build_created_at", columnList = "created_at"))
 public class Build {
 
     @Id
@@ -58,8 +62,13 @@ public class Build {
     @PrePersist
     public void onCreate() {
         createdAt = LocalDateTime.now();
-        startTime = LocalDateTime.now();
+        // horaires Jenkins s'ils sont connus, sinon l'heure d'ingestion
+        if (startTime == null) startTime = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+
+        if (endTime != null) {
+            duration = java.time.Duration.between(startTime, endTime).toSeconds();
+        }
     }
 
     @PreUpdate
@@ -6,7 +6,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "log")
+@Table(name = "log", indexes = @Index(name = "idx_log_build", columnList = "build_id"))
 public class Log {
 
     @Id
@@ -0,0 +1,65 @@
+package com.example.LogCollector.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Bloc de lignes consécutives d'un build, compressé (logs.storage.format=blocks).
+ *
+ * L'index du bloc tient dans la ligne elle-même : firstLine/lineCount pour retrouver un numéro de ligne,
+ * levels (un octet par ligne = ordinal de LogLevel) et levelMask (un bit par niveau présent) pour filtrer
+ * par niveau sans décompresser les blocs qui ne contiennent pas ce niveau.
+ */
+@Data
+@Entity
+@Table(name = "log_block", indexes = @Index(name = "idx_log_block_build", columnList = "build_id, first_line"))
+public class LogBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "build_id", nullable = false)
+    private Build build;
+
+    @Column(name = "first_line", nullable = false)
+    private Integer firstLine;
+
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount;
+
+    @Column(name = "codec", nullable = false, length = 8)
+    private String codec;
+
+    @Column(name = "level_mask", nullable = false)
+    private Integer levelMask;
+
+    @ToString.Exclude
+    @Column(name = "levels", columnDefinition = "bytea", nullable = false)
+    private byte[] levels;
+
+    @Column(name = "raw_size", nullable = false)
+    private Integer rawSize;
+
+    @ToString.Exclude
+    @Column(name = "payload", columnDefinition = "bytea", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public LogBlock() {}
+
+    public boolean containsLevel(LogLevel level) {
+        return (levelMask & (1 << level.ordinal())) != 0;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+    }
+}
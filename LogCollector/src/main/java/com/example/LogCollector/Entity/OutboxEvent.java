@@ -0,0 +1,34 @@
+package com.example.LogCollector.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Événement de changement (build ingéré, statut modifié), écrit dans la transaction qui fait le changement :
+ * il n'existe que si le changement est commité. Publié sur Kafka dans l'ordre des id puis supprimé
+ * par OutboxService ; eventKey (le nom du pipeline) est la clé Kafka.
+ * Écrit et lu en JDBC (OutboxRepository), l'entité ne décrit que la table.
+ */
+@Data
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_key", nullable = false)
+    private String eventKey;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
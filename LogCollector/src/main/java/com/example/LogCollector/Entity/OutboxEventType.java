@@ -0,0 +1,5 @@
+package com.example.LogCollector.Entity;
+
+public enum OutboxEventType {
+    BUILD_INGESTED, BUILD_STATUS_CHANGED
+}
@@ -0,0 +1,53 @@
+package com.example.LogCollector.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Politique de rétention d'un pipeline (à défaut : retention.default.* dans application.properties).
+ *
+ * Un build est conservé tant qu'au moins une règle le protège : il fait partie des keepLastBuilds derniers,
+ * ou il a moins de keepDays jours, ou c'est un échec (FAILURE/UNSTABLE) de moins de keepFailedDays jours.
+ * Une règle null ne protège rien ; une politique sans aucune règle ne purge rien.
+ */
+@Data
+@Entity
+@Table(name = "retention_policy")
+public class RetentionPolicy {
+
+    @Id
+    @Column(name = "pipeline_name")
+    private String pipelineName;
+
+    @Column(name = "keep_last_builds")
+    private Integer keepLastBuilds;
+
+    @Column(name = "keep_days")
+    private Integer keepDays;
+
+    @Column(name = "keep_failed_days")
+    private Integer keepFailedDays;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public RetentionPolicy() {}
+
+    public RetentionPolicy(String pipelineName, Integer keepLastBuilds, Integer keepDays, Integer keepFailedDays) {
+        this.pipelineName = pipelineName;
+        this.keepLastBuilds = keepLastBuilds;
+        this.keepDays = keepDays;
+        this.keepFailedDays = keepFailedDays;
+    }
+
+    public boolean hasRules() {
+        return keepLastBuilds != null || keepDays != null || keepFailedDays != null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
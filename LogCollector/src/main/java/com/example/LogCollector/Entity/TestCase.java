@@ -0,0 +1,57 @@
+package com.example.LogCollector.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Test d'un pipeline (classe + nom), avec l'état de son dernier résultat.
+ *
+ * L'état courant est dénormalisé ici pour répondre sans parcourir test_result : tests les plus lents
+ * (index pipeline_id, last_duration_ms) et tests qui échouent depuis un build donné (index pipeline_id, failing_since).
+ * failingSince est le numéro du premier build de la série d'échecs en cours, null si le test passe.
+ */
+@Data
+@Entity
+@Table(name = "test_case",
+        uniqueConstraints = @UniqueConstraint(name = "uk_test_case_name", columnNames = {"pipeline_id", "class_name", "name"}),
+        indexes = {
+                @Index(name = "idx_test_case_duration", columnList = "pipeline_id, last_duration_ms"),
+                @Index(name = "idx_test_case_failing", columnList = "pipeline_id, failing_since")
+        })
+public class TestCase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pipeline_id", nullable = false)
+    private Pipeline pipeline;
+
+    @Column(name = "class_name", nullable = false, length = 512)
+    private String className;
+
+    @Column(name = "name", nullable = false, length = 512)
+    private String name;
+
+    @Column(name = "last_status", columnDefinition = "smallint")
+    @Enumerated(EnumType.ORDINAL)
+    private TestStatus lastStatus;
+
+    @Column(name = "last_build_number")
+    private Integer lastBuildNumber;
+
+    @Column(name = "last_duration_ms")
+    private Integer lastDurationMs;
+
+    @Column(name = "failing_since")
+    private Integer failingSince;
+
+    @Column(name = "run_count")
+    private Integer runCount;
+
+    @Column(name = "failure_count")
+    private Integer failureCount;
+}
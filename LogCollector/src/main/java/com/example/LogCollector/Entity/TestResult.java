@@ -0,0 +1,45 @@
+package com.example.LogCollector.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Résultat d'un test dans un build : une ligne compacte (statut en smallint, durée en ms), le message
+ * n'est gardé que pour les échecs et tronqué à tests.message-max-chars. Les sorties stdout/stderr et
+ * stack traces des rapports ne sont pas stockées (elles restent dans Jenkins).
+ *
+ * Index : (test_case_id, build_id) pour l'historique d'un test, (build_id, duration_ms) pour les plus lents d'un build.
+ */
+@Data
+@Entity
+@Table(name = "test_result", indexes = {
+        @Index(name = "idx_test_result_case", columnList = "test_case_id, build_id"),
+        @Index(name = "idx_test_result_build", columnList = "build_id, duration_ms")
+})
+public class TestResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "build_id", nullable = false)
+    private Build build;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "test_case_id", nullable = false)
+    private TestCase testCase;
+
+    @Column(name = "status", columnDefinition = "smallint", nullable = false)
+    @Enumerated(EnumType.ORDINAL)
+    private TestStatus status;
+
+    @Column(name = "duration_ms", nullable = false)
+    private Integer durationMs;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+}
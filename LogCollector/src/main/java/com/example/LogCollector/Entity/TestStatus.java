@@ -0,0 +1,6 @@
+package com.example.LogCollector.Entity;
+
+/** Résultat d'un test ; stocké par ordinal (smallint) dans test_result et test_case : ne pas réordonner. */
+public enum TestStatus {
+    PASSED, FAILED, SKIPPED
+}
@@ -0,0 +1,49 @@
+package com.example.LogCollector.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor des workers d'ingestion (fetch Jenkins + écriture JPA + push Analyzer).
+ *
+ * - par défaut : pool de threads plateforme borné (ingestion.worker-threads) ;
+ * - profil "virtual-threads" (spring.threads.virtual.enabled=true, Java 21) : un thread virtuel par tâche,
+ *   la concurrence est alors bornée par jenkins.max-concurrent-requests et le pool Hikari.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(name = "ingestionExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualIngestionExecutor() {
+        System.out.println("🧵 Ingestion workers running on virtual threads");
+        return new VirtualThreadTaskExecutor("ingest-");
+    }
+
+    @Bean(name = "ingestionExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformIngestionExecutor(
+            @Value("${ingestion.worker-threads:8}") int workerThreads,
+            @Value("${ingestion.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested) {
+
+        if (virtualRequested) {
+            System.err.println("⚠️ spring.threads.virtual.enabled=true needs Java 21+, running on Java "
+                    + Runtime.version().feature() + " with platform threads");
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ingest-");
+        executor.initialize();
+        return executor;
+    }
+}
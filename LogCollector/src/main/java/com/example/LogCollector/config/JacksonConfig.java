@@ -1,10 +1,16 @@
 package com.example.LogCollector.config;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Configuration
 public class JacksonConfig {
@@ -18,4 +24,23 @@ public class JacksonConfig {
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
-}
\ No newline at end of file
+
+    /**
+     * Réponses JSON compactes ; ?pretty=true sur n'importe quel endpoint pour une sortie indentée (debug).
+     * Remplace le convertisseur Jackson par défaut de Spring MVC.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                return prettyRequested() ? writer.withDefaultPrettyPrinter() : writer;
+            }
+        };
+    }
+
+    private static boolean prettyRequested() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && "true".equalsIgnoreCase(attributes.getRequest().getParameter("pretty"));
+    }
+}
@@ -1,14 +1,48 @@
 package com.example.LogCollector.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * RestTemplate partagé (Jenkins + Analyzer) sur java.net.http.HttpClient :
+     * pas de section synchronized autour des I/O, donc pas de carrier thread épinglé en mode virtual-threads,
+     * et des timeouts explicites au lieu des valeurs infinies de HttpURLConnection.
+     */
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(@Value("${http.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                     @Value("${http.client.read-timeout-ms:60000}") long readTimeoutMs) {
+        return newRestTemplate(connectTimeoutMs, Duration.ofMillis(readTimeoutMs));
+    }
+
+    /**
+     * Transmission des webhooks au Collector propriétaire du job (PipelineShardingService) : le propriétaire
+     * répond après l'ingestion, le délai de lecture dépasse donc ingestion.timeout-seconds (+ sharding.forward-read-margin-ms).
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate forwardingRestTemplate(@Value("${http.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                               @Value("${ingestion.timeout-seconds:120}") long ingestionTimeoutSeconds,
+                                               @Value("${sharding.forward-read-margin-ms:30000}") long marginMs) {
+        return newRestTemplate(connectTimeoutMs, Duration.ofSeconds(ingestionTimeoutSeconds).plusMillis(marginMs));
+    }
+
+    private static RestTemplate newRestTemplate(long connectTimeoutMs, Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return new RestTemplate(requestFactory);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.LogCollector.controller;
+
+import com.example.LogCollector.service.JenkinsBackfillService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jenkins-logs/backfill")
+@CrossOrigin(origins = "*")
+public class BackfillController {
+
+    @Autowired
+    private JenkinsBackfillService backfillService;
+
+    /**
+     * Start importing Jenkins history (all jobs, or only the given ones)
+     * POST /api/jenkins-logs/backfill/start?jobName=project5&maxBuilds=200
+     */
+    @PostMapping("/start")
+    public ResponseEntity<?> start(
+            @RequestParam(required = false) List<String> jobName,
+            @RequestParam(required = false) Integer maxBuilds) {
+        boolean started = backfillService.start(jobName, maxBuilds);
+        Map<String, Object> response = new HashMap<>();
+        if (!started) {
+            response.put("status", "error");
+            response.put("message", "A backfill is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("status", "success");
+        response.put("message", "Backfill started");
+        response.put("data", backfillService.getStatus());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Backfill progress
+     * GET /api/jenkins-logs/backfill/status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<?> status() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", backfillService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Stop the running backfill (checkpoints are kept, the next start resumes from them)
+     * POST /api/jenkins-logs/backfill/stop
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop() {
+        backfillService.stop();
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Backfill stop requested");
+        return ResponseEntity.ok(response);
+    }
+}
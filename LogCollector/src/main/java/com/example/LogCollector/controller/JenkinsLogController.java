@@ -1,11 +1,22 @@
 package com.example.LogCollector.controller;
 
+import com.example.LogCollector.Entity.LogLevel;
+import com.example.LogCollector.config.ReadWriteRoutingDataSource;
+import com.example.LogCollector.service.BuildResponseCache;
+import com.example.LogCollector.service.BuildResponseCache.View;
+import com.example.LogCollector.service.ColumnarBuildLogs;
 import com.example.LogCollector.service.JenkinsLogService;
+import com.example.LogCollector.service.LogDiffService;
+import com.example.LogCollector.service.OutboxService;
+import com.example.LogCollector.service.PipelineShardingService;
+import com.example.LogCollector.service.RecentBuildCache;
 import com.example.LogCollector.dto.PipelineDTO;
 import com.example.LogCollector.dto.BuildDTO;
 import com.example.LogCollector.dto.LogDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
@@ -22,6 +33,24 @@ public class JenkinsLogController {
     @Autowired
     private JenkinsLogService logService;
 
+    @Autowired
+    private LogDiffService logDiffService;
+
+    @Autowired
+    private PipelineShardingService shardingService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private BuildResponseCache responseCache;
+
+    @Autowired
+    private RecentBuildCache recentBuildCache;
+
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource routingDataSource;
+
     @Value("${webhook.secret-token}")
     private String webhookSecretToken;
 
@@ -29,6 +58,7 @@ public class JenkinsLogController {
 
     /**
      * WEBHOOK ENDPOINT - Called by Jenkins
+     * Forwarded to the collector instance that owns the pipeline (see PipelineShardingService), once at most.
      * POST /api/jenkins-logs/webhook?jobName=project5&buildNumber=10&buildStatus=SUCCESS&token=xxx
      */
     @PostMapping("/webhook")
@@ -36,7 +66,8 @@ public class JenkinsLogController {
             @RequestParam String jobName,
             @RequestParam Integer buildNumber,
             @RequestParam String buildStatus,
-            @RequestParam String token) {
+            @RequestParam String token,
+            @RequestHeader(value = PipelineShardingService.FORWARDED_HEADER, required = false) String forwardedBy) {
         try {
             if (!token.equals(webhookSecretToken)) {
                 System.err.println("Invalid webhook token");
@@ -46,7 +77,16 @@ public class JenkinsLogController {
                 return ResponseEntity.status(403).body(error);
             }
 
-            System.out.println("Webhook received - Job: " + jobName + ", Build: " + buildNumber);
+            ServiceInstance owner = forwardedBy == null ? shardingService.remoteOwner(jobName) : null;
+            if (owner != null) {
+                System.out.println("Webhook for " + jobName + " #" + buildNumber + " forwarded to " + owner.getInstanceId());
+                ResponseEntity<String> ownerResponse =
+                        shardingService.forwardWebhook(owner, jobName, buildNumber, buildStatus, token);
+                if (ownerResponse != null) return ownerResponse;
+            }
+
+            System.out.println("Webhook received - Job: " + jobName + ", Build: " + buildNumber
+                    + (forwardedBy != null ? " (forwarded by " + forwardedBy + ")" : ""));
 
             BuildDTO build = logService.collectAndSaveLogs(jobName, buildNumber, buildStatus);
 
@@ -136,12 +176,16 @@ public class JenkinsLogController {
     }
 
     /**
-     * GET build details by ID
+     * GET build details by ID (finished builds served from BuildResponseCache)
      * GET /api/jenkins-logs/builds/{buildId}
      */
     @GetMapping("/builds/{buildId}")
-    public ResponseEntity<?> getBuildById(@PathVariable Long buildId) {
+    public ResponseEntity<?> getBuildById(@PathVariable Long buildId, HttpServletRequest request) {
         try {
+            ResponseEntity<?> cached = responseCache.lookup(buildId, View.BUILD, request);
+            if (cached != null) {
+                return cached;
+            }
             BuildDTO build = logService.getBuildById(buildId);
             if (build == null) {
                 return ResponseEntity.notFound().build();
@@ -149,7 +193,7 @@ public class JenkinsLogController {
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("data", build);
-            return ResponseEntity.ok(response);
+            return responseCache.store(buildId, View.BUILD, !"RUNNING".equals(build.getStatus()), response, request);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("status", "error");
@@ -159,19 +203,26 @@ public class JenkinsLogController {
     }
 
     /**
-     * GET all logs for a build
+     * GET all logs for a build (finished builds served from BuildResponseCache)
      * GET /api/jenkins-logs/builds/{buildId}/logs
      */
     @GetMapping("/builds/{buildId}/logs")
-    public ResponseEntity<?> getLogsByBuild(@PathVariable Long buildId) {
+    public ResponseEntity<?> getLogsByBuild(@PathVariable Long buildId, HttpServletRequest request) {
         try {
+            ResponseEntity<?> cached = responseCache.lookup(buildId, View.LOGS, request);
+            if (cached != null) {
+                return cached;
+            }
             List<LogDTO> logs = logService.getLogsByBuild(buildId);
+            if (logs == null) {
+                return ResponseEntity.notFound().build();
+            }
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("buildId", buildId);
             response.put("totalLogs", logs.size());
             response.put("data", logs);
-            return ResponseEntity.ok(response);
+            return responseCache.store(buildId, View.LOGS, logService.isBuildFinished(buildId), response, request);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("status", "error");
@@ -181,19 +232,57 @@ public class JenkinsLogController {
     }
 
     /**
-     * GET error logs only for a build
+     * GET error logs only for a build (finished builds served from BuildResponseCache)
      * GET /api/jenkins-logs/builds/{buildId}/errors
      */
     @GetMapping("/builds/{buildId}/errors")
-    public ResponseEntity<?> getErrorLogsByBuild(@PathVariable Long buildId) {
+    public ResponseEntity<?> getErrorLogsByBuild(@PathVariable Long buildId, HttpServletRequest request) {
         try {
+            ResponseEntity<?> cached = responseCache.lookup(buildId, View.ERRORS, request);
+            if (cached != null) {
+                return cached;
+            }
             List<LogDTO> errors = logService.getErrorLogsByBuild(buildId);
+            if (errors == null) {
+                return ResponseEntity.notFound().build();
+            }
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("buildId", buildId);
             response.put("totalErrors", errors.size());
             response.put("data", errors);
+            return responseCache.store(buildId, View.ERRORS, logService.isBuildFinished(buildId), response, request);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
+    /**
+     * GET lines that are new in a build compared with a reference build of the same pipeline
+     * (numbers, hashes and timestamps masked). Default reference: last SUCCESS build before this one.
+     * GET /api/jenkins-logs/builds/{buildId}/diff?against=41&limit=200
+     */
+    @GetMapping("/builds/{buildId}/diff")
+    public ResponseEntity<?> diffBuild(@PathVariable Long buildId,
+                                       @RequestParam(required = false) Long against,
+                                       @RequestParam(defaultValue = "200") int limit) {
+        try {
+            Map<String, Object> diff = logDiffService.diff(buildId, against, Math.max(1, limit));
+            if (diff == null) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("data", diff);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("status", "error");
@@ -229,6 +318,66 @@ public class JenkinsLogController {
         }
     }
 
+    /**
+     * Pipeline sharding: collector instances on the ring, forwarded webhooks
+     * GET /api/jenkins-logs/sharding
+     */
+    @GetMapping("/sharding")
+    public ResponseEntity<?> sharding() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", shardingService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Kafka outbox: pending change events and relay counters
+     * GET /api/jenkins-logs/outbox/stats
+     */
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<?> outboxStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", outboxService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Finished-build response cache: hit rate, entries, bytes held
+     * GET /api/jenkins-logs/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> cacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", responseCache.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Recent builds kept in columns: builds, lines, memory, hits served without reading the logs
+     * GET /api/jenkins-logs/hot-builds/stats
+     */
+    @GetMapping("/hot-builds/stats")
+    public ResponseEntity<?> hotBuildsStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", recentBuildCache.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Read replica routing: measured lag, reads served by the replica, fallbacks to the primary
+     * GET /api/jenkins-logs/datasource/stats
+     */
+    @GetMapping("/datasource/stats")
+    public ResponseEntity<?> dataSourceStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", routingDataSource != null ? routingDataSource.getStats() : Map.of("routing", false));
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * API INFO
      * GET /api/jenkins-logs/info
@@ -251,13 +400,18 @@ public class JenkinsLogController {
             put("Get All Pipelines with ALL Builds and Logs", "GET /api/jenkins-logs/kafka/pipelines/all");
             put("Get All Builds with ALL Logs", "GET /api/jenkins-logs/kafka/builds/all");
             put("Get All Builds WITHOUT Logs", "GET /api/jenkins-logs/kafka/builds/no-logs");
-            put("Get Last Build with ALL Logs", "GET /api/jenkins-logs/kafka/builds/last");
+            put("Get Last Build with ALL Logs (?level=ERROR,WARN to filter)", "GET /api/jenkins-logs/builds/last");
             put("Get Last Pipeline with ALL Builds and Logs", "GET /api/jenkins-logs/kafka/pipelines/last");
             put("===== SMART ENDPOINTS =====", "");
             put("Last Pipeline Summary (No Logs)", "GET /api/jenkins-logs/smart/pipeline/last-summary");
             put("Last Build Important Logs", "GET /api/jenkins-logs/smart/build/last-important");
             put("All Pipelines Summary (No Logs)", "GET /api/jenkins-logs/smart/pipelines/all-summary");
             put("Health Check", "GET /api/jenkins-logs/health");
+            put("Pipeline Sharding", "GET /api/jenkins-logs/sharding");
+            put("Kafka Outbox Stats", "GET /api/jenkins-logs/outbox/stats");
+            put("Build Response Cache Stats", "GET /api/jenkins-logs/cache/stats");
+            put("DataSource Routing Stats", "GET /api/jenkins-logs/datasource/stats");
+            put("Recent Builds Cache Stats", "GET /api/jenkins-logs/hot-builds/stats");
             put("API Info", "GET /api/jenkins-logs/info");
         }});
 
@@ -265,6 +419,7 @@ public class JenkinsLogController {
     }
 
     // ==================== KAFKA ENDPOINTS (Advanced) ====================
+    // lecture seule : les événements Kafka partent de l'outbox à l'ingestion (OutboxService)
 
     /**
      * 1. GET all pipelines with ALL builds and ALL logs
@@ -321,14 +476,27 @@ public class JenkinsLogController {
     }
 
     /**
-     * 4. GET LAST build with ALL logs
-     * GET /api/jenkins-logs/kafka/builds/last
+     * 4. GET LAST build with ALL logs, or only the given levels
+     * GET /api/jenkins-logs/builds/last?level=ERROR,WARN
      */
-
-
     @GetMapping("/builds/last")
-    public ResponseEntity<Map<String, Object>> getLastBuild() {
-        Map<String, Object> result = logService.getLastBuildWithLogsData();
+    public ResponseEntity<Map<String, Object>> getLastBuild(@RequestParam(required = false) List<String> level) {
+        int levelMask = ColumnarBuildLogs.ALL_LEVELS;
+        if (level != null && !level.isEmpty()) {
+            levelMask = 0;
+            for (String name : level) {
+                try {
+                    levelMask |= ColumnarBuildLogs.mask(LogLevel.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                            "status", "error",
+                            "message", "Unknown log level: " + name));
+                }
+            }
+        }
+        // primaire : le dernier build vient peut-être d'être validé par une lane d'ingestion, pas encore répliqué
+        int mask = levelMask;
+        Map<String, Object> result = ReadWriteRoutingDataSource.onPrimary(() -> logService.getLastBuildWithLogsData(mask));
         return ResponseEntity.ok(result);
     }
 
@@ -381,7 +549,7 @@ public class JenkinsLogController {
     public ResponseEntity<?> getLastBuildWithImportantLogs() {
         try {
             System.out.println("📍 GET /smart/build/last-important");
-            Map<String, Object> result = logService.getLastBuildWithImportantLogs();
+            Map<String, Object> result = ReadWriteRoutingDataSource.onPrimary(logService::getLastBuildWithImportantLogs);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
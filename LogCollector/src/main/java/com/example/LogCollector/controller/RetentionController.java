@@ -0,0 +1,111 @@
+package com.example.LogCollector.controller;
+
+import com.example.LogCollector.Entity.RetentionPolicy;
+import com.example.LogCollector.service.RetentionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/retention")
+@CrossOrigin(origins = "*")
+public class RetentionController {
+
+    @Autowired
+    private RetentionService retentionService;
+
+    /**
+     * Purge counters and default policy
+     * GET /api/retention/status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<?> status() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", retentionService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Run a purge now, in the background
+     * POST /api/retention/run
+     */
+    @PostMapping("/run")
+    public ResponseEntity<?> run() {
+        Map<String, Object> response = new HashMap<>();
+        if (!retentionService.startAsync()) {
+            response.put("status", "error");
+            response.put("message", "A purge is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("status", "success");
+        response.put("message", "Retention purge started");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Per-pipeline policies (pipelines without one use the default policy)
+     * GET /api/retention/policies
+     */
+    @GetMapping("/policies")
+    public ResponseEntity<?> policies() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", retentionService.getPolicies());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Effective policy of a pipeline
+     * GET /api/retention/policies/project5
+     */
+    @GetMapping("/policies/{pipelineName}")
+    public ResponseEntity<?> policy(@PathVariable String pipelineName) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", retentionService.resolvePolicy(pipelineName));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Create or replace a pipeline policy (an omitted rule protects nothing)
+     * PUT /api/retention/policies/project5?keepLastBuilds=50&keepDays=14&keepFailedDays=60
+     */
+    @PutMapping("/policies/{pipelineName}")
+    public ResponseEntity<?> savePolicy(@PathVariable String pipelineName,
+                                        @RequestParam(required = false) Integer keepLastBuilds,
+                                        @RequestParam(required = false) Integer keepDays,
+                                        @RequestParam(required = false) Integer keepFailedDays) {
+        Map<String, Object> response = new HashMap<>();
+        if ((keepLastBuilds != null && keepLastBuilds < 0) || (keepDays != null && keepDays < 0)
+                || (keepFailedDays != null && keepFailedDays < 0)) {
+            response.put("status", "error");
+            response.put("message", "Retention values must be >= 0");
+            return ResponseEntity.badRequest().body(response);
+        }
+        RetentionPolicy policy = retentionService.savePolicy(pipelineName, keepLastBuilds, keepDays, keepFailedDays);
+        response.put("status", "success");
+        response.put("data", policy);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Remove a pipeline policy (back to the default policy)
+     * DELETE /api/retention/policies/project5
+     */
+    @DeleteMapping("/policies/{pipelineName}")
+    public ResponseEntity<?> deletePolicy(@PathVariable String pipelineName) {
+        Map<String, Object> response = new HashMap<>();
+        if (!retentionService.deletePolicy(pipelineName)) {
+            response.put("status", "error");
+            response.put("message", "No policy for pipeline " + pipelineName);
+            return ResponseEntity.status(404).body(response);
+        }
+        response.put("status", "success");
+        response.put("message", "Policy removed, default policy applies");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.LogCollector.controller;
+
+import com.example.LogCollector.Entity.TestStatus;
+import com.example.LogCollector.service.TestReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jenkins-logs")
+@CrossOrigin(origins = "*")
+public class TestReportController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private TestReportService testReportService;
+
+    /**
+     * Slowest tests of a pipeline, by duration of their last run
+     * GET /api/jenkins-logs/pipelines/{pipelineId}/tests/slowest?limit=20
+     */
+    @GetMapping("/pipelines/{pipelineId}/tests/slowest")
+    public ResponseEntity<?> slowestTests(@PathVariable Long pipelineId,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        return ok(testReportService.getSlowestTests(pipelineId, clamp(limit)));
+    }
+
+    /**
+     * Tests currently failing whose failure streak started at or after a build (default: the latest ingested build)
+     * GET /api/jenkins-logs/pipelines/{pipelineId}/tests/newly-failing?since=42&limit=100
+     */
+    @GetMapping("/pipelines/{pipelineId}/tests/newly-failing")
+    public ResponseEntity<?> newlyFailingTests(@PathVariable Long pipelineId,
+                                               @RequestParam(required = false) Integer since,
+                                               @RequestParam(defaultValue = "100") int limit) {
+        return ok(testReportService.getNewlyFailingTests(pipelineId, since, clamp(limit)));
+    }
+
+    /**
+     * Results of one test, most recent build first
+     * GET /api/jenkins-logs/pipelines/{pipelineId}/tests/{testCaseId}/history?limit=50
+     */
+    @GetMapping("/pipelines/{pipelineId}/tests/{testCaseId}/history")
+    public ResponseEntity<?> testHistory(@PathVariable Long pipelineId,
+                                         @PathVariable Long testCaseId,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        return ok(testReportService.getTestHistory(pipelineId, testCaseId, clamp(limit)));
+    }
+
+    /**
+     * Test counts of a build and its tests, slowest first (optionally only one status)
+     * GET /api/jenkins-logs/builds/{buildId}/tests?status=FAILED&limit=100
+     */
+    @GetMapping("/builds/{buildId}/tests")
+    public ResponseEntity<?> buildTests(@PathVariable Long buildId,
+                                        @RequestParam(required = false) TestStatus status,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        return ok(testReportService.getBuildTests(buildId, status, clamp(limit)));
+    }
+
+    /**
+     * Test report ingestion counters
+     * GET /api/jenkins-logs/tests/stats
+     */
+    @GetMapping("/tests/stats")
+    public ResponseEntity<?> stats() {
+        return ok(testReportService.getStats());
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static ResponseEntity<?> ok(Object data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", data);
+        return ResponseEntity.ok(response);
+    }
+}
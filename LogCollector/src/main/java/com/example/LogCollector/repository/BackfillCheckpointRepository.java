@@ -0,0 +1,9 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.BackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, String> {
+}
@@ -1,8 +1,10 @@
 package com.example.LogCollector.repository;
 
 import com.example.LogCollector.Entity.Build;
+import com.example.LogCollector.Entity.BuildStatus;
 import com.example.LogCollector.Entity.Pipeline;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +17,23 @@ public interface BuildRepository extends JpaRepository<Build, Long> {
     List<Build> findByPipelineId(Long pipelineId);
     List<Build> findAllByOrderByCreatedAtDesc();
 
+    // Build de référence d'un diff : dernier build du même pipeline avec ce statut, avant le numéro donné
+    Optional<Build> findFirstByPipelineAndStatusAndBuildNumberLessThanOrderByBuildNumberDesc(
+            Pipeline pipeline, BuildStatus status, Integer buildNumber);
+
+    // Statut seul (cache des réponses : un build terminé ne change plus)
+    @Query("SELECT b.status FROM Build b WHERE b.id = :id")
+    Optional<BuildStatus> findStatusById(Long id);
+
+    // Id du dernier build créé, par idx_build_created_at (lignes et logs servis par RecentBuildCache)
+    @Query("SELECT b.id FROM Build b WHERE b.createdAt IS NOT NULL ORDER BY b.createdAt DESC, b.id DESC LIMIT 1")
+    Optional<Long> findLatestId();
+
+    long countByPipelineId(Long pipelineId);
+
+    // Dédoublonnage du backfill avant de télécharger le console (uk_build_pipeline_number)
+    boolean existsByPipelineIdAndBuildNumber(Long pipelineId, Integer buildNumber);
+
     // ✅ جديد - آخر build
     Optional<Build> findFirstByOrderByCreatedAtDesc();
     Optional<Build> findTopByOrderByCreatedAtDesc();
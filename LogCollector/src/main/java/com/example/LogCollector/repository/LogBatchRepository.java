@@ -0,0 +1,50 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Insertion des lignes de log par lots JDBC.
+ * Avec IDENTITY, Hibernate ne peut pas batcher les INSERT (un aller-retour par ligne) ; ici un build de
+ * 10 000 lignes part en quelques batchUpdate (réécrits en INSERT multi-valeurs avec reWriteBatchedInserts=true).
+ */
+@Repository
+public class LogBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO log (log_level, message, stack_trace, created_at, build_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String IDS_SQL = "SELECT id FROM log WHERE build_id = ? ORDER BY id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ingestion.log-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Insère les lignes d'un build nouvellement créé puis leur affecte leurs ids : une lecture des seuls ids
+     * (index idx_log_build), dans l'ordre d'insertion qui est celui de l'IDENTITY dans la transaction.
+     */
+    public void insertAll(Long buildId, List<Log> logs) {
+        if (logs.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, batchSize, (ps, log) -> {
+            ps.setString(1, log.getLogLevel() != null ? log.getLogLevel().name() : null);
+            ps.setString(2, log.getMessage());
+            ps.setString(3, log.getStackTrace());
+            ps.setTimestamp(4, log.getCreatedAt() != null ? Timestamp.valueOf(log.getCreatedAt()) : null);
+            ps.setLong(5, buildId);
+        });
+
+        List<Long> ids = jdbcTemplate.queryForList(IDS_SQL, Long.class, buildId);
+        if (ids.size() != logs.size()) return;
+        for (int i = 0; i < logs.size(); i++) {
+            logs.get(i).setId(ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.Build;
+import com.example.LogCollector.Entity.LogBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface LogBlockRepository extends JpaRepository<LogBlock, Long> {
+    List<LogBlock> findByBuildOrderByFirstLineAsc(Build build);
+
+    @Query("SELECT COALESCE(SUM(b.lineCount), 0) FROM LogBlock b WHERE b.build = :build")
+    long sumLineCountByBuild(@Param("build") Build build);
+}
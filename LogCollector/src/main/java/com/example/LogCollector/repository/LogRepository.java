@@ -1,15 +1,13 @@
 package com.example.LogCollector.repository;
 
-import com.example.LogCollector.Entity.Build;
 import com.example.LogCollector.Entity.Log;
-import com.example.LogCollector.Entity.LogLevel;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
+/**
+ * findByBuild* sont implémentées dans {@link LogRepositoryImpl} : elles lisent les lignes "log" et
+ * décodent les blocs compressés "log_block" (logs.storage.format=blocks).
+ */
 @Repository
-public interface LogRepository extends JpaRepository<Log, Long> {
-    List<Log> findByBuildOrderByCreatedAtDesc(Build build);
-    List<Log> findByBuildAndLogLevel(Build build, LogLevel level);
-    List<Log> findByBuild(Build build);
-}
\ No newline at end of file
+public interface LogRepository extends JpaRepository<Log, Long>, LogRepositoryCustom {
+}
@@ -0,0 +1,14 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.Build;
+import com.example.LogCollector.Entity.Log;
+import com.example.LogCollector.Entity.LogLevel;
+import java.util.List;
+
+public interface LogRepositoryCustom {
+    List<Log> findByBuildOrderByCreatedAtDesc(Build build);
+    List<Log> findByBuildAndLogLevel(Build build, LogLevel level);
+    List<Log> findByBuild(Build build);
+    long countByBuild(Build build);
+    List<String> findMessagesByBuild(Build build);
+}
@@ -0,0 +1,102 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.Build;
+import com.example.LogCollector.Entity.Log;
+import com.example.LogCollector.Entity.LogLevel;
+import com.example.LogCollector.service.LogBlockStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Lecture transparente des deux formats de stockage : lignes "log" (une ligne de console par row) et
+ * blocs compressés "log_block". Les lignes décodées d'un bloc n'ont pas d'id (elles n'existent pas en base).
+ *
+ * Un build est écrit dans un seul format : on lit d'abord celui de logs.storage.format, l'autre seulement
+ * si le premier ne renvoie rien (builds stockés avant un changement de format). En régime établi, une
+ * seule requête par lecture.
+ */
+public class LogRepositoryImpl implements LogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private LogBlockStore logBlockStore;
+
+    @Override
+    public List<Log> findByBuild(Build build) {
+        return currentFormatFirst(
+                () -> entityManager
+                        .createQuery("SELECT l FROM Log l WHERE l.build = :build ORDER BY l.id", Log.class)
+                        .setParameter("build", build)
+                        .getResultList(),
+                () -> logBlockStore.read(build));
+    }
+
+    @Override
+    public List<Log> findByBuildOrderByCreatedAtDesc(Build build) {
+        return currentFormatFirst(
+                // toutes les lignes d'une ingestion ont le même createdAt : l'id (ordre d'insertion) départage
+                () -> entityManager
+                        .createQuery("SELECT l FROM Log l WHERE l.build = :build ORDER BY l.createdAt DESC, l.id DESC", Log.class)
+                        .setParameter("build", build)
+                        .getResultList(),
+                () -> {
+                    List<Log> logs = logBlockStore.read(build);
+                    Collections.reverse(logs);
+                    return logs;
+                });
+    }
+
+    @Override
+    public List<Log> findByBuildAndLogLevel(Build build, LogLevel level) {
+        return currentFormatFirst(
+                () -> entityManager
+                        .createQuery("SELECT l FROM Log l WHERE l.build = :build AND l.logLevel = :level ORDER BY l.id", Log.class)
+                        .setParameter("build", build)
+                        .setParameter("level", level)
+                        .getResultList(),
+                () -> logBlockStore.read(build, level));
+    }
+
+    /** Messages seuls, dans l'ordre du console (pas d'entité Log chargée pour les lignes "log"). */
+    @Override
+    public List<String> findMessagesByBuild(Build build) {
+        return currentFormatFirst(
+                () -> entityManager
+                        .createQuery("SELECT l.message FROM Log l WHERE l.build = :build ORDER BY l.id", String.class)
+                        .setParameter("build", build)
+                        .getResultList(),
+                () -> {
+                    List<String> messages = new ArrayList<>();
+                    for (Log log : logBlockStore.read(build)) {
+                        messages.add(log.getMessage());
+                    }
+                    return messages;
+                });
+    }
+
+    @Override
+    public long countByBuild(Build build) {
+        Supplier<Long> rows = () -> entityManager
+                .createQuery("SELECT COUNT(l) FROM Log l WHERE l.build = :build", Long.class)
+                .setParameter("build", build)
+                .getSingleResult();
+        Supplier<Long> blocks = () -> logBlockStore.count(build);
+        boolean blocksFirst = logBlockStore.isEnabled();
+        long count = (blocksFirst ? blocks : rows).get();
+        return count > 0 ? count : (blocksFirst ? rows : blocks).get();
+    }
+
+    private <T> List<T> currentFormatFirst(Supplier<List<T>> rows, Supplier<List<T>> blocks) {
+        boolean blocksFirst = logBlockStore.isEnabled();
+        List<T> found = (blocksFirst ? blocks : rows).get();
+        return new ArrayList<>(found.isEmpty() ? (blocksFirst ? rows : blocks).get() : found);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.OutboxEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accès JDBC à la table outbox_event : une insertion par changement, dans la transaction de l'appelant,
+ * et lecture par lots verrouillés pour le relais Kafka.
+ */
+@Repository
+public class OutboxRepository {
+
+    /** Événement en attente de publication. */
+    public record PendingEvent(long id, String key, String payload) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void append(String key, OutboxEventType type, String payload) {
+        jdbcTemplate.update("INSERT INTO outbox_event (event_key, event_type, payload, created_at) VALUES (?, ?, ?, ?)",
+                key, type.name(), payload, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Plus anciens événements, verrouillés jusqu'à la fin de la transaction : un relais d'une autre instance
+     * attend au lieu de publier les suivants avant eux, l'ordre des id est donc conservé.
+     */
+    public List<PendingEvent> lockOldest(int limit) {
+        return jdbcTemplate.query("SELECT id, event_key, payload FROM outbox_event ORDER BY id LIMIT ? FOR UPDATE",
+                (rs, n) -> new PendingEvent(rs.getLong(1), rs.getString(2), rs.getString(3)), limit);
+    }
+
+    public void delete(List<PendingEvent> events) {
+        jdbcTemplate.batchUpdate("DELETE FROM outbox_event WHERE id = ?", events, events.size(),
+                (ps, event) -> ps.setLong(1, event.id()));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Long.class);
+        return count != null ? count : 0;
+    }
+}
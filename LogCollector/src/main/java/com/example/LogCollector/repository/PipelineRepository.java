@@ -1,8 +1,12 @@
 package com.example.LogCollector.repository;
 import com.example.LogCollector.Entity.Pipeline;
-import com.example.LogCollector.Entity.Pipeline;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 
 @Repository
@@ -11,4 +15,16 @@ public interface PipelineRepository extends JpaRepository<Pipeline, Long> {
     boolean existsByName(String name);
     Pipeline findTopByOrderByCreatedAtDesc();
 
+    // Id seul : évite de charger la collection EAGER des builds
+    @Query("SELECT p.id FROM Pipeline p WHERE p.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    // Insertion conditionnelle (Postgres et H2) ; la contrainte unique "name" arbitre les créations concurrentes
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO pipeline (name, jenkins_url, created_at, updated_at) "
+            + "SELECT :name, :jenkinsUrl, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+            + "WHERE NOT EXISTS (SELECT 1 FROM pipeline WHERE name = :name)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("jenkinsUrl") String jenkinsUrl);
+
 }
@@ -0,0 +1,75 @@
+package com.example.LogCollector.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Purge ensembliste pour la rétention : des DELETE ... WHERE id IN (sous-requête LIMIT n) en SQL direct,
+ * sans charger les entités (Build.logs en orphanRemoval ferait un SELECT puis un DELETE par ligne).
+ * Chaque appel est une instruction autocommit : les transactions restent courtes et les verrous brefs.
+ */
+@Repository
+public class RetentionRepository {
+
+    private static final String EXPIRED_BUILDS_SQL =
+            "SELECT id FROM ("
+            + " SELECT b.id, b.status, b.created_at,"
+            + " ROW_NUMBER() OVER (ORDER BY b.build_number DESC, b.id DESC) AS rn"
+            + " FROM build b WHERE b.pipeline_id = :pipelineId) ranked"
+            + " WHERE rn > :keepLast AND status <> 'RUNNING'"
+            + " AND created_at < CASE WHEN status IN ('FAILURE', 'UNSTABLE') THEN CAST(:failedCutoff AS TIMESTAMP) ELSE CAST(:cutoff AS TIMESTAMP) END"
+            + " ORDER BY id LIMIT :limit";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    public List<Map<String, Object>> findPipelines() {
+        return jdbc.queryForList("SELECT id, name FROM pipeline ORDER BY id", Map.of());
+    }
+
+    /**
+     * Builds du pipeline qu'aucune règle ne protège : au-delà des keepLast plus récents (par numéro) et créés
+     * avant le cutoff de leur statut. Les builds RUNNING ne sont jamais purgés.
+     */
+    public List<Long> findExpiredBuildIds(Long pipelineId, int keepLast, LocalDateTime cutoff,
+                                          LocalDateTime failedCutoff, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("pipelineId", pipelineId)
+                .addValue("keepLast", keepLast)
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("failedCutoff", Timestamp.valueOf(failedCutoff))
+                .addValue("limit", limit);
+        return jdbc.queryForList(EXPIRED_BUILDS_SQL, params, Long.class);
+    }
+
+    /** Supprime au plus limit lignes de log des builds donnés ; renvoie le nombre supprimé. */
+    public int deleteLogs(List<Long> buildIds, int limit) {
+        return jdbc.update("DELETE FROM log WHERE id IN"
+                + " (SELECT id FROM log WHERE build_id IN (:buildIds) LIMIT :limit)",
+                new MapSqlParameterSource("buildIds", buildIds).addValue("limit", limit));
+    }
+
+    public int deleteTestResults(List<Long> buildIds, int limit) {
+        return jdbc.update("DELETE FROM test_result WHERE id IN"
+                + " (SELECT id FROM test_result WHERE build_id IN (:buildIds) LIMIT :limit)",
+                new MapSqlParameterSource("buildIds", buildIds).addValue("limit", limit));
+    }
+
+    public int deleteLogBlocks(List<Long> buildIds, int limit) {
+        return jdbc.update("DELETE FROM log_block WHERE id IN"
+                + " (SELECT id FROM log_block WHERE build_id IN (:buildIds) LIMIT :limit)",
+                new MapSqlParameterSource("buildIds", buildIds).addValue("limit", limit));
+    }
+
+    /** À appeler une fois les logs, blocs et résultats de tests supprimés (clés étrangères build_id). */
+    public int deleteBuilds(List<Long> buildIds) {
+        return jdbc.update("DELETE FROM build WHERE id IN (:buildIds)", new MapSqlParameterSource("buildIds", buildIds));
+    }
+}
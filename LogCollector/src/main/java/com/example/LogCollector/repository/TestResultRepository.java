@@ -0,0 +1,214 @@
+package com.example.LogCollector.repository;
+
+import com.example.LogCollector.Entity.TestStatus;
+import com.example.LogCollector.service.JUnitReportParser.TestCaseResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Accès JDBC direct aux tables test_case et test_result : insertions par lots (comme {@link LogBatchRepository})
+ * et lectures servies par les index des entités, sans charger d'entités.
+ */
+@Repository
+public class TestResultRepository {
+
+    private static final String INSERT_CASE_SQL =
+            "INSERT INTO test_case (pipeline_id, class_name, name, run_count, failure_count) VALUES (?, ?, ?, 0, 0)";
+
+    private static final String INSERT_RESULT_SQL =
+            "INSERT INTO test_result (build_id, test_case_id, status, duration_ms, message) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CASE_SQL =
+            "UPDATE test_case SET last_status = ?, last_build_number = ?, last_duration_ms = ?, failing_since = ?,"
+            + " run_count = ?, failure_count = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ingestion.log-batch-size:500}")
+    private int batchSize;
+
+    // ==================== INGESTION ====================
+
+    /** Tests connus du pipeline d'id supérieur à afterId (0 pour tous), indexés par {@link #key}. */
+    public Map<String, CaseState> findCases(Long pipelineId, long afterId) {
+        Map<String, CaseState> cases = new HashMap<>();
+        jdbcTemplate.query("SELECT id, class_name, name, last_status, last_build_number, last_duration_ms, failing_since,"
+                        + " run_count, failure_count FROM test_case WHERE pipeline_id = ? AND id > ?",
+                rs -> {
+                    CaseState state = new CaseState(rs.getLong(1));
+                    state.lastStatus = status(rs, 4);
+                    state.lastBuildNumber = (Integer) rs.getObject(5);
+                    state.lastDurationMs = (Integer) rs.getObject(6);
+                    state.failingSince = (Integer) rs.getObject(7);
+                    state.runCount = rs.getInt(8);
+                    state.failureCount = rs.getInt(9);
+                    cases.put(key(rs.getString(2), rs.getString(3)), state);
+                }, pipelineId, afterId);
+        return cases;
+    }
+
+    public void insertCases(Long pipelineId, Collection<TestCaseResult> results) {
+        if (results.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_CASE_SQL, results, batchSize, (ps, result) -> {
+            ps.setLong(1, pipelineId);
+            ps.setString(2, result.className());
+            ps.setString(3, result.name());
+        });
+    }
+
+    /** Lignes test_result d'un lot ; caseIds est aligné sur results. */
+    public void insertResults(Long buildId, List<TestCaseResult> results, long[] caseIds) {
+        if (results.isEmpty()) return;
+        List<Integer> indexes = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) indexes.add(i);
+        jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, indexes, batchSize, (ps, i) -> {
+            TestCaseResult result = results.get(i);
+            ps.setLong(1, buildId);
+            ps.setLong(2, caseIds[i]);
+            ps.setInt(3, result.status().ordinal());
+            ps.setInt(4, result.durationMs());
+            ps.setString(5, result.message());
+        });
+    }
+
+    public void updateCases(Collection<CaseState> states) {
+        if (states.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPDATE_CASE_SQL, states, batchSize, (ps, state) -> {
+            ps.setObject(1, state.lastStatus != null ? state.lastStatus.ordinal() : null, Types.SMALLINT);
+            ps.setObject(2, state.lastBuildNumber, Types.INTEGER);
+            ps.setObject(3, state.lastDurationMs, Types.INTEGER);
+            ps.setObject(4, state.failingSince, Types.INTEGER);
+            ps.setInt(5, state.runCount);
+            ps.setInt(6, state.failureCount);
+            ps.setLong(7, state.id);
+        });
+    }
+
+    /** Ré-ingestion d'un build : ses résultats précédents (éventuellement partiels) sont remplacés. */
+    public int deleteResults(Long buildId) {
+        return jdbcTemplate.update("DELETE FROM test_result WHERE build_id = ?", buildId);
+    }
+
+    // ==================== LECTURES ====================
+
+    /** Tests du pipeline triés par durée de leur dernier run (index idx_test_case_duration). */
+    public List<Map<String, Object>> findSlowest(Long pipelineId, int limit) {
+        return jdbcTemplate.query("SELECT id, class_name, name, last_status, last_build_number, last_duration_ms, failing_since"
+                        + " FROM test_case WHERE pipeline_id = ? AND last_duration_ms IS NOT NULL"
+                        + " ORDER BY last_duration_ms DESC LIMIT ?",
+                (rs, n) -> caseRow(rs), pipelineId, limit);
+    }
+
+    /** Tests en échec dont la série d'échecs a commencé au build sinceBuild ou après (index idx_test_case_failing). */
+    public List<Map<String, Object>> findFailingSince(Long pipelineId, int sinceBuild, int limit) {
+        return jdbcTemplate.query("SELECT id, class_name, name, last_status, last_build_number, last_duration_ms, failing_since"
+                        + " FROM test_case WHERE pipeline_id = ? AND failing_since >= ? AND last_status = ?"
+                        + " ORDER BY failing_since DESC, id LIMIT ?",
+                (rs, n) -> caseRow(rs), pipelineId, sinceBuild, TestStatus.FAILED.ordinal(), limit);
+    }
+
+    /** Dernier numéro de build dont les tests ont été ingérés, null si aucun. */
+    public Integer findLatestBuildNumber(Long pipelineId) {
+        return jdbcTemplate.queryForObject("SELECT MAX(last_build_number) FROM test_case WHERE pipeline_id = ?",
+                Integer.class, pipelineId);
+    }
+
+    /** Résultats d'un test, du build le plus récent au plus ancien (index idx_test_result_case). */
+    public List<Map<String, Object>> findHistory(Long pipelineId, Long testCaseId, int limit) {
+        return jdbcTemplate.query("SELECT b.id, b.build_number, r.status, r.duration_ms, r.message"
+                        + " FROM test_result r JOIN build b ON b.id = r.build_id"
+                        + " WHERE r.test_case_id = ? AND b.pipeline_id = ? ORDER BY r.build_id DESC LIMIT ?",
+                (rs, n) -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("buildId", rs.getLong(1));
+                    row.put("buildNumber", rs.getInt(2));
+                    row.put("status", status(rs, 3));
+                    row.put("durationMs", rs.getInt(4));
+                    row.put("message", rs.getString(5));
+                    return row;
+                }, testCaseId, pipelineId, limit);
+    }
+
+    /** Nombre de tests par statut et durée totale d'un build. */
+    public Map<String, Object> findBuildSummary(Long buildId) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long total = 0;
+        long durationMs = 0;
+        for (TestStatus status : TestStatus.values()) summary.put(status.name().toLowerCase(), 0L);
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT status, COUNT(*) AS n, SUM(duration_ms) AS d FROM test_result WHERE build_id = ? GROUP BY status", buildId)) {
+            long count = ((Number) row.get("n")).longValue();
+            summary.put(TestStatus.values()[((Number) row.get("status")).intValue()].name().toLowerCase(), count);
+            total += count;
+            durationMs += row.get("d") != null ? ((Number) row.get("d")).longValue() : 0;
+        }
+        summary.put("total", total);
+        summary.put("durationMs", durationMs);
+        return summary;
+    }
+
+    /** Tests d'un build, échecs d'abord puis par durée décroissante (lignes du build via idx_test_result_build). */
+    public List<Map<String, Object>> findBuildResults(Long buildId, TestStatus status, int limit) {
+        String where = status != null ? " AND r.status = ?" : "";
+        Object[] params = status != null ? new Object[]{buildId, status.ordinal(), limit} : new Object[]{buildId, limit};
+        return jdbcTemplate.query("SELECT c.id, c.class_name, c.name, r.status, r.duration_ms, r.message"
+                        + " FROM test_result r JOIN test_case c ON c.id = r.test_case_id"
+                        + " WHERE r.build_id = ?" + where
+                        + " ORDER BY CASE WHEN r.status = " + TestStatus.FAILED.ordinal() + " THEN 0 ELSE 1 END,"
+                        + " r.duration_ms DESC LIMIT ?",
+                (rs, n) -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("testCaseId", rs.getLong(1));
+                    row.put("className", rs.getString(2));
+                    row.put("name", rs.getString(3));
+                    row.put("status", status(rs, 4));
+                    row.put("durationMs", rs.getInt(5));
+                    row.put("message", rs.getString(6));
+                    return row;
+                }, params);
+    }
+
+    private static Map<String, Object> caseRow(ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("testCaseId", rs.getLong(1));
+        row.put("className", rs.getString(2));
+        row.put("name", rs.getString(3));
+        row.put("lastStatus", status(rs, 4));
+        row.put("lastBuildNumber", rs.getObject(5));
+        row.put("lastDurationMs", rs.getObject(6));
+        row.put("failingSince", rs.getObject(7));
+        return row;
+    }
+
+    private static TestStatus status(ResultSet rs, int column) throws SQLException {
+        int ordinal = rs.getInt(column);
+        return rs.wasNull() ? null : TestStatus.values()[ordinal];
+    }
+
+    public static String key(String className, String name) {
+        return className + '#' + name;
+    }
+
+    /** État courant d'un test, mis à jour en mémoire pendant l'ingestion puis écrit par {@link #updateCases}. */
+    public static class CaseState {
+        public final long id;
+        public TestStatus lastStatus;
+        public Integer lastBuildNumber;
+        public Integer lastDurationMs;
+        public Integer failingSince;
+        public int runCount;
+        public int failureCount;
+
+        public CaseState(long id) {
+            this.id = id;
+        }
+    }
+}
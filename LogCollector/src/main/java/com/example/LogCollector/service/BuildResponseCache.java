@@ -0,0 +1,190 @@
+package com.example.LogCollector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache des réponses JSON des builds terminés (GET /builds/{id}, /builds/{id}/logs, /builds/{id}/errors).
+ *
+ * Un build terminé ne change plus : sa réponse est sérialisée une seule fois, gardée en octets (gzip au-delà de
+ * cache.builds.compress-min-bytes) et resservie telle quelle, sans JPA ni Jackson. Les clients qui acceptent gzip
+ * reçoivent les octets compressés directement. Éviction W-TinyLFU de Caffeine, bornée en octets par
+ * cache.builds.max-bytes. Les builds RUNNING et les requêtes ?pretty=true ne passent pas par le cache ;
+ * la rétention retire les builds qu'elle supprime ({@link #evict}).
+ *
+ * Les réponses d'un build terminé portent Cache-Control: immutable ({@link #IMMUTABLE}) : c'est ce qui autorise
+ * l'api-gateway à les garder sans invalidation. Un build RUNNING ou inconnu (404) ne le reçoit jamais.
+ */
+@Service
+public class BuildResponseCache {
+
+    /** Vue d'un build servie par le cache. */
+    public enum View { BUILD, LOGS, ERRORS }
+
+    private record Key(long buildId, View view) {}
+
+    private record Entry(byte[] body, boolean gzip, int rawLength) {}
+
+    public static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /** Clé, en-tête du tableau et références : coût fixe estimé d'une entrée en plus de ses octets. */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cache.builds.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.builds.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${cache.builds.compress-min-bytes:2048}")
+    private int compressMinBytes;
+
+    private Cache<Key, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.body().length + ENTRY_OVERHEAD_BYTES)
+                .recordStats()
+                .build();
+    }
+
+    /** Réponse en cache, null si absente (ou cache contourné pour cette requête). */
+    public ResponseEntity<?> lookup(Long buildId, View view, HttpServletRequest request) {
+        if (!enabled || prettyRequested(request)) return null;
+        Entry entry = cache.getIfPresent(new Key(buildId, view));
+        return entry != null ? respond(entry, request) : null;
+    }
+
+    /**
+     * Réponse calculée après un défaut de cache : sérialisée et gardée si le build est terminé, puis servie
+     * depuis ces octets. Sinon (build en cours, ?pretty=true) elle passe par le convertisseur Jackson habituel.
+     */
+    public ResponseEntity<?> store(Long buildId, View view, boolean finished, Map<String, Object> response,
+                                   HttpServletRequest request) {
+        if (!finished) {
+            return ResponseEntity.ok(response);
+        }
+        if (!enabled || prettyRequested(request)) {
+            return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, IMMUTABLE).body(response);
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            Entry entry = json.length >= compressMinBytes
+                    ? new Entry(gzip(json), true, json.length)
+                    : new Entry(json, false, json.length);
+            cache.put(new Key(buildId, view), entry);
+            return respond(entry, request);
+        } catch (JsonProcessingException e) {
+            System.err.println("⚠️ Build response not cached for build " + buildId + ": " + e.getMessage());
+            return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, IMMUTABLE).body(response);
+        }
+    }
+
+    /** Builds supprimés (rétention) : toutes leurs vues sont retirées. */
+    public void evict(Collection<Long> buildIds) {
+        for (Long buildId : buildIds) {
+            for (View view : View.values()) {
+                cache.invalidate(new Key(buildId, view));
+            }
+        }
+    }
+
+    private ResponseEntity<byte[]> respond(Entry entry, HttpServletRequest request) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        if (!entry.gzip()) {
+            return builder.body(entry.body());
+        }
+        if (acceptsGzip(request)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.body());
+        }
+        return builder.body(gunzip(entry.body()));
+    }
+
+    private static boolean prettyRequested(HttpServletRequest request) {
+        return "true".equalsIgnoreCase(request.getParameter("pretty"));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (accept == null) return false;
+        for (String coding : accept.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip") || parts[0].trim().equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        long rawBytes = 0;
+        long storedBytes = 0;
+        long compressed = 0;
+        for (Entry entry : cache.asMap().values()) {
+            rawBytes += entry.rawLength();
+            storedBytes += entry.body().length;
+            if (entry.gzip()) compressed++;
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("entries", cache.estimatedSize());
+        result.put("compressedEntries", compressed);
+        result.put("maxBytes", maxBytes);
+        result.put("weightedBytes", cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L));
+        result.put("rawBytes", rawBytes);
+        result.put("storedBytes", storedBytes);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
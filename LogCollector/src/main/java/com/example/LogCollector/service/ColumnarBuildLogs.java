@@ -0,0 +1,213 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.LogLevel;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Lignes de log d'un build en colonnes, immuables une fois construites ({@link Builder}).
+ *
+ * Messages : un seul tableau UTF-8 (arena) et offsets[i]..offsets[i + 1] pour la ligne i ; niveaux : un octet
+ * par ligne (ordinal de {@link LogLevel}) et, par niveau, un bitmap d'un bit par ligne. Un filtre de niveaux
+ * est un masque d'ordinaux : les lignes retenues sont le OU des bitmaps, parcouru mot par mot, et les comptes
+ * viennent de bitCount sans relire les lignes. {@link #writeLogs} écrit les lignes en JSON directement depuis
+ * l'arena (writeUTF8String), sans String ni LogDTO par ligne.
+ *
+ * Ids : ceux de la table log (stockage en lignes) ou null (stockage en blocs, comme à la relecture).
+ * Stack traces et dates : à part, null quand aucune ligne n'a de stack trace / quand toutes les lignes ont la
+ * même date (cas de l'ingestion, date déjà formatée une fois pour le build).
+ */
+public final class ColumnarBuildLogs {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    public static final int ALL_LEVELS = (1 << LEVELS.length) - 1;
+
+    private final byte[] arena;
+    private final int[] offsets;
+    private final byte[] levels;
+    private final long[][] levelBits;
+    private final int[] levelCounts;
+    private final long[] ids;
+    private final String[] stackTraces;
+    private final String createdAt;
+    private final String[] createdAts;
+
+    private ColumnarBuildLogs(byte[] arena, int[] offsets, byte[] levels, long[] ids, String[] stackTraces,
+                              String createdAt, String[] createdAts) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.levels = levels;
+        this.ids = ids;
+        this.stackTraces = stackTraces;
+        this.createdAt = createdAt;
+        this.createdAts = createdAts;
+        this.levelBits = new long[LEVELS.length][(levels.length + 63) >>> 6];
+        this.levelCounts = new int[LEVELS.length];
+        for (int i = 0; i < levels.length; i++) {
+            levelBits[levels[i]][i >>> 6] |= 1L << i;
+            levelCounts[levels[i]]++;
+        }
+    }
+
+    /** Masque des niveaux donnés (aucun niveau : tous). */
+    public static int mask(LogLevel... selected) {
+        if (selected.length == 0) return ALL_LEVELS;
+        int mask = 0;
+        for (LogLevel level : selected) mask |= 1 << level.ordinal();
+        return mask;
+    }
+
+    public int size() {
+        return levels.length;
+    }
+
+    /** Nombre de lignes des niveaux du masque. */
+    public int count(int levelMask) {
+        int count = 0;
+        for (int level = 0; level < LEVELS.length; level++) {
+            if ((levelMask & (1 << level)) != 0) count += levelCounts[level];
+        }
+        return count;
+    }
+
+    public LogLevel level(int line) {
+        return LEVELS[levels[line]];
+    }
+
+    public String message(int line) {
+        return new String(arena, offsets[line], offsets[line + 1] - offsets[line], StandardCharsets.UTF_8);
+    }
+
+    /** Octets occupés (tableaux et en-têtes, approximatif). */
+    public long memoryBytes() {
+        long bytes = 64 + 16L + arena.length + 16L + 4L * offsets.length + 16L + levels.length
+                + (long) LEVELS.length * (16 + 8L * levelBits[0].length);
+        if (ids != null) bytes += 16 + 8L * ids.length;
+        if (stackTraces != null) {
+            bytes += 16 + 4L * stackTraces.length;
+            for (String stackTrace : stackTraces) {
+                if (stackTrace != null) bytes += 40 + stackTrace.length();
+            }
+        }
+        if (createdAts != null) bytes += 16 + 4L * createdAts.length + 64L * createdAts.length;
+        return bytes;
+    }
+
+    /** Lignes des niveaux du masque, dans l'ordre de la console, en tableau JSON au format de LogDTO. */
+    public void writeLogs(JsonGenerator gen, int levelMask) throws IOException {
+        gen.writeStartArray();
+        if ((levelMask & ALL_LEVELS) == ALL_LEVELS) {
+            for (int line = 0; line < levels.length; line++) writeLine(gen, line);
+        } else {
+            for (int word = 0; word < levelBits[0].length; word++) {
+                long bits = 0;
+                for (int level = 0; level < LEVELS.length; level++) {
+                    if ((levelMask & (1 << level)) != 0) bits |= levelBits[level][word];
+                }
+                while (bits != 0) {
+                    writeLine(gen, (word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeLine(JsonGenerator gen, int line) throws IOException {
+        gen.writeStartObject();
+        if (ids != null) gen.writeNumberField("id", ids[line]);
+        else gen.writeNullField("id");
+        gen.writeStringField("logLevel", LEVELS[levels[line]].name());
+        gen.writeFieldName("message");
+        if (gen instanceof UTF8JsonGenerator) {
+            gen.writeUTF8String(arena, offsets[line], offsets[line + 1] - offsets[line]);
+        } else {
+            gen.writeString(message(line));
+        }
+        if (stackTraces != null && stackTraces[line] != null) gen.writeStringField("stackTrace", stackTraces[line]);
+        else gen.writeNullField("stackTrace");
+        String date = createdAts != null ? createdAts[line] : createdAt;
+        if (date != null) gen.writeStringField("createdAt", date);
+        else gen.writeNullField("createdAt");
+        gen.writeNullField("timestamp");
+        gen.writeEndObject();
+    }
+
+    public static Builder builder(int expectedLines) {
+        return new Builder(expectedLines);
+    }
+
+    /** Construction ligne par ligne ; les tableaux sont ajustés à la taille exacte par {@link #build}. */
+    public static final class Builder {
+
+        private byte[] arena;
+        private int arenaSize;
+        private int[] offsets;
+        private byte[] levels;
+        private String[] stackTraces;
+        private String createdAt;
+        private String[] createdAts;
+        private int lines;
+
+        private Builder(int expectedLines) {
+            int capacity = Math.max(expectedLines, 16);
+            arena = new byte[capacity * 96];
+            offsets = new int[capacity + 1];
+            levels = new byte[capacity];
+        }
+
+        /** createdAt : date de la ligne déjà formatée ; passer la même instance pour tout le build évite la colonne. */
+        public Builder add(LogLevel level, String message, String stackTrace, String createdAt) {
+            if (lines == levels.length) {
+                levels = Arrays.copyOf(levels, lines * 2);
+                offsets = Arrays.copyOf(offsets, lines * 2 + 1);
+                if (stackTraces != null) stackTraces = Arrays.copyOf(stackTraces, lines * 2);
+                if (createdAts != null) createdAts = Arrays.copyOf(createdAts, lines * 2);
+            }
+            byte[] utf8 = message != null ? message.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            if (arenaSize + utf8.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + utf8.length));
+            }
+            System.arraycopy(utf8, 0, arena, arenaSize, utf8.length);
+            arenaSize += utf8.length;
+            if (stackTrace != null) {
+                if (stackTraces == null) stackTraces = new String[levels.length];
+                stackTraces[lines] = stackTrace;
+            }
+            if (lines == 0) {
+                this.createdAt = createdAt;
+            } else if (createdAts == null && !Objects.equals(this.createdAt, createdAt)) {
+                createdAts = new String[levels.length];
+                Arrays.fill(createdAts, 0, lines, this.createdAt);
+            }
+            if (createdAts != null) createdAts[lines] = createdAt;
+            levels[lines] = (byte) (level != null ? level : LogLevel.INFO).ordinal();
+            offsets[++lines] = arenaSize;
+            return this;
+        }
+
+        public int lines() {
+            return lines;
+        }
+
+        public int bytes() {
+            return arenaSize;
+        }
+
+        /** ids : ids de la table log dans l'ordre des lignes, ou null. */
+        public ColumnarBuildLogs build(long[] ids) {
+            if (ids != null && ids.length != lines) {
+                throw new IllegalArgumentException("Expected " + lines + " log ids, got " + ids.length);
+            }
+            return new ColumnarBuildLogs(Arrays.copyOf(arena, arenaSize), Arrays.copyOf(offsets, lines + 1),
+                    Arrays.copyOf(levels, lines), ids, stackTraces != null ? Arrays.copyOf(stackTraces, lines) : null,
+                    createdAt, createdAts != null ? Arrays.copyOf(createdAts, lines) : null);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.LogCollector.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Anneau de hachage cohérent : chaque membre y occupe virtualNodes points, une clé appartient au premier
+ * point qui la suit. Quand un membre arrive ou part, seules les clés de ses points changent de propriétaire
+ * (environ 1/N des clés), les autres restent où elles sont. Immuable : reconstruit à chaque changement de membres.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> members;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        this.members = Collections.unmodifiableSortedSet(new TreeSet<>(members));
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /** Propriétaire de la clé, null si l'anneau est vide. */
+    public String owner(String key) {
+        if (points.isEmpty()) return null;
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    /** FNV-1a 64 bits suivi du finaliseur de MurmurHash3 : stable d'une JVM à l'autre, bien réparti. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.LogCollector.service;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Annonce la charge d'ingestion de l'instance dans ses métadonnées Eureka ("load") : tâches en attente dans
+ * les lanes rapportées à ingestion.queue-capacity (0 = au repos, 1 = file pleine, au-delà possible).
+ * La gateway s'en sert pour éviter une instance occupée par une grosse ingestion (voir son load balancer).
+ *
+ * Eureka ne republie l'instance qu'au prochain cycle de réplication (30 s par défaut) : la valeur n'est
+ * remplacée que si elle a changé d'au moins eureka.load-metadata.min-change, pour ne pas ré-enregistrer
+ * l'instance à chaque variation.
+ */
+@Service
+public class EurekaLoadPublisher {
+
+    static final String LOAD_KEY = "load";
+
+    @Autowired
+    private ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    @Autowired
+    private PipelineIngestionExecutor pipelineExecutor;
+
+    @Value("${eureka.load-metadata.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingestion.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${eureka.load-metadata.min-change:0.05}")
+    private double minChange;
+
+    private double published = -1;
+
+    @Scheduled(fixedDelayString = "${eureka.load-metadata.interval-ms:5000}")
+    public void publish() {
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        if (!enabled || manager == null) return;
+        double load = getLoad();
+        if (published >= 0 && Math.abs(load - published) < minChange) return;
+        manager.registerAppMetadata(Map.of(LOAD_KEY, String.format(Locale.ROOT, "%.2f", load)));
+        published = load;
+    }
+
+    public double getLoad() {
+        return pipelineExecutor.getPendingTasks() / (double) Math.max(1, queueCapacity);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.LogCollector.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prévient l'api-gateway qu'un build a été ingéré : POST {gateway.cache-invalidation.url}, qui vide les
+ * réponses en cache des listes et résumés (les logs d'un build terminé restent en cache).
+ *
+ * Les événements sont regroupés : au plus un appel par gateway.cache-invalidation.min-interval-ms, quel que soit
+ * le nombre de builds ingérés entre-temps. L'appel part d'un thread dédié et n'est jamais attendu par l'ingestion ;
+ * une gateway absente n'est signalée qu'une fois.
+ */
+@Service
+public class GatewayCacheNotifier {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${gateway.cache-invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.cache-invalidation.url:http://localhost:8080/gateway/cache/invalidate}")
+    private String invalidateUrl;
+
+    @Value("${gateway.cache-invalidation.token:}")
+    private String token;
+
+    @Value("${gateway.cache-invalidation.min-interval-ms:200}")
+    private long minIntervalMillis;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean gatewayDown;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gateway-cache-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /** Non bloquant : programme une invalidation si aucune n'est déjà en attente. */
+    public void buildIngested() {
+        if (!enabled || !scheduled.compareAndSet(false, true)) return;
+        scheduler.schedule(this::send, minIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void send() {
+        scheduled.set(false);
+        try {
+            String url = invalidateUrl + (token.isEmpty() ? "" : "?token=" + token);
+            restTemplate.postForEntity(url, null, String.class);
+            if (gatewayDown) {
+                gatewayDown = false;
+                System.out.println("✓ Gateway cache invalidation reachable again");
+            }
+        } catch (Exception e) {
+            if (!gatewayDown) {
+                gatewayDown = true;
+                System.err.println("⚠️ Gateway cache invalidation failed (" + invalidateUrl + "): " + e.getMessage());
+            }
+        }
+    }
+}
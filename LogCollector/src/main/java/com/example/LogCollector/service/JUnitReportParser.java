@@ -0,0 +1,174 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.TestStatus;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Lecture en flux (StAX) d'un rapport de tests, un test à la fois : la mémoire ne dépend pas de la taille du
+ * rapport, seules les valeurs utiles sont matérialisées (stdout, stderr et stack traces sont sautés sans être
+ * copiés). Deux formats sont reconnus dans le même document :
+ * <ul>
+ *   <li>API Jenkins {@code testReport/api/xml} : {@code <case>} avec {@code className}, {@code name},
+ *       {@code duration} (secondes), {@code status} (PASSED, FIXED, FAILED, REGRESSION, SKIPPED), {@code errorDetails} ;</li>
+ *   <li>JUnit XML (surefire, archivé) : {@code <testcase classname name time>} avec {@code <failure>},
+ *       {@code <error>} ou {@code <skipped>}.</li>
+ * </ul>
+ * DTD et entités externes désactivées : le rapport vient du workspace du build.
+ */
+public final class JUnitReportParser {
+
+    /** Longueur maximale de className et name (colonnes test_case). */
+    static final int NAME_MAX_CHARS = 512;
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, false);
+    }
+
+    private JUnitReportParser() {}
+
+    /** Un test du rapport ; message null sauf pour un échec. */
+    public record TestCaseResult(String className, String name, TestStatus status, int durationMs, String message) {}
+
+    /**
+     * @param messageMaxChars longueur gardée du message d'échec
+     * @return nombre de tests lus
+     */
+    public static long parse(InputStream in, int messageMaxChars, Consumer<TestCaseResult> sink) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        long count = 0;
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                String element = reader.getLocalName();
+                if ("case".equals(element)) {
+                    sink.accept(readJenkinsCase(reader, messageMaxChars));
+                    count++;
+                } else if ("testcase".equals(element)) {
+                    sink.accept(readJUnitCase(reader, messageMaxChars));
+                    count++;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return count;
+    }
+
+    /** {@code <case>} de l'API Jenkins : les champs sont des éléments enfants. */
+    private static TestCaseResult readJenkinsCase(XMLStreamReader reader, int messageMaxChars) throws XMLStreamException {
+        String className = "";
+        String name = "";
+        String duration = null;
+        String status = null;
+        String message = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) break; // </case>
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+            switch (reader.getLocalName()) {
+                case "className" -> className = text(reader, NAME_MAX_CHARS);
+                case "name" -> name = text(reader, NAME_MAX_CHARS);
+                case "duration" -> duration = text(reader, 32);
+                case "status" -> status = text(reader, 16);
+                case "errorDetails" -> message = text(reader, messageMaxChars);
+                default -> text(reader, 0);
+            }
+        }
+        TestStatus testStatus = jenkinsStatus(status);
+        return new TestCaseResult(className, name, testStatus, durationMillis(duration),
+                testStatus == TestStatus.FAILED ? emptyToNull(message) : null);
+    }
+
+    /** {@code <testcase>} JUnit : nom et durée en attributs, l'issue en éléments enfants. */
+    private static TestCaseResult readJUnitCase(XMLStreamReader reader, int messageMaxChars) throws XMLStreamException {
+        String className = truncate(attribute(reader, "classname"), NAME_MAX_CHARS);
+        String name = truncate(attribute(reader, "name"), NAME_MAX_CHARS);
+        int durationMs = durationMillis(reader.getAttributeValue(null, "time"));
+        TestStatus status = TestStatus.PASSED;
+        String message = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) break; // </testcase>
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+            switch (reader.getLocalName()) {
+                case "failure", "error" -> {
+                    status = TestStatus.FAILED;
+                    String attribute = reader.getAttributeValue(null, "message");
+                    String body = text(reader, attribute != null ? 0 : messageMaxChars);
+                    if (message == null) message = attribute != null ? truncate(attribute, messageMaxChars) : emptyToNull(body);
+                }
+                case "skipped" -> {
+                    if (status != TestStatus.FAILED) status = TestStatus.SKIPPED;
+                    text(reader, 0);
+                }
+                default -> text(reader, 0);
+            }
+        }
+        return new TestCaseResult(className, name, status, durationMs, status == TestStatus.FAILED ? message : null);
+    }
+
+    /**
+     * Texte de l'élément courant, jusqu'à son END_ELEMENT (éléments imbriqués compris), limité à maxChars :
+     * au-delà les caractères sont lus mais pas copiés.
+     */
+    private static String text(XMLStreamReader reader, int maxChars) throws XMLStreamException {
+        StringBuilder text = maxChars > 0 ? new StringBuilder() : null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (text != null && text.length() < maxChars
+                    && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                int length = Math.min(reader.getTextLength(), maxChars - text.length());
+                text.append(reader.getTextCharacters(), reader.getTextStart(), length);
+            }
+        }
+        return text != null ? text.toString().trim() : "";
+    }
+
+    private static TestStatus jenkinsStatus(String status) {
+        if (status == null) return TestStatus.PASSED;
+        return switch (status) {
+            case "FAILED", "REGRESSION" -> TestStatus.FAILED;
+            case "SKIPPED" -> TestStatus.SKIPPED;
+            default -> TestStatus.PASSED; // PASSED, FIXED
+        };
+    }
+
+    /** Durée en secondes ("1.234", "1,234.5") vers des millisecondes ; 0 si absente ou illisible. */
+    static int durationMillis(String seconds) {
+        if (seconds == null || seconds.isBlank()) return 0;
+        try {
+            double millis = Double.parseDouble(seconds.replace(",", "").trim()) * 1000;
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(millis)));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+    private static String truncate(String value, int maxChars) {
+        return value.length() > maxChars ? value.substring(0, maxChars) : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.BackfillCheckpoint;
+import com.example.LogCollector.repository.BackfillCheckpointRepository;
+import com.example.LogCollector.service.JenkinsClient.JenkinsBuildRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Backfill : import de l'historique Jenkins pour les builds que le webhook n'a jamais vus.
+ *
+ * Les jobs et leurs builds sont listés via l'API JSON (tree= pour ne ramener que number/result/building
+ * et les horaires timestamp/duration, transmis tels quels : pas d'appel Jenkins de plus par build),
+ * puis les consoles sont téléchargées en parallèle par backfill.concurrency threads, au plus
+ * backfill.requests-per-second requêtes par seconde, rapports de tests compris. Chaque console repasse par
+ * {@link JenkinsLogService#submitFetchedBuild} : même lane par pipeline, même insertion par lots,
+ * même envoi à l'Analyzer que le webhook.
+ *
+ * Un checkpoint par job (backfill_checkpoint) mémorise le plus grand numéro de build en dessous duquel
+ * tout est ingéré ; après un crash, le crawl reprend au-dessus de ce numéro.
+ */
+@Service
+public class JenkinsBackfillService {
+
+    @Autowired
+    private JenkinsClient jenkinsClient;
+
+    @Autowired
+    private JenkinsLogService jenkinsLogService;
+
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PipelineShardingService shardingService;
+
+    @Value("${backfill.concurrency:4}")
+    private int concurrency;
+
+    @Value("${backfill.requests-per-second:10}")
+    private double requestsPerSecond;
+
+    @Value("${backfill.max-builds-per-job:500}")
+    private int defaultMaxBuildsPerJob;
+
+    @Value("${backfill.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    private final Object lock = new Object();
+    private ExecutorService fetchPool;
+    private Thread coordinator;
+    private volatile boolean stopping;
+
+    // ==================== STATUS ====================
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String lastError;
+    private final AtomicInteger jobsTotal = new AtomicInteger();
+    private final AtomicInteger jobsDone = new AtomicInteger();
+    private final AtomicInteger buildsQueued = new AtomicInteger();
+    private final AtomicInteger buildsIngested = new AtomicInteger();
+    private final AtomicInteger buildsSkipped = new AtomicInteger();
+    private final AtomicInteger buildsFailed = new AtomicInteger();
+
+    /**
+     * Reprend les jobs dont le checkpoint n'est pas terminé (arrêt ou crash pendant un backfill) ;
+     * avec plusieurs Collectors, chacun ne reprend que les jobs dont il est propriétaire.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        if (!resumeOnStartup) return;
+        List<String> unfinished = checkpointRepository.findAll().stream()
+                .filter(checkpoint -> !checkpoint.isCompleted())
+                .map(BackfillCheckpoint::getJobName)
+                .filter(shardingService::isOwner)
+                .collect(Collectors.toList());
+        if (!unfinished.isEmpty()) {
+            System.out.println("🔁 Resuming backfill for " + unfinished.size() + " job(s): " + unfinished);
+            start(unfinished, null);
+        }
+    }
+
+    /**
+     * Lance un backfill en arrière-plan.
+     * @param jobNames jobs à importer, ou null pour tous les jobs de premier niveau
+     * @param maxBuildsPerJob nombre de builds les plus récents à considérer par job (allBuilds{0,N}),
+     *                        null = backfill.max-builds-per-job
+     * @return false si un backfill est déjà en cours
+     */
+    public boolean start(List<String> jobNames, Integer maxBuildsPerJob) {
+        synchronized (lock) {
+            if (isRunning()) return false;
+
+            stopping = false;
+            resetCounters();
+            int maxBuilds = maxBuildsPerJob != null && maxBuildsPerJob > 0 ? maxBuildsPerJob : defaultMaxBuildsPerJob;
+            fetchPool = Executors.newFixedThreadPool(Math.max(1, concurrency));
+            coordinator = new Thread(() -> crawl(jobNames, maxBuilds), "jenkins-backfill");
+            coordinator.setDaemon(true);
+            coordinator.start();
+            return true;
+        }
+    }
+
+    public void stop() {
+        synchronized (lock) {
+            stopping = true;
+            if (fetchPool != null) fetchPool.shutdownNow();
+            if (coordinator != null) coordinator.interrupt();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stop();
+    }
+
+    public boolean isRunning() {
+        return coordinator != null && coordinator.isAlive();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("concurrency", concurrency);
+        status.put("requestsPerSecond", requestsPerSecond);
+        status.put("jobsTotal", jobsTotal.get());
+        status.put("jobsDone", jobsDone.get());
+        status.put("buildsQueued", buildsQueued.get());
+        status.put("buildsIngested", buildsIngested.get());
+        status.put("buildsSkipped", buildsSkipped.get());
+        status.put("buildsFailed", buildsFailed.get());
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    // ==================== CRAWL ====================
+
+    private void crawl(List<String> requestedJobs, int maxBuilds) {
+        RateLimiter rateLimiter = new RateLimiter(requestsPerSecond);
+        List<JobProgress> jobs = new ArrayList<>();
+        try {
+            rateLimiter.acquire();
+            List<String> jobNames = requestedJobs != null ? requestedJobs : jenkinsClient.listJobs();
+            jobsTotal.set(jobNames.size());
+            System.out.println("🚀 Backfill started for " + jobNames.size() + " job(s), max " + maxBuilds + " builds each");
+
+            for (String jobName : jobNames) {
+                if (stopping) break;
+                rateLimiter.acquire();
+                JobProgress progress = planJob(jobName, maxBuilds);
+                jobs.add(progress);
+                for (JenkinsBuildRef build : progress.pending) {
+                    buildsQueued.incrementAndGet();
+                    progress.futures.add(fetchPool.submit(() -> backfillBuild(progress, build, rateLimiter)));
+                }
+                if (progress.pending.isEmpty()) {
+                    progress.finish();
+                }
+            }
+
+            for (JobProgress progress : jobs) {
+                for (Future<?> future : progress.futures) {
+                    future.get();
+                }
+            }
+        } catch (InterruptedException | CancellationException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("⏹️ Backfill stopped");
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            System.err.println("❌ Backfill error: " + e.getMessage());
+        } finally {
+            fetchPool.shutdownNow();
+            finishedAt = LocalDateTime.now();
+            System.out.println("✅ Backfill finished: " + buildsIngested.get() + " ingested, "
+                    + buildsSkipped.get() + " skipped, " + buildsFailed.get() + " failed");
+        }
+    }
+
+    /** Liste l'historique terminé du job et ne garde que les builds au-dessus du checkpoint. */
+    private JobProgress planJob(String jobName, int maxBuilds) throws InterruptedException {
+        BackfillCheckpoint checkpoint = checkpointRepository.findById(jobName)
+                .orElseGet(() -> new BackfillCheckpoint(jobName, 0));
+        checkpoint.setCompleted(false);
+        checkpointRepository.save(checkpoint);
+
+        List<JenkinsBuildRef> pending = new ArrayList<>();
+        for (JenkinsBuildRef build : jenkinsClient.listFinishedBuilds(jobName, maxBuilds)) {
+            if (build.number() <= checkpoint.getLastBuildNumber()) {
+                buildsSkipped.incrementAndGet();
+            } else {
+                pending.add(build);
+            }
+        }
+        System.out.println("📋 Backfill " + jobName + ": " + pending.size() + " build(s) after #"
+                + checkpoint.getLastBuildNumber());
+        return new JobProgress(checkpoint, pending);
+    }
+
+    private void backfillBuild(JobProgress progress, JenkinsBuildRef build, RateLimiter rateLimiter) {
+        if (stopping) return;
+        String jobName = progress.checkpoint.getJobName();
+        try {
+            // déjà ingéré (webhook, backfill interrompu avant son checkpoint) : pas de téléchargement
+            if (jenkinsLogService.isStored(jobName, build.number())) {
+                buildsSkipped.incrementAndGet();
+                progress.markDone(build.number());
+                return;
+            }
+            rateLimiter.acquire();
+            String consoleLogs = jenkinsClient.fetchConsoleText(jobName, build.number());
+            jenkinsLogService.submitFetchedBuild(jobName, build.number(), build.result(), consoleLogs, build.timing(),
+                    "Jenkins Backfill", rateLimiter)
+                    .get();
+            buildsIngested.incrementAndGet();
+            progress.markDone(build.number());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // le checkpoint ne dépasse pas ce build : il sera retenté au prochain backfill
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            buildsFailed.incrementAndGet();
+            lastError = jobName + " #" + build.number() + ": " + cause.getMessage();
+            System.err.println("❌ Backfill failed for " + lastError);
+        }
+    }
+
+    private void resetCounters() {
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        lastError = null;
+        jobsTotal.set(0);
+        jobsDone.set(0);
+        buildsQueued.set(0);
+        buildsIngested.set(0);
+        buildsSkipped.set(0);
+        buildsFailed.set(0);
+    }
+
+    /**
+     * Avancement d'un job. Les consoles se terminent dans le désordre : le checkpoint n'avance que sur le
+     * préfixe contigu de builds ingérés, pour qu'une reprise ne saute jamais un build manquant.
+     */
+    private final class JobProgress {
+
+        final BackfillCheckpoint checkpoint;
+        final List<JenkinsBuildRef> pending;
+        final List<Future<?>> futures = new ArrayList<>();
+        private final Deque<Integer> remaining = new ArrayDeque<>();
+        private final Set<Integer> done = new HashSet<>();
+
+        JobProgress(BackfillCheckpoint checkpoint, List<JenkinsBuildRef> pending) {
+            this.checkpoint = checkpoint;
+            this.pending = pending;
+            pending.forEach(build -> remaining.add(build.number()));
+        }
+
+        synchronized void markDone(int buildNumber) {
+            done.add(buildNumber);
+            int watermark = checkpoint.getLastBuildNumber();
+            while (!remaining.isEmpty() && done.remove(remaining.peekFirst())) {
+                watermark = remaining.pollFirst();
+            }
+            if (watermark != checkpoint.getLastBuildNumber()) {
+                checkpoint.setLastBuildNumber(watermark);
+                if (remaining.isEmpty()) {
+                    finish();
+                } else {
+                    checkpointRepository.save(checkpoint);
+                }
+            }
+        }
+
+        synchronized void finish() {
+            checkpoint.setCompleted(true);
+            checkpointRepository.save(checkpoint);
+            jobsDone.incrementAndGet();
+        }
+    }
+}
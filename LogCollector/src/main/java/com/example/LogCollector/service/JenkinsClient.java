@@ -0,0 +1,213 @@
+package com.example.LogCollector.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Accès HTTP à Jenkins (console et API JSON), partagé par le webhook et le backfill.
+ * Toutes les requêtes passent par le même sémaphore jenkins.max-concurrent-requests.
+ */
+@Component
+public class JenkinsClient {
+
+    /** Champs utiles du rapport de tests : Jenkins n'envoie ni stdout, ni stderr, ni stack traces. */
+    private static final String TEST_REPORT_TREE = "suites[cases[className,name,duration,status,errorDetails]]";
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jenkins.url}")
+    private String jenkinsUrl;
+
+    @Value("${jenkins.username}")
+    private String jenkinsUsername;
+
+    @Value("${jenkins.api-key}")
+    private String jenkinsApiKey;
+
+    @Value("${jenkins.max-concurrent-requests:32}")
+    private int jenkinsMaxConcurrentRequests;
+
+    private Semaphore jenkinsPermits;
+
+    @PostConstruct
+    void initJenkinsPermits() {
+        jenkinsPermits = new Semaphore(jenkinsMaxConcurrentRequests);
+    }
+
+    public String getJobUrl(String jobName) {
+        return jenkinsUrl + "/job/" + jobName;
+    }
+
+    private String jobPath(String jobName) {
+        return jenkinsUrl + "/job/" + UriUtils.encodePathSegment(jobName, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * GET consoleText. En threads virtuels le nombre de workers n'est plus une limite,
+     * c'est le sémaphore qui protège Jenkins.
+     */
+    public String fetchConsoleText(String jobName, Integer buildNumber) throws InterruptedException {
+        String body = get(jobPath(jobName) + "/" + buildNumber + "/consoleText");
+        return body != null ? body : "";
+    }
+
+    /**
+     * Rapport de tests du build lu en flux : GET /job/{name}/{n}/testReport/api/xml.
+     * @return false si le build n'a pas de rapport (404)
+     */
+    public boolean streamTestReport(String jobName, Integer buildNumber, BodyReader reader) throws InterruptedException {
+        return stream(jobPath(jobName) + "/" + buildNumber + "/testReport/api/xml?tree=" + TEST_REPORT_TREE, reader);
+    }
+
+    /**
+     * Artefact archivé du build lu en flux : GET /job/{name}/{n}/artifact/{path}.
+     * @return false si l'artefact n'existe pas (404)
+     */
+    public boolean streamArtifact(String jobName, Integer buildNumber, String path, BodyReader reader) throws InterruptedException {
+        return stream(jobPath(jobName) + "/" + buildNumber + "/artifact/" + path, reader);
+    }
+
+    /** Noms des jobs de premier niveau : GET /api/json?tree=jobs[name] */
+    public List<String> listJobs() throws InterruptedException {
+        List<String> jobs = new ArrayList<>();
+        for (JsonNode job : getJson(jenkinsUrl + "/api/json?tree=jobs[name]").path("jobs")) {
+            jobs.add(job.path("name").asText());
+        }
+        return jobs;
+    }
+
+    /**
+     * Historique terminé d'un job, du plus ancien au plus récent, avec les horaires de chaque build :
+     * GET /job/{name}/api/json?tree=allBuilds[number,result,building,timestamp,duration]{0,max}
+     */
+    public List<JenkinsBuildRef> listFinishedBuilds(String jobName, int maxBuilds) throws InterruptedException {
+        String url = jobPath(jobName) + "/api/json?tree=allBuilds[number,result,building,timestamp,duration]{0," + maxBuilds + "}";
+        List<JenkinsBuildRef> builds = new ArrayList<>();
+        for (JsonNode build : getJson(url).path("allBuilds")) {
+            if (build.path("building").asBoolean(false)) continue;
+            String result = build.hasNonNull("result") ? build.get("result").asText() : null;
+            builds.add(new JenkinsBuildRef(build.path("number").asInt(), result, timing(build)));
+        }
+        builds.sort((a, b) -> Integer.compare(a.number(), b.number()));
+        return builds;
+    }
+
+    /**
+     * Horaires du build d'après Jenkins : GET /job/{name}/{n}/api/json?tree=timestamp,duration,building.
+     * @return null si Jenkins ne donne pas de timestamp ; endTime null tant que le build tourne
+     */
+    public JenkinsBuildTiming fetchBuildTiming(String jobName, Integer buildNumber) throws InterruptedException {
+        return timing(getJson(jobPath(jobName) + "/" + buildNumber + "/api/json?tree=timestamp,duration,building"));
+    }
+
+    private static JenkinsBuildTiming timing(JsonNode build) {
+        if (!build.hasNonNull("timestamp")) return null;
+        long startMillis = build.get("timestamp").asLong();
+        boolean building = build.path("building").asBoolean(false);
+        return new JenkinsBuildTiming(toLocalDateTime(startMillis),
+                building ? null : toLocalDateTime(startMillis + build.path("duration").asLong(0)));
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private JsonNode getJson(String url) throws InterruptedException {
+        try {
+            String body = get(url);
+            return objectMapper.readTree(body != null ? body : "{}");
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid Jenkins JSON from " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String get(String url) throws InterruptedException {
+        URI uri = toUri(url);
+        HttpEntity<String> entity = new HttpEntity<>(createAuthHeaders());
+        jenkinsPermits.acquire();
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.GET, entity, String.class);
+            return response.getBody();
+        } finally {
+            jenkinsPermits.release();
+        }
+    }
+
+    /** Le corps est passé au reader sans être chargé en mémoire ; le permis Jenkins est gardé pendant la lecture. */
+    private boolean stream(String url, BodyReader reader) throws InterruptedException {
+        URI uri = toUri(url);
+        jenkinsPermits.acquire();
+        try {
+            return Boolean.TRUE.equals(restTemplate.execute(uri, HttpMethod.GET,
+                    request -> request.getHeaders().putAll(createAuthHeaders()),
+                    response -> {
+                        try (InputStream body = response.getBody()) {
+                            reader.read(body);
+                        } catch (IOException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new IOException("Invalid Jenkins response from " + url + ": " + e.getMessage(), e);
+                        }
+                        return true;
+                    }));
+        } catch (HttpClientErrorException.NotFound e) {
+            return false;
+        } finally {
+            jenkinsPermits.release();
+        }
+    }
+
+    /** Les paramètres tree= contiennent [ ] { } : on les encode et on passe une URI pour éviter l'expansion de template. */
+    private static URI toUri(String url) {
+        return URI.create(url.replace("[", "%5B").replace("]", "%5D").replace("{", "%7B").replace("}", "%7D"));
+    }
+
+    private HttpHeaders createAuthHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        String auth = jenkinsUsername + ":" + jenkinsApiKey;
+        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        headers.set("Authorization", "Basic " + encodedAuth);
+        return headers;
+    }
+
+    /** Build vu par l'API Jenkins : numéro, résultat (SUCCESS, FAILURE, UNSTABLE, ABORTED ou null) et horaires (ou null). */
+    public record JenkinsBuildRef(int number, String result, JenkinsBuildTiming timing) {}
+
+    /** Début et fin réels du build (heure locale du Collector) ; endTime null pour un build en cours. */
+    public record JenkinsBuildTiming(LocalDateTime startTime, LocalDateTime endTime) {}
+
+    /** Lecture d'un corps de réponse en flux. */
+    @FunctionalInterface
+    public interface BodyReader {
+        void read(InputStream body) throws Exception;
+    }
+}
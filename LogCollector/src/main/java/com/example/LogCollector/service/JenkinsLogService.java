@@ -3,22 +3,23 @@ package com.example.LogCollector.service;
 import com.example.LogCollector.Entity.*;
 import com.example.LogCollector.dto.*;
 import com.example.LogCollector.repository.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,55 +38,82 @@ public class JenkinsLogService {
     private RestTemplate restTemplate;
 
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private JenkinsClient jenkinsClient;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private LogBatchRepository logBatchRepository;
 
-    @Value("${jenkins.url}")
-    private String jenkinsUrl;
+    @Autowired
+    private LogBlockStore logBlockStore;
+
+    @Autowired
+    private PipelineIngestionExecutor pipelineExecutor;
+
+    @Autowired
+    private PipelineRegistry pipelineRegistry;
 
-    @Value("${jenkins.username}")
-    private String jenkinsUsername;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-    @Value("${jenkins.api-key}")
-    private String jenkinsApiKey;
+    @Autowired
+    private TestReportService testReportService;
 
-    @Value("${kafka.topic.name:jenkins-logs}")
-    private String kafkaTopic;
+    @Autowired
+    private GatewayCacheNotifier gatewayCacheNotifier;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private RecentBuildCache recentBuildCache;
+
+    @Value("${ingestion.timeout-seconds:120}")
+    private long ingestionTimeoutSeconds;
 
     /**
-     * Webhook collection - Called when Jenkins sends build info
+     * Webhook collection - Called when Jenkins sends build info.
+     * L'ingestion tourne sur les workers "ingestionExecutor" (threads virtuels en profil virtual-threads),
+     * le thread HTTP attend seulement le résultat.
      */
-public BuildDTO collectAndSaveLogs(String jobName, Integer buildNumber, String buildStatus) {
-    try {
+    public BuildDTO collectAndSaveLogs(String jobName, Integer buildNumber, String buildStatus) {
+        CompletableFuture<BuildDTO> future = pipelineExecutor.submit(jobName,
+                () -> ingestBuild(jobName, buildNumber, buildStatus));
+        try {
+            return future.get(ingestionTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("❌ Error collecting logs: " + cause.getMessage());
+            cause.printStackTrace();
+            throw new RuntimeException("Failed to collect Jenkins log: " + cause.getMessage());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("Failed to collect Jenkins log: ingestion timed out after "
+                    + ingestionTimeoutSeconds + "s");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to collect Jenkins log: interrupted");
+        }
+    }
+
+    /**
+     * Ingestion d'un build, toujours exécutée dans la lane de son pipeline (jamais deux builds du même job
+     * en parallèle). Les transactions (et donc les connexions JDBC) ne couvrent que l'accès base :
+     * le téléchargement du console Jenkins se fait hors transaction.
+     */
+    private BuildDTO ingestBuild(String jobName, Integer buildNumber, String buildStatus) throws InterruptedException {
         System.out.println("🔄 Starting log collection for job: " + jobName + " #" + buildNumber);
 
-        // 1️⃣ Vérifier ou créer le pipeline
-        Pipeline pipeline = pipelineRepository.findByName(jobName)
-                .orElseGet(() -> {
-                    Pipeline newPipeline = new Pipeline(jobName, jenkinsUrl + "/job/" + jobName);
-                    return pipelineRepository.save(newPipeline);
-                });
-        System.out.println("✓ Pipeline ID: " + pipeline.getId());
-
-        // 2️⃣ Vérifier si le build existe déjà
-        Optional<Build> existingBuild = buildRepository.findByPipelineAndBuildNumber(pipeline, buildNumber);
-        if (existingBuild.isPresent()) {
-            System.out.println("⚠️ Build #" + buildNumber + " already exists, skipping");
-
-            // Forcer le chargement des logs pour le DTO
-            Build existing = existingBuild.get();
-            existing.getLogs().size();
-            return convertBuildToDTO(existing);
+        // 1️⃣ Vérifier ou créer le pipeline (upsert + cache), 2️⃣ vérifier si le build existe déjà
+        Long pipelineId = pipelineRegistry.resolveId(jobName, jenkinsClient.getJobUrl(jobName));
+        System.out.println("✓ Pipeline ID: " + pipelineId);
+
+        BuildDTO existingDTO = findExisting(pipelineId, buildNumber);
+        if (existingDTO != null) {
+            return completeRunningBuild(jobName, pipelineId, existingDTO, buildStatus);
         }
 
-        // 3️⃣ Récupérer les logs Jenkins
-        String consoleUrl = jenkinsUrl + "/job/" + jobName + "/" + buildNumber + "/consoleText";
-        HttpHeaders headers = createAuthHeaders();
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<String> consoleResponse = restTemplate.exchange(consoleUrl, HttpMethod.GET, entity, String.class);
-        String consoleLogs = consoleResponse.getBody();
+        // 3️⃣ Récupérer les logs Jenkins (hors transaction)
+        String consoleLogs = jenkinsClient.fetchConsoleText(jobName, buildNumber);
         System.out.println("✓ Console logs retrieved, size: " + consoleLogs.length());
 
         // 4️⃣ Déterminer le status final
@@ -93,39 +121,169 @@ public BuildDTO collectAndSaveLogs(String jobName, Integer buildNumber, String b
                 ? parseBuildStatus(consoleLogs)
                 : BuildStatus.valueOf(buildStatus);
 
-        // 5️⃣ Créer et sauvegarder le build
-        Build build = new Build(pipeline, buildNumber, finalStatus);
-        build.setTriggeredBy("Jenkins Webhook");
-        build.setCreatedAt(LocalDateTime.now());
-        Build savedBuild = buildRepository.save(build);
+        // Horaires réels du build (Jenkins), envoyés à l'Analyzer pour ses durées (hors transaction)
+        JenkinsClient.JenkinsBuildTiming timing = fetchTiming(jobName, buildNumber);
 
-        // 6️⃣ Sauvegarder les logs associés
-        parseLogs(savedBuild, consoleLogs);
+        return persistAndPublish(jobName, pipelineId, buildNumber, finalStatus, consoleLogs, timing, "Jenkins Webhook", null);
+    }
 
-        // 6.1️⃣ Forcer Hibernate à charger les logs
-        Build buildWithLogs = buildRepository.findById(savedBuild.getId())
-                .orElseThrow(() -> new RuntimeException("Build non trouvé après sauvegarde"));
-        buildWithLogs.getLogs().size(); // force fetch
+    /**
+     * Build historique déjà téléchargé (backfill) : même lane et même chemin de persistance que le webhook,
+     * donc même dédoublonnage et même ordre d'envoi à l'Analyzer. Les horaires viennent de la liste des builds
+     * (aucun appel Jenkins de plus par build) ; le rapport de tests est lu sous le jenkinsLimiter de l'appelant.
+     */
+    public CompletableFuture<BuildDTO> submitFetchedBuild(String jobName, Integer buildNumber, String buildStatus,
+                                                          String consoleLogs, JenkinsClient.JenkinsBuildTiming timing,
+                                                          String triggeredBy, RateLimiter jenkinsLimiter) {
+        return pipelineExecutor.submit(jobName, () -> {
+            Long pipelineId = pipelineRegistry.resolveId(jobName, jenkinsClient.getJobUrl(jobName));
+            BuildDTO existingDTO = findExisting(pipelineId, buildNumber);
+            if (existingDTO != null) {
+                return existingDTO;
+            }
+            BuildStatus finalStatus = (buildStatus == null || buildStatus.equals("null"))
+                    ? parseBuildStatus(consoleLogs)
+                    : parseBuildStatusName(buildStatus, consoleLogs);
+            return persistAndPublish(jobName, pipelineId, buildNumber, finalStatus, consoleLogs, timing, triggeredBy, jenkinsLimiter);
+        });
+    }
 
-        System.out.println("✓ Build saved with ID: " + buildWithLogs.getId());
+    /** Build déjà en base : le backfill ne télécharge pas son console (submitFetchedBuild dédoublonne encore). */
+    public boolean isStored(String jobName, Integer buildNumber) {
+        Long pipelineId = pipelineRegistry.resolveId(jobName, jenkinsClient.getJobUrl(jobName));
+        return buildRepository.existsByPipelineIdAndBuildNumber(pipelineId, buildNumber);
+    }
 
-        // 7️⃣ Convertir en DTO
-        BuildDTO buildDTO = convertBuildToDTO(buildWithLogs);
-        System.out.println("DEBUG: Logs dans BuildDTO avant envoi à Analyzer : " + buildDTO.getLogs().size());
+    /**
+     * Webhook de fin d'un build ingéré pendant son exécution (RUNNING) : le statut final est enregistré avec
+     * son événement BUILD_STATUS_CHANGED dans la même transaction. Les logs restent ceux de la première ingestion.
+     * Le build terminé (statut et horaires, sans logs) est renvoyé à l'Analyzer pour ses stats flaky et durées.
+     */
+    private BuildDTO completeRunningBuild(String jobName, Long pipelineId, BuildDTO existingDTO, String buildStatus)
+            throws InterruptedException {
+        if (buildStatus == null || buildStatus.equals("null") || !BuildStatus.RUNNING.name().equals(existingDTO.getStatus())) {
+            return existingDTO;
+        }
+        BuildStatus finalStatus = BuildStatus.valueOf(buildStatus);
+        if (finalStatus == BuildStatus.RUNNING) {
+            return existingDTO;
+        }
 
-        // 8️⃣ Envoyer automatiquement à Analyzer
-        sendToAnalyzer(buildDTO);
+        // fin réelle d'après Jenkins (hors transaction), sinon l'heure du webhook
+        JenkinsClient.JenkinsBuildTiming timing = fetchTiming(jobName, existingDTO.getBuildNumber());
+
+        BuildDTO updatedDTO = transactionTemplate.execute(status -> {
+            Build build = buildRepository.findById(existingDTO.getId()).orElse(null);
+            if (build == null || build.getStatus() != BuildStatus.RUNNING) return null;
+            build.setStatus(finalStatus);
+            if (timing != null) build.setStartTime(timing.startTime());
+            build.setEndTime(timing != null && timing.endTime() != null ? timing.endTime() : LocalDateTime.now());
+            BuildDTO dto = convertBuildToDTO(buildRepository.saveAndFlush(build));
+            outboxService.statusChanged(jobName, dto, BuildStatus.RUNNING.name());
+            return dto;
+        });
+        if (updatedDTO == null) {
+            return existingDTO;
+        }
+        System.out.println("✓ Build #" + existingDTO.getBuildNumber() + " finished: " + finalStatus);
+        recentBuildCache.statusChanged(updatedDTO);
+
+        // même lane que la première ingestion : l'Analyzer reçoit le build RUNNING avant sa fin
+        BuildDTO finishedDTO = withoutLogs(updatedDTO);
+        pipelineExecutor.execute(jobName, () -> {
+            sendToAnalyzer(finishedDTO);
+            gatewayCacheNotifier.buildIngested();
+        });
+        if (testReportService.isEnabled()) {
+            pipelineExecutor.execute(jobName, () -> {
+                testReportService.ingest(jobName, pipelineId, updatedDTO.getId(), updatedDTO.getBuildNumber());
+                gatewayCacheNotifier.buildIngested();
+            });
+        }
+        return updatedDTO;
+    }
 
-        System.out.println("✅ Log collection and Analyzer push completed");
+    /** Statut et horaires seuls : l'Analyzer a déjà les lignes envoyées à la première ingestion. */
+    private static BuildDTO withoutLogs(BuildDTO build) {
+        return new BuildDTO(build.getId(), build.getBuildNumber(), build.getStatus(), build.getStartTime(),
+                build.getEndTime(), build.getDuration(), build.getTriggeredBy(), build.getPipelineId(),
+                build.getCreatedAt(), List.of());
+    }
 
-        return buildDTO;
+    /** Horaires Jenkins du build, null si l'API ne répond pas : le build garde alors l'heure d'ingestion, sans fin. */
+    private JenkinsClient.JenkinsBuildTiming fetchTiming(String jobName, Integer buildNumber) throws InterruptedException {
+        try {
+            return jenkinsClient.fetchBuildTiming(jobName, buildNumber);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("⚠️ Jenkins timing unavailable for " + jobName + " #" + buildNumber + ": " + e.getMessage());
+            return null;
+        }
+    }
 
-    } catch (Exception e) {
-        System.err.println("❌ Error collecting logs: " + e.getMessage());
-        e.printStackTrace();
-        throw new RuntimeException("Failed to collect Jenkins log: " + e.getMessage());
+    private BuildDTO findExisting(Long pipelineId, Integer buildNumber) {
+        return transactionTemplate.execute(status ->
+                buildRepository.findByPipelineAndBuildNumber(pipelineRepository.getReferenceById(pipelineId), buildNumber)
+                        .map(existing -> {
+                            System.out.println("⚠️ Build #" + buildNumber + " already exists, skipping");
+                            return convertBuildToDTO(existing);
+                        })
+                        .orElse(null));
+    }
+
+    private BuildDTO persistAndPublish(String jobName, Long pipelineId, Integer buildNumber, BuildStatus finalStatus,
+                                       String consoleLogs, JenkinsClient.JenkinsBuildTiming timing,
+                                       String triggeredBy, RateLimiter jenkinsLimiter) {
+        // 5️⃣ Créer et sauvegarder le build, 6️⃣ ses logs, 7️⃣ convertir en DTO
+        BuildDTO buildDTO;
+        try {
+            buildDTO = transactionTemplate.execute(status -> {
+                Build build = new Build(pipelineRepository.getReferenceById(pipelineId), buildNumber, finalStatus);
+                build.setTriggeredBy(triggeredBy);
+                build.setCreatedAt(LocalDateTime.now());
+                if (timing != null) {
+                    build.setStartTime(timing.startTime());
+                    build.setEndTime(timing.endTime());
+                }
+                Build savedBuild = buildRepository.save(build);
+
+                List<Log> savedLogs = parseLogs(savedBuild, consoleLogs);
+                System.out.println("✓ Build saved with ID: " + savedBuild.getId());
+                BuildDTO savedDTO = convertBuildToDTO(savedBuild, savedLogs);
+                // événement Kafka dans la même transaction (outbox), publié par OutboxService
+                outboxService.buildIngested(jobName, savedDTO);
+                // lignes parsées ci-dessus, sans relecture -> cache des derniers builds, après le commit
+                recentBuildCache.ingested(savedDTO, toColumnarLogs(savedLogs));
+                return savedDTO;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // une autre instance (changement de propriétaire du pipeline en cours) l'a enregistré entre-temps :
+            // uk_build_pipeline_number a rejeté ce doublon, la sienne fait foi et a déjà été publiée
+            BuildDTO existingDTO = findExisting(pipelineId, buildNumber);
+            if (existingDTO == null) throw e;
+            return existingDTO;
+        }
+
+        // 8️⃣ Envoyer à Analyzer sans bloquer la réponse du webhook, dans la lane du pipeline
+        //     pour que l'Analyzer reçoive les builds d'un même job dans l'ordre
+        //     puis invalider le cache de l'api-gateway une fois l'Analyzer à jour
+        pipelineExecutor.execute(jobName, () -> {
+            sendToAnalyzer(buildDTO);
+            gatewayCacheNotifier.buildIngested();
+        });
+
+        // 9️⃣ Rapport de tests Jenkins, lu en flux après le push et toujours dans l'ordre des builds du job
+        if (testReportService.isEnabled() && finalStatus != BuildStatus.RUNNING) {
+            pipelineExecutor.execute(jobName, () -> {
+                testReportService.ingest(jobName, pipelineId, buildDTO.getId(), buildNumber, jenkinsLimiter);
+                gatewayCacheNotifier.buildIngested();
+            });
+        }
+
+        System.out.println("✅ Log collection completed, Analyzer push scheduled");
+        return buildDTO;
     }
-}
 
 
 public void sendToAnalyzer(BuildDTO build) {
@@ -137,8 +295,9 @@ public void sendToAnalyzer(BuildDTO build) {
     buildMap.put("buildNumber", build.getBuildNumber());
     buildMap.put("status", build.getStatus());
     buildMap.put("triggeredBy", build.getTriggeredBy());
-    buildMap.put("startTime", build.getStartTime());
-    buildMap.put("endTime", build.getEndTime());
+    // Dates ISO-8601 : le convertisseur Jackson du RestTemplate écrirait des tableaux [2024,5,17,...]
+    buildMap.put("startTime", build.getStartTime() != null ? build.getStartTime().toString() : null);
+    buildMap.put("endTime", build.getEndTime() != null ? build.getEndTime().toString() : null);
 
     // Transformation explicite des logs en Map
     List<Map<String, Object>> logMaps = new ArrayList<>();
@@ -158,11 +317,7 @@ public void sendToAnalyzer(BuildDTO build) {
     dataList.add(buildMap);
     dto.setData(dataList);
 
-    // DEBUG
-    System.out.println("DEBUG: DTO ready to send: " + dto.getData());
-
-    // Envoi
-    RestTemplate restTemplate = new RestTemplate();
+    // Envoi (RestTemplate partagé : pool de connexions et timeouts configurés)
     try {
         restTemplate.postForEntity("http://localhost:8082/api/analyzer/builds/analyze", dto, Map.class);
         System.out.println("✅ Build envoyé à Analyzer : " + build.getBuildNumber());
@@ -183,8 +338,8 @@ public BuildMessageDTO convertToBuildMessageDTO(BuildDTO build) {
     buildMap.put("buildNumber", build.getBuildNumber());
     buildMap.put("status", build.getStatus());
     buildMap.put("triggeredBy", build.getTriggeredBy());
-    buildMap.put("startTime", build.getStartTime());
-    buildMap.put("endTime", build.getEndTime());
+    buildMap.put("startTime", build.getStartTime() != null ? build.getStartTime().toString() : null);
+    buildMap.put("endTime", build.getEndTime() != null ? build.getEndTime().toString() : null);
 List<Map<String, Object>> logMaps = new ArrayList<>();
 if (build.getLogs() != null) {
     for (LogDTO log : build.getLogs()) {
@@ -207,27 +362,29 @@ buildMap.put("logs", logMaps);
 
 
 
-private void parseLogs(Build build, String consoleLogs) {
+/** Lignes du console enregistrées pour le build, dans l'ordre du console (ids renseignés en format "log"). */
+private List<Log> parseLogs(Build build, String consoleLogs) {
     String[] lines = consoleLogs.split("\n");
     List<Log> logsToAdd = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
     for (String line : lines) {
         if (line.trim().isEmpty()) continue;
         LogLevel level = determineLogLevel(line);
         Log logEntry = new Log(build, level, line);
-        logRepository.save(logEntry); // <-- sauvegarde individuelle
-
+        logEntry.setCreatedAt(now);
         logsToAdd.add(logEntry);
     }
 
-    if (build.getLogs() == null) {
-        build.setLogs(new ArrayList<>());
+    if (logBlockStore.isEnabled()) {
+        // Blocs compressés (logs.storage.format=blocks)
+        logBlockStore.write(build, logsToAdd);
+    } else {
+        // INSERT JDBC par lots (ingestion.log-batch-size) au lieu d'un save() par ligne
+        logBatchRepository.insertAll(build.getId(), logsToAdd);
     }
-    build.getLogs().addAll(logsToAdd);
-
-    // ⚠️ Assurer que build est resauvegardé pour mettre à jour la collection
-    buildRepository.save(build);
 
     System.out.println("✓ Saved " + logsToAdd.size() + " log entries for build #" + build.getBuildNumber());
+    return logsToAdd;
 }
 
 
@@ -256,16 +413,19 @@ private void parseLogs(Build build, String consoleLogs) {
         return BuildStatus.UNKNOWN;
     }
 
-    private HttpHeaders createAuthHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        String auth = jenkinsUsername + ":" + jenkinsApiKey;
-        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-        headers.set("Authorization", "Basic " + encodedAuth);
-        return headers;
+    /** Résultat Jenkins (API JSON) -> BuildStatus ; ABORTED / NOT_BUILT retombent sur le console. */
+    private BuildStatus parseBuildStatusName(String result, String consoleLogs) {
+        try {
+            return BuildStatus.valueOf(result);
+        } catch (IllegalArgumentException e) {
+            return parseBuildStatus(consoleLogs);
+        }
     }
 
     // ==================== BASIC GETTERS ====================
+    // Lectures en readOnly : servies par le réplica s'il est configuré (voir ReadWriteRoutingDataSource)
 
+    @Transactional(readOnly = true)
     public List<PipelineDTO> getAllPipelines() {
         return pipelineRepository.findAll()
                 .stream()
@@ -273,18 +433,21 @@ private void parseLogs(Build build, String consoleLogs) {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public PipelineDTO getPipelineById(Long id) {
         return pipelineRepository.findById(id)
                 .map(this::convertPipelineToDTO)
                 .orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public PipelineDTO getPipelineByName(String name) {
         return pipelineRepository.findByName(name)
                 .map(this::convertPipelineToDTO)
                 .orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public List<BuildDTO> getBuildsByPipeline(Long pipelineId) {
         Pipeline pipeline = pipelineRepository.findById(pipelineId).orElse(null);
         if (pipeline == null) return new ArrayList<>();
@@ -294,24 +457,37 @@ private void parseLogs(Build build, String consoleLogs) {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public BuildDTO getBuildById(Long buildId) {
         return buildRepository.findById(buildId)
                 .map(this::convertBuildToDTO)
                 .orElse(null);
     }
 
+    /** Build présent et terminé (pas RUNNING) : ses réponses peuvent être mises en cache. */
+    @Transactional(readOnly = true)
+    public boolean isBuildFinished(Long buildId) {
+        return buildRepository.findStatusById(buildId)
+                .map(status -> status != BuildStatus.RUNNING)
+                .orElse(false);
+    }
+
+    /** Logs d'un build, null si le build n'existe pas (404, pas de liste vide mise en cache). */
+    @Transactional(readOnly = true)
     public List<LogDTO> getLogsByBuild(Long buildId) {
         Build build = buildRepository.findById(buildId).orElse(null);
-        if (build == null) return new ArrayList<>();
+        if (build == null) return null;
         return logRepository.findByBuildOrderByCreatedAtDesc(build)
                 .stream()
                 .map(this::convertLogToDTO)
                 .collect(Collectors.toList());
     }
 
+    /** Logs ERROR d'un build, null si le build n'existe pas. */
+    @Transactional(readOnly = true)
     public List<LogDTO> getErrorLogsByBuild(Long buildId) {
         Build build = buildRepository.findById(buildId).orElse(null);
-        if (build == null) return new ArrayList<>();
+        if (build == null) return null;
         return logRepository.findByBuildAndLogLevel(build, LogLevel.ERROR)
                 .stream()
                 .map(this::convertLogToDTO)
@@ -324,6 +500,7 @@ private void parseLogs(Build build, String consoleLogs) {
      * 1️⃣ آخر Pipeline مع الـ builds (بدون logs)
      * GET /api/jenkins-logs/smart/pipeline/last-summary
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getLastPipelineSummary() {
         try {
             System.out.println("📊 Fetching last pipeline summary...");
@@ -342,11 +519,7 @@ private void parseLogs(Build build, String consoleLogs) {
 
             List<BuildDTO> builds = buildRepository.findByPipelineOrderByCreatedAtDesc(lastPipeline)
                     .stream()
-                    .map(build -> {
-                        BuildDTO dto = convertBuildToDTO(build);
-                        dto.setLogs(null);
-                        return dto;
-                    })
+                    .map(this::convertBuildHeaderToDTO)
                     .collect(Collectors.toList());
 
             System.out.println("✓ Found " + builds.size() + " builds");
@@ -359,14 +532,6 @@ private void parseLogs(Build build, String consoleLogs) {
             result.put("data", pipelineDTO);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "last_pipeline_summary",
-                        objectMapper.writeValueAsString(result));
-                System.out.println("✅ Sent to Kafka: last_pipeline_summary");
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             System.out.println("✅ getLastPipelineSummary completed successfully");
             return result;
         } catch (Exception e) {
@@ -380,55 +545,36 @@ private void parseLogs(Build build, String consoleLogs) {
      * 2️⃣ آخر Build مع logs المهمة (ERROR, WARN) + Pipeline info
      * GET /api/jenkins-logs/smart/build/last-important
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getLastBuildWithImportantLogs() {
         try {
             System.out.println("📊 Fetching last build with important logs...");
 
-            Build lastBuild = buildRepository.findFirstByOrderByCreatedAtDesc()
-                    .orElse(null);
-
-            if (lastBuild == null) {
+            Long lastBuildId = buildRepository.findLatestId().orElse(null);
+            if (lastBuildId == null) {
                 System.out.println("❌ No builds found");
                 return Map.of("status", "error", "message", "No builds found");
             }
 
-            System.out.println("✓ Found last build: #" + lastBuild.getBuildNumber());
+            RecentBuildCache.RecentBuild recent = recentBuild(lastBuildId);
+            System.out.println("✓ Found last build: #" + recent.buildNumber());
 
-            BuildDTO buildDTO = convertBuildToDTO(lastBuild);
+            RecentBuildCache.BuildView buildView = recent.view(ColumnarBuildLogs.mask(LogLevel.ERROR, LogLevel.WARN));
+            System.out.println("✓ Found " + buildView.getLogCount() + " important logs");
 
-            List<LogDTO> importantLogs = logRepository.findByBuild(lastBuild)
-                    .stream()
-                    .filter(log -> log.getLogLevel() == LogLevel.ERROR ||
-                            log.getLogLevel() == LogLevel.WARN)
-                    .map(this::convertLogToDTO)
-                    .collect(Collectors.toList());
-
-            System.out.println("✓ Found " + importantLogs.size() + " important logs");
-
-            buildDTO.setLogs(importantLogs);
-            buildDTO.setLogCount(importantLogs.size());
-
-            Pipeline pipeline = lastBuild.getPipeline();
+            Pipeline pipeline = pipelineRepository.getReferenceById(recent.pipelineId());
             Map<String, Object> pipelineInfo = Map.of(
                     "id", pipeline.getId(),
                     "name", pipeline.getName(),
-                    "totalBuilds", buildRepository.findByPipeline(pipeline).size()
+                    "totalBuilds", buildRepository.countByPipelineId(pipeline.getId())
             );
 
             Map<String, Object> result = new HashMap<>();
             result.put("status", "success");
             result.put("pipeline", pipelineInfo);
-            result.put("data", buildDTO);
+            result.put("data", buildView);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "last_build",
-                        objectMapper.writeValueAsString(result));
-                System.out.println("✅ Sent to Kafka: last_build_important");
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             System.out.println("✅ getLastBuildWithImportantLogs completed successfully");
             return result;
         } catch (Exception e) {
@@ -442,6 +588,7 @@ private void parseLogs(Build build, String consoleLogs) {
      * 3️⃣ كل الـ Pipelines مع Builds (بدون logs)
      * GET /api/jenkins-logs/smart/pipelines/all-summary
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getAllPipelinesSummary() {
         try {
             System.out.println("📊 Fetching all pipelines summary...");
@@ -456,11 +603,7 @@ private void parseLogs(Build build, String consoleLogs) {
 
                         List<BuildDTO> builds = buildRepository.findByPipelineOrderByCreatedAtDesc(pipeline)
                                 .stream()
-                                .map(build -> {
-                                    BuildDTO buildDTO = convertBuildToDTO(build);
-                                    buildDTO.setLogs(null);
-                                    return buildDTO;
-                                })
+                                .map(this::convertBuildHeaderToDTO)
                                 .collect(Collectors.toList());
 
                         dto.setBuilds(builds);
@@ -474,14 +617,6 @@ private void parseLogs(Build build, String consoleLogs) {
             result.put("data", pipelines);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "all_pipelines_summary",
-                        objectMapper.writeValueAsString(result));
-                System.out.println("✅ Sent to Kafka: all_pipelines_summary");
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             System.out.println("✅ getAllPipelinesSummary completed successfully");
             return result;
         } catch (Exception e) {
@@ -493,6 +628,7 @@ private void parseLogs(Build build, String consoleLogs) {
 
     // ==================== KAFKA METHODS ====================
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getAllPipelinesWithBuildsAndLogs() {
         try {
             System.out.println("📊 Fetching all pipelines with builds and logs...");
@@ -504,7 +640,7 @@ private void parseLogs(Build build, String consoleLogs) {
                         List<BuildDTO> builds = buildRepository.findByPipelineOrderByCreatedAtDesc(pipeline)
                                 .stream()
                                 .map(build -> {
-                                    BuildDTO buildDTO = convertBuildToDTO(build);
+                                    BuildDTO buildDTO = convertBuildHeaderToDTO(build);
                                     List<LogDTO> logs = logRepository.findByBuildOrderByCreatedAtDesc(build)
                                             .stream()
                                             .map(this::convertLogToDTO)
@@ -525,12 +661,6 @@ private void parseLogs(Build build, String consoleLogs) {
             result.put("data", pipelines);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "all_pipelines", objectMapper.writeValueAsString(result));
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             return result;
         } catch (Exception e) {
             e.printStackTrace();
@@ -538,12 +668,13 @@ private void parseLogs(Build build, String consoleLogs) {
         }
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getAllBuildsWithLogsData() {
         try {
             List<BuildDTO> builds = buildRepository.findAll()
                     .stream()
                     .map(build -> {
-                        BuildDTO buildDTO = convertBuildToDTO(build);
+                        BuildDTO buildDTO = convertBuildHeaderToDTO(build);
                         List<LogDTO> logs = logRepository.findByBuildOrderByCreatedAtDesc(build)
                                 .stream()
                                 .map(this::convertLogToDTO)
@@ -560,43 +691,31 @@ private void parseLogs(Build build, String consoleLogs) {
             result.put("data", builds);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "all_builds", objectMapper.writeValueAsString(result));
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             return result;
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Error: " + e.getMessage());
         }
     }
-  public Map<String, Object> getLastBuildWithLogsData() {
+    /**
+     * Dernier build créé avec ses logs, limités aux niveaux du masque ({@link ColumnarBuildLogs#mask}).
+     * Seul l'id passe par la base (idx_build_created_at) ; en-tête et lignes viennent du {@link RecentBuildCache}.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getLastBuildWithLogsData(int levelMask) {
         Map<String, Object> result = new HashMap<>();
         result.put("timestamp", LocalDateTime.now());
 
         try {
-            var lastBuild = buildRepository.findAll()
-                    .stream()
-                    .max(Comparator.comparing(Build::getCreatedAt))
-                    .orElse(null);
+            Long lastBuildId = buildRepository.findLatestId().orElse(null);
 
-            if (lastBuild == null) {
+            if (lastBuildId == null) {
                 result.put("status", "success");
                 result.put("data", Collections.emptyList());
                 result.put("message", "No builds found");
             } else {
-                var buildDTO = convertBuildToDTO(lastBuild);
-                List<LogDTO> logs = logRepository.findByBuildOrderByCreatedAtDesc(lastBuild)
-                        .stream()
-                        .map(this::convertLogToDTO)
-                        .collect(Collectors.toList());
-                buildDTO.setLogs(logs);
-                buildDTO.setLogCount(logs.size());
-
                 result.put("status", "success");
-                result.put("data", buildDTO);
+                result.put("data", recentBuild(lastBuildId).view(levelMask));
             }
         } catch (Exception e) {
             result.put("status", "error");
@@ -608,8 +727,66 @@ private void parseLogs(Build build, String consoleLogs) {
         return result;
     }
 
+    /** Build du cache des derniers builds ; sinon relu en base, et gardé s'il est parmi les derniers de son pipeline. */
+    private RecentBuildCache.RecentBuild recentBuild(Long buildId) {
+        RecentBuildCache.RecentBuild recent = recentBuildCache.get(buildId);
+        if (recent != null) return recent;
 
+        BuildDTO buildDTO = convertBuildToDTO(buildRepository.findById(buildId).orElseThrow());
+        ColumnarBuildLogs logs = toColumnar(buildDTO.getLogs());
+        if (logs != null) recentBuildCache.loaded(buildDTO, logs);
+        return RecentBuildCache.RecentBuild.of(buildDTO, logs != null ? logs : columnar(buildDTO.getLogs()));
+    }
+
+    /** Colonnes des lignes d'un build (ordre du console), null si le cache des derniers builds ne le prendrait pas. */
+    private ColumnarBuildLogs toColumnar(List<LogDTO> logs) {
+        if (logs == null || !recentBuildCache.accepts(logs.size())) return null;
+        return columnar(logs);
+    }
+
+    /** Colonnes des lignes tout juste enregistrées (même date pour toutes), null si le cache ne les prendrait pas. */
+    private ColumnarBuildLogs toColumnarLogs(List<Log> logs) {
+        if (!recentBuildCache.accepts(logs.size())) return null;
+        long[] ids = !logs.isEmpty() && logs.get(0).getId() != null ? new long[logs.size()] : null;
+        ColumnarBuildLogs.Builder builder = ColumnarBuildLogs.builder(logs.size());
+        LocalDateTime lastDate = null;
+        String lastFormatted = null;
+        for (int i = 0; i < logs.size(); i++) {
+            Log log = logs.get(i);
+            if (ids != null) ids[i] = log.getId();
+            if (log.getCreatedAt() != null && !log.getCreatedAt().equals(lastDate)) {
+                lastDate = log.getCreatedAt();
+                lastFormatted = RecentBuildCache.DTO_DATE.format(lastDate);
+            }
+            builder.add(log.getLogLevel(), log.getMessage(), log.getStackTrace(),
+                    log.getCreatedAt() != null ? lastFormatted : null);
+        }
+        return builder.build(ids);
+    }
 
+    private ColumnarBuildLogs columnar(List<LogDTO> logs) {
+        // ids tous présents (lignes "log") ou tous absents (blocs) : un seul format de stockage par build
+        long[] ids = !logs.isEmpty() && logs.get(0).getId() != null ? new long[logs.size()] : null;
+        ColumnarBuildLogs.Builder builder = ColumnarBuildLogs.builder(logs.size());
+        LocalDateTime lastDate = null;
+        String lastFormatted = null;
+        for (int i = 0; i < logs.size(); i++) {
+            LogDTO log = logs.get(i);
+            if (ids != null) ids[i] = log.getId();
+            // une seule date par ingestion : formatée une fois, même instance pour toutes les lignes
+            if (log.getCreatedAt() != null && !log.getCreatedAt().equals(lastDate)) {
+                lastDate = log.getCreatedAt();
+                lastFormatted = RecentBuildCache.DTO_DATE.format(lastDate);
+            }
+            builder.add(log.getLogLevel() != null ? LogLevel.valueOf(log.getLogLevel()) : null, log.getMessage(), log.getStackTrace(),
+                    log.getCreatedAt() != null ? lastFormatted : null);
+        }
+        return builder.build(ids);
+    }
+
+
+
+    @Transactional(readOnly = true)
     public Map<String, Object> getLastPipelineWithBuildsAndLogs() {
         try {
             Pipeline lastPipeline = pipelineRepository.findAll()
@@ -625,7 +802,7 @@ private void parseLogs(Build build, String consoleLogs) {
             List<BuildDTO> builds = buildRepository.findByPipelineOrderByCreatedAtDesc(lastPipeline)
                     .stream()
                     .map(build -> {
-                        BuildDTO buildDTO = convertBuildToDTO(build);
+                        BuildDTO buildDTO = convertBuildHeaderToDTO(build);
                         List<LogDTO> logs = logRepository.findByBuildOrderByCreatedAtDesc(build)
                                 .stream()
                                 .map(this::convertLogToDTO)
@@ -643,12 +820,6 @@ private void parseLogs(Build build, String consoleLogs) {
             result.put("data", pipelineDTO);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "last_pipeline", objectMapper.writeValueAsString(result));
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             return result;
         } catch (Exception e) {
             e.printStackTrace();
@@ -656,14 +827,15 @@ private void parseLogs(Build build, String consoleLogs) {
         }
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getAllBuildsWithoutLogs() {
         try {
             List<BuildDTO> builds = buildRepository.findAll()
                     .stream()
                     .map(build -> {
-                        BuildDTO dto = convertBuildToDTO(build);
-                        dto.setLogCount(build.getLogs() != null ? build.getLogs().size() : 0);
-                        dto.setLogs(null);
+                        // COUNT seul : aucune ligne chargée ni bloc décompressé
+                        BuildDTO dto = convertBuildHeaderToDTO(build);
+                        dto.setLogCount((int) logRepository.countByBuild(build));
                         return dto;
                     })
                     .collect(Collectors.toList());
@@ -674,12 +846,6 @@ private void parseLogs(Build build, String consoleLogs) {
             result.put("data", builds);
             result.put("timestamp", LocalDateTime.now());
 
-            try {
-                kafkaTemplate.send(kafkaTopic, "all_builds_no_logs", objectMapper.writeValueAsString(result));
-            } catch (Exception e) {
-                System.err.println("⚠️ Kafka error: " + e.getMessage());
-            }
-
             return result;
         } catch (Exception e) {
             e.printStackTrace();
@@ -701,9 +867,11 @@ private void parseLogs(Build build, String consoleLogs) {
     }
 
 private BuildDTO convertBuildToDTO(Build build) {
-    // Force Hibernate à charger la collection
-    List<Log> logs = build.getLogs();
-    if (logs != null) logs.size(); // force le fetch
+    // Lignes "log" ou blocs compressés, selon le format de stockage du build
+    return convertBuildToDTO(build, logRepository.findByBuild(build));
+}
+
+private BuildDTO convertBuildToDTO(Build build, List<Log> logs) {
 
     List<LogDTO> logDTOs = new ArrayList<>();
     if (logs != null) {
@@ -718,6 +886,14 @@ private BuildDTO convertBuildToDTO(Build build) {
         }
     }
 
+    BuildDTO dto = convertBuildHeaderToDTO(build);
+    dto.setLogs(logDTOs);
+
+    return dto;
+}
+
+// En-tête seul (résumés sans logs) : aucune lecture de "log" ni de "log_block"
+private BuildDTO convertBuildHeaderToDTO(Build build) {
     BuildDTO dto = new BuildDTO();
     dto.setId(build.getId());
     dto.setBuildNumber(build.getBuildNumber());
@@ -727,14 +903,6 @@ private BuildDTO convertBuildToDTO(Build build) {
     dto.setTriggeredBy(build.getTriggeredBy());
     dto.setPipelineId(build.getPipeline().getId());
     dto.setCreatedAt(build.getCreatedAt());
-    dto.setLogs(logDTOs);
-
-    // DEBUG
-    System.out.println("DEBUG: BuildDTO logs size = " + logDTOs.size());
-    for (LogDTO l : logDTOs) {
-        System.out.println("Log: " + l.getMessage());
-    }
-
     return dto;
 }
 
@@ -0,0 +1,70 @@
+package com.example.LogCollector.service;
+
+/**
+ * Ensemble de hachages 64 bits en adressage ouvert (sondage linéaire) : pas de boxing, add/contains en O(1).
+ * 0 sert de case vide ; la valeur 0 elle-même est gardée à part.
+ */
+public final class LineHashSet {
+
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+
+    public LineHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        table = new long[capacity];
+    }
+
+    public static LineHashSet of(long[] hashes) {
+        LineHashSet set = new LineHashSet(hashes.length);
+        for (long hash : hashes) set.add(hash);
+        return set;
+    }
+
+    public boolean add(long hash) {
+        if (hash == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        if ((size + 1) * 2 > table.length) grow();
+        int mask = table.length - 1;
+        int i = mix(hash) & mask;
+        while (table[i] != 0) {
+            if (table[i] == hash) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = hash;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long hash) {
+        if (hash == 0) return containsZero;
+        int mask = table.length - 1;
+        int i = mix(hash) & mask;
+        while (table[i] != 0) {
+            if (table[i] == hash) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size + (containsZero ? 1 : 0);
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        size = 0;
+        for (long hash : old) {
+            if (hash != 0) add(hash);
+        }
+    }
+
+    private static int mix(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
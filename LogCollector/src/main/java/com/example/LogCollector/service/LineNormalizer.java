@@ -0,0 +1,99 @@
+package com.example.LogCollector.service;
+
+/**
+ * Normalisation d'une ligne de console pour comparer deux builds : ce qui change d'un run à l'autre
+ * sans changer le sens de la ligne est masqué.
+ * <ul>
+ *   <li>suites de chiffres -> {@code #} (numéros, durées, et donc horodatages : 2026-10-19T09:30:15 -> #-#-#T#:#:#) ;</li>
+ *   <li>mots hexadécimaux d'au moins 4 caractères mêlant chiffres et lettres (commits, digests, UUID) -> {@code <hex>} ;</li>
+ *   <li>espaces en début et fin de ligne ignorés.</li>
+ * </ul>
+ * {@link #hash} calcule le FNV-1a 64 bits de la ligne normalisée sans construire de chaîne : une passe par caractère.
+ */
+public final class LineNormalizer {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String HEX_MASK = "<hex>";
+
+    private LineNormalizer() {}
+
+    public static String normalize(String line) {
+        StringBuilder out = new StringBuilder(line.length());
+        scan(line, out::append);
+        return out.toString();
+    }
+
+    public static long hash(String line) {
+        HashSink sink = new HashSink();
+        scan(line, sink);
+        return sink.hash;
+    }
+
+    private static void scan(String line, Sink sink) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) end--;
+        int i = 0;
+        while (i < end && Character.isWhitespace(line.charAt(i))) i++;
+
+        while (i < end) {
+            char c = line.charAt(i);
+            if (!isWordChar(c)) {
+                sink.append(c);
+                i++;
+                continue;
+            }
+            // mot alphanumérique [i, j)
+            int j = i;
+            boolean hex = true, digit = false, letter = false;
+            while (j < end && isWordChar(line.charAt(j))) {
+                char w = line.charAt(j);
+                if (w >= '0' && w <= '9') {
+                    digit = true;
+                } else if ((w >= 'a' && w <= 'f') || (w >= 'A' && w <= 'F')) {
+                    letter = true;
+                } else {
+                    hex = false;
+                }
+                j++;
+            }
+            if (hex && digit && letter && j - i >= 4) {
+                for (int k = 0; k < HEX_MASK.length(); k++) sink.append(HEX_MASK.charAt(k));
+            } else {
+                boolean inDigits = false;
+                for (int k = i; k < j; k++) {
+                    char w = line.charAt(k);
+                    if (w >= '0' && w <= '9') {
+                        if (!inDigits) sink.append('#');
+                        inDigits = true;
+                    } else {
+                        sink.append(w);
+                        inDigits = false;
+                    }
+                }
+            }
+            i = j;
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        if (c < 128) {
+            return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+        return Character.isLetterOrDigit(c);
+    }
+
+    private interface Sink {
+        void append(char c);
+    }
+
+    private static final class HashSink implements Sink {
+        long hash = FNV_OFFSET;
+
+        @Override
+        public void append(char c) {
+            hash ^= c;
+            hash *= FNV_PRIME;
+        }
+    }
+}
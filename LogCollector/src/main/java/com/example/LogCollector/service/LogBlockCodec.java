@@ -0,0 +1,106 @@
+package com.example.LogCollector.service;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sérialisation et compression d'un bloc de lignes de log.
+ *
+ * Format brut (avant compression), pour chaque ligne : longueur + UTF-8 du message, puis longueur + UTF-8
+ * de la stack trace (-1 si absente). Les niveaux ne sont pas dans le payload : ils sont dans l'index du bloc.
+ */
+public final class LogBlockCodec {
+
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+
+    private static final int ZSTD_LEVEL = 3;
+
+    private LogBlockCodec() {}
+
+    public record Line(String message, String stackTrace) {}
+
+    public static byte[] encodeLines(List<Line> lines) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(lines.size() * 128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (Line line : lines) {
+                writeString(out, line.message());
+                writeString(out, line.stackTrace());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<Line> decodeLines(byte[] raw, int lineCount) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            List<Line> lines = new ArrayList<>(lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                lines.add(new Line(readString(in), readString(in)));
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted log block", e);
+        }
+    }
+
+    public static byte[] compress(byte[] raw, String codec) {
+        if (ZSTD.equals(codec)) {
+            return Zstd.compress(raw, ZSTD_LEVEL);
+        }
+        if (GZIP.equals(codec)) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(raw.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                    gzip.write(raw);
+                }
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        throw new IllegalArgumentException("Unknown log block codec: " + codec);
+    }
+
+    public static byte[] decompress(byte[] payload, String codec, int rawSize) {
+        if (ZSTD.equals(codec)) {
+            return Zstd.decompress(payload, rawSize);
+        }
+        if (GZIP.equals(codec)) {
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+                return gzip.readNBytes(rawSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupted log block", e);
+            }
+        }
+        throw new IllegalArgumentException("Unknown log block codec: " + codec);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
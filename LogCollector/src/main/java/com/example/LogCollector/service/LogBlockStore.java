@@ -0,0 +1,113 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.Build;
+import com.example.LogCollector.Entity.Log;
+import com.example.LogCollector.Entity.LogBlock;
+import com.example.LogCollector.Entity.LogLevel;
+import com.example.LogCollector.repository.LogBlockRepository;
+import com.example.LogCollector.service.LogBlockCodec.Line;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stockage compressé des logs (logs.storage.format=blocks).
+ *
+ * Les lignes d'un build sont regroupées par blocs de logs.storage.block-lines lignes, chaque bloc est
+ * compressé (gzip ou zstd) dans une seule ligne log_block. Une ligne de console fait 80 à 200 octets,
+ * bien en dessous du seuil TOAST de Postgres : en colonnes TEXT elle n'est jamais compressée, alors qu'un
+ * bloc de 1000 lignes similaires se réduit d'un facteur 5 à 10.
+ *
+ * La relecture est transparente : LogRepository décode les blocs et renvoie des {@link Log} comme avant.
+ * Les builds déjà stockés en lignes restent lisibles quel que soit le format courant.
+ */
+@Component
+public class LogBlockStore {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    @Autowired
+    private LogBlockRepository logBlockRepository;
+
+    @Value("${logs.storage.format:rows}")
+    private String storageFormat;
+
+    @Value("${logs.storage.block-lines:1000}")
+    private int blockLines;
+
+    @Value("${logs.storage.codec:zstd}")
+    private String codec;
+
+    public boolean isEnabled() {
+        return "blocks".equalsIgnoreCase(storageFormat);
+    }
+
+    /** Découpe les lignes en blocs compressés ; à appeler dans la transaction qui a créé le build. */
+    public void write(Build build, List<Log> logs) {
+        List<LogBlock> blocks = new ArrayList<>();
+        for (int first = 0; first < logs.size(); first += blockLines) {
+            List<Log> slice = logs.subList(first, Math.min(first + blockLines, logs.size()));
+            blocks.add(toBlock(build, first, slice));
+        }
+        logBlockRepository.saveAll(blocks);
+    }
+
+    public List<Log> read(Build build) {
+        return read(build, null);
+    }
+
+    /** Lignes du build dans l'ordre de la console ; si level est fourni, les blocs sans ce niveau ne sont pas décompressés. */
+    public List<Log> read(Build build, LogLevel level) {
+        List<Log> logs = new ArrayList<>();
+        for (LogBlock block : logBlockRepository.findByBuildOrderByFirstLineAsc(build)) {
+            if (level != null && !block.containsLevel(level)) continue;
+
+            byte[] raw = LogBlockCodec.decompress(block.getPayload(), block.getCodec(), block.getRawSize());
+            List<Line> lines = LogBlockCodec.decodeLines(raw, block.getLineCount());
+            byte[] levels = block.getLevels();
+            for (int i = 0; i < lines.size(); i++) {
+                LogLevel lineLevel = LEVELS[levels[i]];
+                if (level != null && lineLevel != level) continue;
+
+                Log log = new Log(build, lineLevel, lines.get(i).message());
+                log.setStackTrace(lines.get(i).stackTrace());
+                log.setCreatedAt(block.getCreatedAt());
+                logs.add(log);
+            }
+        }
+        return logs;
+    }
+
+    public long count(Build build) {
+        return logBlockRepository.sumLineCountByBuild(build);
+    }
+
+    private LogBlock toBlock(Build build, int firstLine, List<Log> slice) {
+        List<Line> lines = new ArrayList<>(slice.size());
+        byte[] levels = new byte[slice.size()];
+        int levelMask = 0;
+        for (int i = 0; i < slice.size(); i++) {
+            Log log = slice.get(i);
+            LogLevel level = log.getLogLevel() != null ? log.getLogLevel() : LogLevel.INFO;
+            levels[i] = (byte) level.ordinal();
+            levelMask |= 1 << level.ordinal();
+            lines.add(new Line(log.getMessage(), log.getStackTrace()));
+        }
+        byte[] raw = LogBlockCodec.encodeLines(lines);
+
+        LogBlock block = new LogBlock();
+        block.setBuild(build);
+        block.setFirstLine(firstLine);
+        block.setLineCount(slice.size());
+        block.setLevels(levels);
+        block.setLevelMask(levelMask);
+        block.setCodec(codec);
+        block.setRawSize(raw.length);
+        block.setPayload(LogBlockCodec.compress(raw, codec));
+        block.setCreatedAt(slice.get(0).getCreatedAt());
+        return block;
+    }
+}
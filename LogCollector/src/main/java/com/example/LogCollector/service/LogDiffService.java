@@ -0,0 +1,139 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.Build;
+import com.example.LogCollector.Entity.BuildStatus;
+import com.example.LogCollector.repository.BuildRepository;
+import com.example.LogCollector.repository.LogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Diff de console entre deux builds d'un même pipeline : lignes de B absentes de A, une fois les numéros,
+ * hachages et horodatages masqués ({@link LineNormalizer}).
+ *
+ * Chaque build est réduit à un tableau de hachages 64 bits (un par ligne), gardé en cache LRU borné par
+ * diff.cache-max-lines lignes au total (8 octets par ligne). Le diff est linéaire : un {@link LineHashSet}
+ * des lignes de A, puis un parcours de B. Les builds RUNNING ne sont pas mis en cache (console incomplète).
+ */
+@Service
+public class LogDiffService {
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Value("${diff.cache-max-lines:5000000}")
+    private long cacheMaxLines;
+
+    private long cachedLines;
+    private final LinkedHashMap<Long, long[]> hashCache = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * @param referenceBuildId build A, ou null pour le dernier build SUCCESS du pipeline avant B
+     * @return null si B n'existe pas
+     * @throws IllegalArgumentException si A n'existe pas, n'est pas du même pipeline, ou introuvable
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> diff(Long buildId, Long referenceBuildId, int limit) {
+        Build build = buildRepository.findById(buildId).orElse(null);
+        if (build == null) return null;
+
+        Build reference;
+        if (referenceBuildId != null) {
+            reference = buildRepository.findById(referenceBuildId)
+                    .orElseThrow(() -> new IllegalArgumentException("Reference build " + referenceBuildId + " not found"));
+            if (!reference.getPipeline().getId().equals(build.getPipeline().getId())) {
+                throw new IllegalArgumentException("Builds " + buildId + " and " + referenceBuildId + " belong to different pipelines");
+            }
+        } else {
+            reference = buildRepository.findFirstByPipelineAndStatusAndBuildNumberLessThanOrderByBuildNumberDesc(
+                            build.getPipeline(), BuildStatus.SUCCESS, build.getBuildNumber())
+                    .orElseThrow(() -> new IllegalArgumentException("No successful build before #" + build.getBuildNumber()));
+        }
+
+        long start = System.nanoTime();
+        long[] referenceHashes = lineHashes(reference, null);
+        // les messages de B sont lus de toute façon (affichage des lignes nouvelles) : hachés au passage si besoin
+        List<String> messages = logRepository.findMessagesByBuild(build);
+        long[] hashes = lineHashes(build, messages);
+        long loadedNanos = System.nanoTime() - start;
+
+        LineHashSet referenceSet = LineHashSet.of(referenceHashes);
+        Map<Long, Map<String, Object>> newLines = new LinkedHashMap<>();
+        int newLineCount = 0;
+        // vrai seulement si une ligne distincte a réellement été écartée (exactement limit lignes : pas tronqué)
+        boolean truncated = false;
+        for (int i = 0; i < hashes.length; i++) {
+            if (referenceSet.contains(hashes[i])) continue;
+            newLineCount++;
+            Map<String, Object> line = newLines.get(hashes[i]);
+            if (line != null) {
+                line.merge("occurrences", 1, (a, b) -> (Integer) a + (Integer) b);
+            } else if (newLines.size() < limit) {
+                line = new LinkedHashMap<>();
+                line.put("lineNumber", i + 1);
+                line.put("message", i < messages.size() ? messages.get(i) : null);
+                line.put("occurrences", 1);
+                newLines.put(hashes[i], line);
+            } else {
+                truncated = true;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pipelineId", build.getPipeline().getId());
+        result.put("buildId", build.getId());
+        result.put("buildNumber", build.getBuildNumber());
+        result.put("buildStatus", build.getStatus());
+        result.put("referenceBuildId", reference.getId());
+        result.put("referenceBuildNumber", reference.getBuildNumber());
+        result.put("referenceStatus", reference.getStatus());
+        result.put("totalLines", hashes.length);
+        result.put("referenceLines", referenceHashes.length);
+        result.put("newLineCount", newLineCount);
+        result.put("distinctNewLines", newLines.size());
+        result.put("truncated", truncated);
+        result.put("loadMillis", loadedNanos / 1_000_000);
+        result.put("diffMillis", (elapsedNanos - loadedNanos) / 1_000_000);
+        result.put("lines", new ArrayList<>(newLines.values()));
+        return result;
+    }
+
+    /** Hachages des lignes du build, depuis le cache ou calculés (à partir de messages s'ils sont fournis). */
+    long[] lineHashes(Build build, List<String> messages) {
+        synchronized (hashCache) {
+            long[] cached = hashCache.get(build.getId());
+            if (cached != null) return cached;
+        }
+        List<String> lines = messages != null ? messages : logRepository.findMessagesByBuild(build);
+        long[] hashes = new long[lines.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            String line = lines.get(i);
+            hashes[i] = LineNormalizer.hash(line != null ? line : "");
+        }
+        if (build.getStatus() != BuildStatus.RUNNING) {
+            cache(build.getId(), hashes);
+        }
+        return hashes;
+    }
+
+    private void cache(Long buildId, long[] hashes) {
+        if (hashes.length > cacheMaxLines) return;
+        synchronized (hashCache) {
+            long[] previous = hashCache.put(buildId, hashes);
+            cachedLines += hashes.length - (previous != null ? previous.length : 0);
+            Iterator<long[]> eldest = hashCache.values().iterator();
+            while (cachedLines > cacheMaxLines && eldest.hasNext()) {
+                cachedLines -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+}
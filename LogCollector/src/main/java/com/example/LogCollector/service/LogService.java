@@ -12,6 +12,7 @@ import org.springframework.web.client.RestTemplate;
 import com.example.LogCollector.Entity.Build;
 import com.example.LogCollector.Entity.Log;
 import com.example.LogCollector.repository.BuildRepository;
+import com.example.LogCollector.repository.LogRepository;
 
 @Service
 public class LogService {
@@ -19,6 +20,9 @@ public class LogService {
     @Autowired
     private BuildRepository buildRepository;
 
+    @Autowired
+    private LogRepository logRepository;
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -37,23 +41,23 @@ public class LogService {
 
         Build build = lastBuildOpt.get();
 
-        // Force Hibernate à charger les logs
-        if (build.getLogs() != null) build.getLogs().size();
+        // Lignes "log" ou blocs compressés, selon le format de stockage du build
+        List<Log> logs = logRepository.findByBuild(build);
 
         Map<String, Object> buildMap = new HashMap<>();
         buildMap.put("id", build.getId());
         buildMap.put("buildNumber", build.getBuildNumber());
         buildMap.put("status", build.getStatus().toString());
         buildMap.put("triggeredBy", build.getTriggeredBy());
-        buildMap.put("startTime", build.getStartTime());
-        buildMap.put("endTime", build.getEndTime());
+        buildMap.put("startTime", build.getStartTime() != null ? build.getStartTime().toString() : null);
+        buildMap.put("endTime", build.getEndTime() != null ? build.getEndTime().toString() : null);
         buildMap.put("duration", build.getDuration());
         buildMap.put("createdAt", build.getCreatedAt());
         buildMap.put("pipelineId", build.getPipeline().getId());
 
         List<Map<String, Object>> logsList = new ArrayList<>();
-        if (build.getLogs() != null) {
-            for (Log log : build.getLogs()) {
+        if (logs != null) {
+            for (Log log : logs) {
                 Map<String, Object> logMap = new HashMap<>();
                 logMap.put("id", log.getId());
                 logMap.put("logLevel", log.getLogLevel() != null ? log.getLogLevel().toString() : null);
@@ -0,0 +1,168 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.OutboxEventType;
+import com.example.LogCollector.dto.BuildDTO;
+import com.example.LogCollector.repository.OutboxRepository;
+import com.example.LogCollector.repository.OutboxRepository.PendingEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox transactionnelle des événements Kafka du Collector.
+ *
+ * Les événements (build ingéré, statut changé) sont insérés dans outbox_event par la transaction qui fait le
+ * changement ({@link #buildIngested}, {@link #statusChanged}) : pas d'événement pour un build annulé, pas de
+ * build sans événement. Le relais les publie ensuite par lots de outbox.relay.batch-size, clé = nom du pipeline
+ * (un pipeline reste sur une partition, donc dans l'ordre) ; le producer regroupe et compresse les envois
+ * (spring.kafka.producer.batch-size, linger.ms, compression-type). Les lignes sont supprimées une fois le lot
+ * acquitté par Kafka, dans la même transaction que leur verrou : en cas d'échec elles sont republiées (au moins une fois).
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${kafka.topic.name:jenkins-logs}")
+    private String topic;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.retry-ms:10000}")
+    private long retryMs;
+
+    private final AtomicLong eventsRecorded = new AtomicLong();
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong batchesPublished = new AtomicLong();
+    private final AtomicLong relayFailures = new AtomicLong();
+    private volatile long retryAt;
+    private volatile String lastError;
+
+    // ==================== ÉCRITURE (transaction de l'appelant) ====================
+
+    public void buildIngested(String jobName, BuildDTO build) {
+        record(jobName, OutboxEventType.BUILD_INGESTED, event(OutboxEventType.BUILD_INGESTED, jobName, build));
+    }
+
+    public void statusChanged(String jobName, BuildDTO build, String previousStatus) {
+        Map<String, Object> event = event(OutboxEventType.BUILD_STATUS_CHANGED, jobName, build);
+        event.put("previousStatus", previousStatus);
+        record(jobName, OutboxEventType.BUILD_STATUS_CHANGED, event);
+    }
+
+    private Map<String, Object> event(OutboxEventType type, String jobName, BuildDTO build) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type.name());
+        event.put("pipelineId", build.getPipelineId());
+        event.put("pipeline", jobName);
+        event.put("buildId", build.getId());
+        event.put("buildNumber", build.getBuildNumber());
+        event.put("status", build.getStatus());
+        event.put("triggeredBy", build.getTriggeredBy());
+        event.put("logCount", build.getLogs() != null ? build.getLogs().size() : build.getLogCount());
+        event.put("startTime", build.getStartTime());
+        event.put("endTime", build.getEndTime());
+        event.put("occurredAt", LocalDateTime.now());
+        return event;
+    }
+
+    private void record(String key, OutboxEventType type, Map<String, Object> event) {
+        try {
+            outboxRepository.append(key, type, objectMapper.writeValueAsString(event));
+            eventsRecorded.incrementAndGet();
+        } catch (JsonProcessingException e) {
+            // fait échouer la transaction d'ingestion : un changement sans événement serait perdu pour Kafka
+            throw new IllegalStateException("Cannot serialize outbox event " + type, e);
+        }
+    }
+
+    // ==================== RELAIS KAFKA ====================
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (!relayEnabled || System.currentTimeMillis() < retryAt) return;
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishOldest());
+            } while (published != null && published == batchSize);
+            lastError = null;
+        } catch (Exception e) {
+            relayFailures.incrementAndGet();
+            retryAt = System.currentTimeMillis() + retryMs;
+            String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (!Objects.equals(lastError, error)) {
+                System.err.println("❌ Outbox relay failed, retry in " + retryMs + " ms: " + error);
+            }
+            lastError = error;
+        }
+    }
+
+    /** Un lot : envois asynchrones (regroupés par le producer), flush, attente des acquittements, suppression. */
+    private int publishOldest() {
+        List<PendingEvent> events = outboxRepository.lockOldest(batchSize);
+        if (events.isEmpty()) return 0;
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (PendingEvent event : events) {
+            sends.add(kafkaTemplate.send(topic, event.key(), event.payload()));
+        }
+        kafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Outbox relay interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Kafka send failed", e);
+        }
+
+        outboxRepository.delete(events);
+        eventsPublished.addAndGet(events.size());
+        batchesPublished.incrementAndGet();
+        return events.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("relayEnabled", relayEnabled);
+        stats.put("topic", topic);
+        stats.put("pending", outboxRepository.count());
+        stats.put("eventsRecorded", eventsRecorded.get());
+        stats.put("eventsPublished", eventsPublished.get());
+        stats.put("batchesPublished", batchesPublished.get());
+        stats.put("relayFailures", relayFailures.get());
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.LogCollector.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor partitionné par pipeline.
+ *
+ * Chaque nom de pipeline est haché vers une "lane" ; une lane exécute ses tâches une par une, dans l'ordre
+ * de soumission, sur l'executor d'ingestion partagé. Deux builds du même job ne s'exécutent donc jamais en
+ * même temps, alors que des jobs différents (lanes différentes) avancent en parallèle sur tous les coeurs.
+ *
+ * Les lanes sont fixes (hachage du nom) : un build long bloque aussi les jobs hachés vers la même lane
+ * (head-of-line blocking), même si d'autres threads sont libres. ingestion.partitions (par défaut 4 x coeurs,
+ * au moins 16) rend ces collisions rares. Pas de vol de tâches entre lanes : une lane volée pourrait exécuter
+ * deux builds d'un même job en parallèle.
+ */
+@Component
+public class PipelineIngestionExecutor {
+
+    private final Executor backingExecutor;
+    private final Lane[] lanes;
+    // tâches soumises et pas encore terminées, toutes lanes confondues (la purge de rétention s'efface au-delà)
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    public PipelineIngestionExecutor(@Qualifier("ingestionExecutor") Executor backingExecutor,
+                                     @Value("${ingestion.partitions:0}") int partitions) {
+        this.backingExecutor = backingExecutor;
+        int laneCount = partitions > 0 ? partitions : Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /** Soumet une tâche dans la lane du pipeline et renvoie son résultat. */
+    public <T> CompletableFuture<T> submit(String pipelineName, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(pipelineName, () -> {
+            if (future.isDone()) return; // annulée (timeout côté webhook) avant d'avoir démarré
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /** Exécute une tâche après toutes celles déjà soumises pour ce pipeline. */
+    public void execute(String pipelineName, Runnable task) {
+        pendingTasks.incrementAndGet();
+        try {
+            laneFor(pipelineName).enqueue(task);
+        } catch (RuntimeException e) {
+            pendingTasks.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public int getPartitionCount() {
+        return lanes.length;
+    }
+
+    public int getPendingTasks() {
+        return pendingTasks.get();
+    }
+
+    private Lane laneFor(String pipelineName) {
+        return lanes[Math.floorMod(pipelineName.hashCode(), lanes.length)];
+    }
+
+    /** File FIFO vidée par au plus une tâche à la fois sur l'executor partagé. */
+    private final class Lane {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean draining;
+
+        void enqueue(Runnable task) {
+            synchronized (this) {
+                tasks.add(task);
+                if (draining) return;
+                draining = true; // ce thread possède le drain tant que l'executor ne l'a pas accepté
+            }
+            try {
+                backingExecutor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // executor saturé : on retire la tâche pour ne pas bloquer la lane
+                boolean othersWaiting;
+                synchronized (this) {
+                    tasks.remove(task);
+                    othersWaiting = !tasks.isEmpty();
+                    if (!othersWaiting) draining = false;
+                }
+                // tâches soumises entre-temps (draining déjà vu) : le drain est toujours à ce thread
+                if (othersWaiting) retryDrain();
+                throw e;
+            }
+        }
+
+        /** Nouvel essai pour les tâches des autres appelants ; sinon la lane est libérée pour la prochaine soumission. */
+        private void retryDrain() {
+            try {
+                backingExecutor.execute(this::drain);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                System.err.println("⚠️ Ingestion executor saturated, " + pendingTasks.get() + " task(s) wait for the next submission");
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable next;
+                synchronized (this) {
+                    next = tasks.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    next.run();
+                } catch (Throwable t) {
+                    System.err.println("❌ Ingestion task failed: " + t.getMessage());
+                } finally {
+                    pendingTasks.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.repository.PipelineRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Résolution nom de job -> id de pipeline, sans course à la création.
+ *
+ * Le cache mémoire évite toute requête pour les jobs connus ; pour un nouveau job on fait un
+ * INSERT ... WHERE NOT EXISTS puis un SELECT de l'id. Si un autre webhook (ou une autre instance du Collector)
+ * crée le même pipeline au même instant, la contrainte unique rejette le second INSERT et on relit simplement
+ * la ligne gagnante.
+ */
+@Component
+public class PipelineRegistry {
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+    public Long resolveId(String name, String jenkinsUrl) {
+        Long cached = idsByName.get(name);
+        if (cached != null) return cached;
+
+        Long id = pipelineRepository.findIdByName(name)
+                .orElseGet(() -> {
+                    try {
+                        pipelineRepository.insertIfAbsent(name, jenkinsUrl);
+                    } catch (DataIntegrityViolationException e) {
+                        System.out.println("⚠️ Pipeline " + name + " created concurrently, reusing it");
+                    }
+                    return pipelineRepository.findIdByName(name)
+                            .orElseThrow(() -> new IllegalStateException("Pipeline not found after upsert: " + name));
+                });
+        idsByName.put(name, id);
+        return id;
+    }
+}
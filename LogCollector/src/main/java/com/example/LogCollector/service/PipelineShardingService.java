@@ -0,0 +1,179 @@
+package com.example.LogCollector.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Répartition des pipelines entre les instances du Collector : anneau de hachage cohérent construit à partir
+ * des instances "log-collector" du registre Eureka (plus l'instance courante, même pas encore enregistrée).
+ * Le propriétaire d'un job ingère ses webhooks ; les autres instances les lui transmettent.
+ *
+ * L'anneau est recalculé toutes les sharding.refresh-ms : quand une instance arrive ou part, seuls ~1/N des
+ * pipelines changent de propriétaire. Pendant la transition, deux instances peuvent se croire propriétaires
+ * du même job : la contrainte unique (pipeline_id, build_number) garantit qu'un build n'est enregistré qu'une fois.
+ * Sans Eureka (profil loadtest) l'instance est seule sur l'anneau et garde tous les pipelines.
+ */
+@Service
+public class PipelineShardingService {
+
+    /** Posé sur un webhook transmis : l'instance qui le reçoit l'ingère sans le retransmettre. */
+    public static final String FORWARDED_HEADER = "X-Collector-Forwarded-By";
+
+    private static final String SELF = "self";
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private ObjectProvider<Registration> registration;
+
+    @Autowired
+    @Qualifier("forwardingRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Value("${sharding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.application.name:log-collector}")
+    private String serviceId;
+
+    @Value("${sharding.virtual-nodes:160}")
+    private int virtualNodes;
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of(SELF), 1);
+    private volatile Map<String, ServiceInstance> instancesById = Map.of();
+    private volatile String selfId = SELF;
+
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong forwardFailures = new AtomicLong();
+    private final AtomicLong rebalances = new AtomicLong();
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${sharding.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled) return;
+        Registration self = registration.getIfAvailable();
+        String id = self != null && self.getInstanceId() != null ? self.getInstanceId() : SELF;
+
+        Map<String, ServiceInstance> instances = new HashMap<>();
+        try {
+            for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+                if (instance.getInstanceId() != null) instances.put(instance.getInstanceId(), instance);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Collector registry unavailable, keeping the current ring: " + e.getMessage());
+            return;
+        }
+        Set<String> members = new TreeSet<>(instances.keySet());
+        members.add(id);
+
+        if (!members.equals(ring.getMembers()) || !id.equals(selfId)) {
+            ring = new ConsistentHashRing(members, virtualNodes);
+            rebalances.incrementAndGet();
+            System.out.println("🔀 Pipeline ring rebuilt: " + members.size() + " collector(s) " + members + ", self = " + id);
+        }
+        instancesById = instances;
+        selfId = id;
+    }
+
+    public boolean isOwner(String jobName) {
+        return remoteOwner(jobName) == null;
+    }
+
+    /** Instance propriétaire du job si ce n'est pas l'instance courante (et qu'elle est joignable), sinon null. */
+    public ServiceInstance remoteOwner(String jobName) {
+        if (!enabled) return null;
+        String owner = ring.owner(jobName);
+        if (owner == null || owner.equals(selfId)) return null;
+        return instancesById.get(owner);
+    }
+
+    /**
+     * Transmet le webhook au propriétaire et renvoie sa réponse telle quelle (y compris une erreur d'ingestion) ;
+     * null si la connexion au propriétaire échoue, le webhook est alors ingéré localement. Une fois la requête
+     * partie, le propriétaire peut être en train d'ingérer : un délai de lecture dépassé ou une connexion coupée
+     * donne 504 (Jenkins peut rejouer le webhook, le doublon est écarté), jamais une seconde ingestion locale.
+     */
+    public ResponseEntity<String> forwardWebhook(ServiceInstance owner, String jobName, Integer buildNumber,
+                                                 String buildStatus, String token) {
+        URI uri = UriComponentsBuilder.fromUri(owner.getUri())
+                .path("/api/jenkins-logs/webhook")
+                .queryParam("jobName", jobName)
+                .queryParam("buildNumber", buildNumber)
+                .queryParam("buildStatus", buildStatus)
+                .queryParam("token", token)
+                .encode()
+                .build()
+                .toUri();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FORWARDED_HEADER, selfId);
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.POST, new HttpEntity<>(headers), String.class);
+            forwarded.incrementAndGet();
+            return ResponseEntity.status(response.getStatusCode()).contentType(response.getHeaders().getContentType())
+                    .body(response.getBody());
+        } catch (HttpStatusCodeException e) {
+            forwarded.incrementAndGet();
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders() != null
+                    ? e.getResponseHeaders().getContentType() : null).body(e.getResponseBodyAsString());
+        } catch (ResourceAccessException e) {
+            forwardFailures.incrementAndGet();
+            if (isConnectFailure(e)) {
+                System.err.println("⚠️ Owner " + owner.getInstanceId() + " of " + jobName + " unreachable, ingesting locally: "
+                        + e.getMessage());
+                return null;
+            }
+            System.err.println("⚠️ No answer from owner " + owner.getInstanceId() + " for " + jobName + " #" + buildNumber
+                    + ", not ingesting locally: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"status\":\"error\",\"message\":\"No answer from the collector owning " + jobName
+                            + ", it may still be ingesting the build\"}");
+        }
+    }
+
+    /** Échec avant l'envoi de la requête (refus, délai de connexion, hôte inconnu) : le propriétaire n'a rien reçu. */
+    private static boolean isConnectFailure(ResourceAccessException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException
+                    || cause instanceof NoRouteToHostException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("self", selfId);
+        status.put("members", ring.getMembers());
+        status.put("rebalances", rebalances.get());
+        status.put("webhooksForwarded", forwarded.get());
+        status.put("forwardFailures", forwardFailures.get());
+        return status;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.LogCollector.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket simple : au plus {@code permitsPerSecond} acquisitions par seconde, avec une rafale
+ * d'une seconde au maximum. acquire() bloque l'appelant jusqu'au prochain jeton.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final double maxTokens;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxTokens = Math.max(1.0, permitsPerSecond);
+        this.tokens = 1.0;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            tokens -= 1.0;
+            // jeton négatif = réservé sur le futur : on attend le temps de le regagner
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1_000_000_000L);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxTokens, tokens + (now - lastRefillNanos) / 1_000_000_000.0 * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.dto.BuildDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs des N derniers builds de chaque pipeline (hot-builds.per-pipeline), en colonnes ({@link ColumnarBuildLogs}).
+ *
+ * Rempli par l'ingestion après le commit du build (colonnes construites à partir des lignes parsées, sans
+ * relecture des logs), ou par une lecture en base
+ * ({@link JenkinsLogService#getLastBuildWithLogsData}) après un redémarrage. Sert GET /builds/last (filtrable
+ * par niveau) et /smart/build/last-important.
+ * Borné à hot-builds.max-bytes au total : au-delà, les builds les plus anciens sortent ; un build de plus de
+ * hot-builds.max-lines-per-build lignes n'entre pas. Les statuts (RUNNING terminé) sont mis à jour, les builds
+ * purgés par la rétention retirés.
+ */
+@Service
+public class RecentBuildCache {
+
+    static final DateTimeFormatter DTO_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final Comparator<RecentBuild> CREATED_AT =
+            Comparator.comparing(RecentBuild::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /** Build en mémoire : en-tête (champs de BuildDTO) et lignes. */
+    public record RecentBuild(Long id, Integer buildNumber, String status, LocalDateTime startTime,
+                              LocalDateTime endTime, Long duration, String triggeredBy, Long pipelineId,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, ColumnarBuildLogs logs) {
+
+        static RecentBuild of(BuildDTO build, ColumnarBuildLogs logs) {
+            return new RecentBuild(build.getId(), build.getBuildNumber(), build.getStatus(), build.getStartTime(),
+                    build.getEndTime(), build.getDuration(), build.getTriggeredBy(), build.getPipelineId(),
+                    build.getCreatedAt(), build.getUpdatedAt(), logs);
+        }
+
+        /** Vue JSON de ce build au format de BuildDTO, logs limités aux niveaux du masque. */
+        public BuildView view(int levelMask) {
+            return new BuildView(this, levelMask);
+        }
+    }
+
+    /** Sérialisé comme un BuildDTO ; les logs sont écrits depuis les colonnes. */
+    public static final class BuildView extends JsonSerializable.Base {
+
+        private final RecentBuild build;
+        private final int levelMask;
+
+        private BuildView(RecentBuild build, int levelMask) {
+            this.build = build;
+            this.levelMask = levelMask;
+        }
+
+        public int getLogCount() {
+            return build.logs().count(levelMask);
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("id", build.id());
+            gen.writeNumberField("buildNumber", build.buildNumber());
+            gen.writeStringField("status", build.status());
+            writeDate(gen, "startTime", build.startTime());
+            writeDate(gen, "endTime", build.endTime());
+            if (build.duration() != null) gen.writeNumberField("duration", build.duration());
+            else gen.writeNullField("duration");
+            gen.writeStringField("triggeredBy", build.triggeredBy());
+            gen.writeNumberField("logCount", getLogCount());
+            gen.writeNumberField("pipelineId", build.pipelineId());
+            writeDate(gen, "createdAt", build.createdAt());
+            gen.writeFieldName("logs");
+            build.logs().writeLogs(gen, levelMask);
+            writeDate(gen, "updatedAt", build.updatedAt());
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider serializers,
+                                      TypeSerializer typeSer) throws IOException {
+            serialize(gen, serializers);
+        }
+
+        private static void writeDate(JsonGenerator gen, String field, LocalDateTime value) throws IOException {
+            if (value != null) gen.writeStringField(field, DTO_DATE.format(value));
+            else gen.writeNullField(field);
+        }
+    }
+
+    @Value("${hot-builds.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hot-builds.per-pipeline:2}")
+    private int perPipeline;
+
+    @Value("${hot-builds.max-bytes:134217728}")
+    private long maxBytes;
+
+    @Value("${hot-builds.max-lines-per-build:200000}")
+    private int maxLinesPerBuild;
+
+    /** Builds en mémoire par pipeline, par numéro décroissant ; accès sous le verrou de l'instance. */
+    private final Map<Long, List<RecentBuild>> byPipeline = new HashMap<>();
+    private final Map<Long, RecentBuild> byId = new HashMap<>();
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Un build de cette taille peut-il entrer (sinon l'ingestion ne construit pas ses colonnes). */
+    public boolean accepts(int lines) {
+        return enabled && lines <= maxLinesPerBuild;
+    }
+
+    /** Build ingéré : ajouté après le commit de la transaction en cours (tout de suite hors transaction). */
+    public void ingested(BuildDTO build, ColumnarBuildLogs logs) {
+        if (!enabled || logs == null) return;
+        RecentBuild recent = RecentBuild.of(build, logs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(recent);
+                }
+            });
+        } else {
+            put(recent);
+        }
+    }
+
+    /** Build relu en base (défaut de cache) : n'entre que s'il fait partie des N derniers de son pipeline. */
+    public void loaded(BuildDTO build, ColumnarBuildLogs logs) {
+        if (accepts(logs != null ? logs.size() : Integer.MAX_VALUE)) put(RecentBuild.of(build, logs));
+    }
+
+    private synchronized void put(RecentBuild build) {
+        RecentBuild previous = byId.get(build.id());
+        if (previous != null) detach(previous);
+
+        List<RecentBuild> builds = byPipeline.getOrDefault(build.pipelineId(), List.of());
+        int index = 0;
+        while (index < builds.size() && builds.get(index).buildNumber() > build.buildNumber()) index++;
+        if (index >= perPipeline) return;   // plus ancien que les N gardés
+
+        builds = byPipeline.computeIfAbsent(build.pipelineId(), id -> new ArrayList<>(perPipeline + 1));
+        builds.add(index, build);
+        byId.put(build.id(), build);
+        bytes += build.logs().memoryBytes();
+        if (builds.size() > perPipeline) evict(builds.get(builds.size() - 1));
+        while (bytes > maxBytes && !byId.isEmpty()) evict(oldest());
+    }
+
+    /** Build le plus anciennement créé parmi les derniers de chaque pipeline. */
+    private RecentBuild oldest() {
+        RecentBuild oldest = null;
+        for (List<RecentBuild> builds : byPipeline.values()) {
+            RecentBuild candidate = builds.get(builds.size() - 1);
+            if (oldest == null || CREATED_AT.compare(candidate, oldest) < 0) oldest = candidate;
+        }
+        return oldest;
+    }
+
+    private void evict(RecentBuild build) {
+        detach(build);
+        evictions.incrementAndGet();
+    }
+
+    private void detach(RecentBuild build) {
+        List<RecentBuild> builds = byPipeline.get(build.pipelineId());
+        builds.remove(build);
+        if (builds.isEmpty()) byPipeline.remove(build.pipelineId());
+        byId.remove(build.id());
+        bytes -= build.logs().memoryBytes();
+    }
+
+    /** Build en mémoire, null sinon. */
+    public RecentBuild get(Long buildId) {
+        if (!enabled || buildId == null) return null;
+        RecentBuild build;
+        synchronized (this) {
+            build = byId.get(buildId);
+        }
+        (build != null ? hits : misses).incrementAndGet();
+        return build;
+    }
+
+    /** Fin d'un build RUNNING : nouveau statut et date de fin, mêmes lignes. */
+    public synchronized void statusChanged(BuildDTO build) {
+        RecentBuild previous = byId.get(build.getId());
+        if (previous == null) return;
+        RecentBuild updated = RecentBuild.of(build, previous.logs());
+        List<RecentBuild> builds = byPipeline.get(previous.pipelineId());
+        builds.set(builds.indexOf(previous), updated);
+        byId.put(updated.id(), updated);
+    }
+
+    /** Builds supprimés (rétention). */
+    public synchronized void evict(Collection<Long> buildIds) {
+        for (Long buildId : buildIds) {
+            RecentBuild build = byId.get(buildId);
+            if (build != null) detach(build);
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long lines = 0;
+        for (RecentBuild build : byId.values()) lines += build.logs().size();
+        long total = hits.get() + misses.get();
+        stats.put("enabled", enabled);
+        stats.put("perPipeline", perPipeline);
+        stats.put("pipelines", byPipeline.size());
+        stats.put("builds", byId.size());
+        stats.put("lines", lines);
+        stats.put("bytes", bytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total > 0 ? (double) hits.get() / total : 0.0);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+}
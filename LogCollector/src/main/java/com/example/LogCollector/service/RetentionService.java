@@ -0,0 +1,259 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.RetentionPolicy;
+import com.example.LogCollector.repository.RetentionPolicyRepository;
+import com.example.LogCollector.repository.RetentionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rétention de la base du Collector : purge planifiée (retention.cron) des builds qu'aucune règle de leur
+ * {@link RetentionPolicy} ne protège.
+ *
+ * La purge passe par {@link RetentionRepository} : au plus retention.builds-per-batch builds à la fois,
+ * leurs logs supprimés par paquets de retention.rows-per-batch lignes, puis les blocs, les résultats de tests
+ * et les builds. Chaque paquet est un DELETE autocommit. Throttling : au plus retention.batches-per-second paquets par seconde,
+ * et pause tant que l'ingestion a plus de retention.yield-pending-tasks tâches en attente.
+ * Une exécution s'arrête après retention.max-run-seconds ; la suivante reprend où elle en était.
+ */
+@Service
+public class RetentionService {
+
+    private static final LocalDateTime NO_AGE_LIMIT = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    @Autowired
+    private RetentionRepository retentionRepository;
+
+    @Autowired
+    private RetentionPolicyRepository policyRepository;
+
+    @Autowired
+    private PipelineIngestionExecutor ingestionExecutor;
+
+    @Autowired
+    private PipelineShardingService shardingService;
+
+    @Autowired
+    private BuildResponseCache responseCache;
+
+    @Autowired
+    private RecentBuildCache recentBuildCache;
+
+    @Value("${retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${retention.default.keep-last-builds:100}")
+    private Integer defaultKeepLastBuilds;
+
+    @Value("${retention.default.keep-days:30}")
+    private Integer defaultKeepDays;
+
+    @Value("${retention.default.keep-failed-days:90}")
+    private Integer defaultKeepFailedDays;
+
+    @Value("${retention.builds-per-batch:20}")
+    private int buildsPerBatch;
+
+    @Value("${retention.rows-per-batch:5000}")
+    private int rowsPerBatch;
+
+    @Value("${retention.batches-per-second:5}")
+    private double batchesPerSecond;
+
+    @Value("${retention.yield-pending-tasks:8}")
+    private int yieldPendingTasks;
+
+    @Value("${retention.yield-max-ms:30000}")
+    private long yieldMaxMillis;
+
+    @Value("${retention.max-run-seconds:600}")
+    private long maxRunSeconds;
+
+    private RateLimiter batchLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // ==================== STATUS ====================
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile String lastError;
+    private volatile boolean lastRunComplete;
+    private final AtomicLong buildsDeleted = new AtomicLong();
+    private final AtomicLong logsDeleted = new AtomicLong();
+    private final AtomicLong blocksDeleted = new AtomicLong();
+    private final AtomicLong testResultsDeleted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong yieldMillis = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        batchLimiter = new RateLimiter(batchesPerSecond);
+    }
+
+    @Scheduled(cron = "${retention.cron:0 30 2 * * *}")
+    public void scheduledPurge() {
+        if (enabled) purge();
+    }
+
+    /**
+     * Purge les pipelines dont l'instance est propriétaire (tous avec une seule instance), selon leur politique :
+     * avec plusieurs Collectors, chacun purge sa part de l'anneau.
+     * @return false si une purge est déjà en cours
+     */
+    public boolean purge() {
+        if (!running.compareAndSet(false, true)) return false;
+        lastRunStartedAt = LocalDateTime.now();
+        lastError = null;
+        long deadline = System.nanoTime() + Duration.ofSeconds(maxRunSeconds).toNanos();
+        long buildsBefore = buildsDeleted.get();
+        boolean complete = true;
+        try {
+            for (Map<String, Object> pipeline : retentionRepository.findPipelines()) {
+                Long pipelineId = ((Number) pipeline.get("id")).longValue();
+                String pipelineName = (String) pipeline.get("name");
+                if (!shardingService.isOwner(pipelineName)) continue;
+                if (!purgePipeline(pipelineId, resolvePolicy(pipelineName), deadline)) {
+                    complete = false;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete = false;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            complete = false;
+            System.err.println("❌ Retention purge failed: " + e.getMessage());
+        } finally {
+            lastRunComplete = complete;
+            lastRunFinishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        System.out.println("🧹 Retention purge " + (complete ? "done" : "stopped") + ": "
+                + (buildsDeleted.get() - buildsBefore) + " build(s) deleted");
+        return true;
+    }
+
+    /** @return false si le temps imparti est écoulé (le reste sera purgé au prochain passage) */
+    private boolean purgePipeline(Long pipelineId, RetentionPolicy policy, long deadline) throws InterruptedException {
+        if (!policy.hasRules()) return true;
+
+        LocalDateTime now = LocalDateTime.now();
+        int keepLast = policy.getKeepLastBuilds() != null ? policy.getKeepLastBuilds() : 0;
+        LocalDateTime cutoff = policy.getKeepDays() != null ? now.minusDays(policy.getKeepDays()) : NO_AGE_LIMIT;
+        // un échec est gardé au moins aussi longtemps qu'un build réussi
+        LocalDateTime failedCutoff = policy.getKeepFailedDays() != null
+                ? min(cutoff, now.minusDays(policy.getKeepFailedDays()))
+                : cutoff;
+
+        while (true) {
+            if (System.nanoTime() > deadline) return false;
+            throttle();
+            List<Long> buildIds = retentionRepository.findExpiredBuildIds(pipelineId, keepLast, cutoff, failedCutoff, buildsPerBatch);
+            if (buildIds.isEmpty()) return true;
+
+            int deleted;
+            do {
+                throttle();
+                deleted = retentionRepository.deleteLogs(buildIds, rowsPerBatch);
+                logsDeleted.addAndGet(deleted);
+            } while (deleted > 0);
+            do {
+                throttle();
+                deleted = retentionRepository.deleteLogBlocks(buildIds, rowsPerBatch);
+                blocksDeleted.addAndGet(deleted);
+            } while (deleted > 0);
+            do {
+                throttle();
+                deleted = retentionRepository.deleteTestResults(buildIds, rowsPerBatch);
+                testResultsDeleted.addAndGet(deleted);
+            } while (deleted > 0);
+            throttle();
+            buildsDeleted.addAndGet(retentionRepository.deleteBuilds(buildIds));
+            responseCache.evict(buildIds);
+            recentBuildCache.evict(buildIds);
+        }
+    }
+
+    /** Cède la place à l'ingestion quand elle a du retard, puis respecte le débit de paquets. */
+    private void throttle() throws InterruptedException {
+        long waited = 0;
+        while (ingestionExecutor.getPendingTasks() > yieldPendingTasks && waited < yieldMaxMillis) {
+            Thread.sleep(100);
+            waited += 100;
+        }
+        yieldMillis.addAndGet(waited);
+        batchLimiter.acquire();
+        batches.incrementAndGet();
+    }
+
+    // ==================== POLICIES ====================
+
+    public RetentionPolicy resolvePolicy(String pipelineName) {
+        return policyRepository.findById(pipelineName)
+                .orElseGet(() -> new RetentionPolicy(pipelineName, defaultKeepLastBuilds, defaultKeepDays, defaultKeepFailedDays));
+    }
+
+    public List<RetentionPolicy> getPolicies() {
+        return policyRepository.findAll();
+    }
+
+    public RetentionPolicy savePolicy(String pipelineName, Integer keepLastBuilds, Integer keepDays, Integer keepFailedDays) {
+        return policyRepository.save(new RetentionPolicy(pipelineName, keepLastBuilds, keepDays, keepFailedDays));
+    }
+
+    public boolean deletePolicy(String pipelineName) {
+        if (!policyRepository.existsById(pipelineName)) return false;
+        policyRepository.deleteById(pipelineName);
+        return true;
+    }
+
+    /** Purge manuelle en arrière-plan ; false si une purge est déjà en cours. */
+    public boolean startAsync() {
+        if (running.get()) return false;
+        Thread thread = new Thread(this::purge, "retention-purge");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("running", running.get());
+        status.put("lastRunStartedAt", lastRunStartedAt);
+        status.put("lastRunFinishedAt", lastRunFinishedAt);
+        status.put("lastRunComplete", lastRunComplete);
+        status.put("lastError", lastError);
+        status.put("buildsDeleted", buildsDeleted.get());
+        status.put("logsDeleted", logsDeleted.get());
+        status.put("blocksDeleted", blocksDeleted.get());
+        status.put("testResultsDeleted", testResultsDeleted.get());
+        status.put("batches", batches.get());
+        status.put("yieldMillis", yieldMillis.get());
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("keepLastBuilds", defaultKeepLastBuilds);
+        defaults.put("keepDays", defaultKeepDays);
+        defaults.put("keepFailedDays", defaultKeepFailedDays);
+        status.put("defaultPolicy", defaults);
+        return status;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.TestStatus;
+import com.example.LogCollector.repository.TestResultRepository;
+import com.example.LogCollector.repository.TestResultRepository.CaseState;
+import com.example.LogCollector.service.JUnitReportParser.TestCaseResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingestion des résultats de tests d'un build, après son console et dans la lane de son pipeline
+ * (les builds d'un même job sont donc traités dans l'ordre et un seul à la fois par pipeline).
+ *
+ * Source : l'API testReport de Jenkins, à défaut l'artefact JUnit tests.junit-artifact s'il est configuré.
+ * Le rapport est lu en flux par {@link JUnitReportParser} et écrit par lots de tests.chunk-size tests :
+ * nouveaux tests insérés dans test_case, une ligne test_result par test, puis l'état courant des tests
+ * (dernier statut, durée, début de la série d'échecs) mis à jour en fin de rapport.
+ * Un build plus ancien que le dernier ingéré (backfill) alimente l'historique sans changer l'état courant.
+ */
+@Service
+public class TestReportService {
+
+    @Autowired
+    private JenkinsClient jenkinsClient;
+
+    @Autowired
+    private TestResultRepository testResultRepository;
+
+    @Value("${tests.ingest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tests.junit-artifact:}")
+    private String junitArtifact;
+
+    @Value("${tests.message-max-chars:1000}")
+    private int messageMaxChars;
+
+    @Value("${tests.chunk-size:2000}")
+    private int chunkSize;
+
+    private final AtomicLong reportsIngested = new AtomicLong();
+    private final AtomicLong reportsMissing = new AtomicLong();
+    private final AtomicLong reportsFailed = new AtomicLong();
+    private final AtomicLong testsIngested = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Ne lève pas d'exception : un rapport illisible ne doit pas faire échouer l'ingestion du build. */
+    public void ingest(String jobName, Long pipelineId, Long buildId, Integer buildNumber) {
+        ingest(jobName, pipelineId, buildId, buildNumber, null);
+    }
+
+    /**
+     * Idem, chaque requête Jenkins (rapport puis artefact) passant d'abord par jenkinsLimiter s'il est fourni :
+     * le backfill reste ainsi sous backfill.requests-per-second.
+     */
+    public void ingest(String jobName, Long pipelineId, Long buildId, Integer buildNumber, RateLimiter jenkinsLimiter) {
+        if (!enabled) return;
+        long start = System.currentTimeMillis();
+        try {
+            Ingestion ingestion = new Ingestion(pipelineId, buildId, buildNumber);
+            if (jenkinsLimiter != null) jenkinsLimiter.acquire();
+            boolean found = jenkinsClient.streamTestReport(jobName, buildNumber, ingestion::read);
+            if (!found && !junitArtifact.isBlank()) {
+                if (jenkinsLimiter != null) jenkinsLimiter.acquire();
+                found = jenkinsClient.streamArtifact(jobName, buildNumber, junitArtifact, ingestion::read);
+            }
+            if (!found) {
+                reportsMissing.incrementAndGet();
+                return;
+            }
+            ingestion.finish();
+            reportsIngested.incrementAndGet();
+            testsIngested.addAndGet(ingestion.tests);
+            System.out.println("🧪 Test report of " + jobName + " #" + buildNumber + ": " + ingestion.tests + " tests, "
+                    + ingestion.failed + " failed (" + (System.currentTimeMillis() - start) + " ms)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            reportsFailed.incrementAndGet();
+            System.err.println("❌ Test report ingestion failed for " + jobName + " #" + buildNumber + ": " + e.getMessage());
+        }
+    }
+
+    // ==================== LECTURES ====================
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getSlowestTests(Long pipelineId, int limit) {
+        return testResultRepository.findSlowest(pipelineId, limit);
+    }
+
+    /**
+     * Tests en échec dont la série d'échecs a commencé au build sinceBuild ou après ;
+     * par défaut au dernier build ingéré (les tests cassés par ce build).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getNewlyFailingTests(Long pipelineId, Integer sinceBuild, int limit) {
+        Integer since = sinceBuild != null ? sinceBuild : testResultRepository.findLatestBuildNumber(pipelineId);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pipelineId", pipelineId);
+        result.put("sinceBuild", since);
+        result.put("tests", since != null ? testResultRepository.findFailingSince(pipelineId, since, limit) : List.of());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTestHistory(Long pipelineId, Long testCaseId, int limit) {
+        return testResultRepository.findHistory(pipelineId, testCaseId, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBuildTests(Long buildId, TestStatus status, int limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("buildId", buildId);
+        result.put("summary", testResultRepository.findBuildSummary(buildId));
+        result.put("tests", testResultRepository.findBuildResults(buildId, status, limit));
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("reportsIngested", reportsIngested.get());
+        stats.put("reportsMissing", reportsMissing.get());
+        stats.put("reportsFailed", reportsFailed.get());
+        stats.put("testsIngested", testsIngested.get());
+        return stats;
+    }
+
+    /** Une ingestion de rapport : tests connus du pipeline en mémoire, résultats écrits par lots. */
+    private final class Ingestion {
+
+        private final Long pipelineId;
+        private final Long buildId;
+        private final int buildNumber;
+        private final Map<String, CaseState> cases;
+        private final Map<Long, CaseState> touched = new HashMap<>();
+        private final List<TestCaseResult> chunk = new ArrayList<>();
+        private long maxCaseId;
+        private long tests;
+        private long failed;
+
+        Ingestion(Long pipelineId, Long buildId, Integer buildNumber) {
+            this.pipelineId = pipelineId;
+            this.buildId = buildId;
+            this.buildNumber = buildNumber;
+            this.cases = testResultRepository.findCases(pipelineId, 0);
+            this.maxCaseId = maxId(cases);
+        }
+
+        void read(InputStream body) throws Exception {
+            // un essai précédent interrompu a pu laisser des résultats partiels
+            testResultRepository.deleteResults(buildId);
+            JUnitReportParser.parse(body, messageMaxChars, this::add);
+            flush();
+        }
+
+        private void add(TestCaseResult result) {
+            chunk.add(result);
+            if (chunk.size() >= chunkSize) flush();
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) return;
+            Map<String, TestCaseResult> unknown = new LinkedHashMap<>();
+            for (TestCaseResult result : chunk) {
+                String key = TestResultRepository.key(result.className(), result.name());
+                if (!cases.containsKey(key)) unknown.putIfAbsent(key, result);
+            }
+            if (!unknown.isEmpty()) {
+                // un seul écrivain par pipeline (lane) : les tests créés ont tous un id > maxCaseId
+                testResultRepository.insertCases(pipelineId, unknown.values());
+                Map<String, CaseState> created = testResultRepository.findCases(pipelineId, maxCaseId);
+                cases.putAll(created);
+                maxCaseId = Math.max(maxCaseId, maxId(created));
+            }
+
+            long[] caseIds = new long[chunk.size()];
+            for (int i = 0; i < caseIds.length; i++) {
+                TestCaseResult result = chunk.get(i);
+                CaseState state = cases.get(TestResultRepository.key(result.className(), result.name()));
+                caseIds[i] = state.id;
+                apply(state, result);
+                if (result.status() == TestStatus.FAILED) failed++;
+            }
+            testResultRepository.insertResults(buildId, chunk, caseIds);
+            tests += chunk.size();
+            chunk.clear();
+        }
+
+        /**
+         * Un test présent plusieurs fois dans le rapport (tests paramétrés) : durées cumulées, l'échec l'emporte.
+         * Un build plus ancien, ou ce build déjà ingéré (ré-ingestion), ne change pas les compteurs du test.
+         */
+        private void apply(CaseState state, TestCaseResult result) {
+            boolean seenInThisReport = touched.containsKey(state.id);
+            if (!seenInThisReport && state.lastBuildNumber != null && state.lastBuildNumber >= buildNumber) return;
+            if (!seenInThisReport) {
+                touched.put(state.id, state);
+                state.lastBuildNumber = buildNumber;
+                state.lastStatus = result.status();
+                state.lastDurationMs = result.durationMs();
+                state.runCount++;
+            } else {
+                state.lastDurationMs += result.durationMs();
+                if (rank(result.status()) > rank(state.lastStatus)) state.lastStatus = result.status();
+            }
+        }
+
+        void finish() {
+            for (CaseState state : touched.values()) {
+                if (state.lastStatus == TestStatus.FAILED) {
+                    if (state.failingSince == null) state.failingSince = buildNumber;
+                    state.failureCount++;
+                } else if (state.lastStatus == TestStatus.PASSED) {
+                    state.failingSince = null;
+                }
+            }
+            testResultRepository.updateCases(touched.values());
+        }
+    }
+
+    private static int rank(TestStatus status) {
+        return status == TestStatus.FAILED ? 2 : status == TestStatus.PASSED ? 1 : 0;
+    }
+
+    private static long maxId(Map<String, CaseState> states) {
+        long max = 0;
+        for (CaseState state : states.values()) max = Math.max(max, state.id);
+        return max;
+    }
+}
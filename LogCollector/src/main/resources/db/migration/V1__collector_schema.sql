@@ -0,0 +1,96 @@
+-- Schéma du Collector géré par Flyway (spring.jpa.hibernate.ddl-auto=none) : le démarrage ne reconstruit plus
+-- les tables, une nouvelle instance lancée pendant un déploiement progressif ne fait que vérifier la version.
+-- Reprend à l'identique le schéma déduit des entités (index et contraintes déclarés dans @Table).
+-- Une base créée auparavant par Hibernate est adoptée telle quelle (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE pipeline (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        varchar(255) NOT NULL UNIQUE,
+    jenkins_url varchar(255),
+    created_at  timestamp(6),
+    updated_at  timestamp(6)
+);
+
+CREATE TABLE build (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pipeline_id  bigint  NOT NULL REFERENCES pipeline (id),
+    build_number integer NOT NULL,
+    status       varchar(255) CHECK (status IN ('SUCCESS', 'FAILURE', 'UNSTABLE', 'RUNNING', 'UNKNOWN')),
+    start_time   timestamp(6),
+    end_time     timestamp(6),
+    duration     bigint,
+    triggered_by varchar(255),
+    created_at   timestamp(6),
+    updated_at   timestamp(6),
+    CONSTRAINT uk_build_pipeline_number UNIQUE (pipeline_id, build_number)
+);
+
+CREATE TABLE log (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    build_id    bigint NOT NULL REFERENCES build (id),
+    log_level   varchar(255) CHECK (log_level IN ('INFO', 'WARN', 'ERROR', 'DEBUG')),
+    message     text   NOT NULL,
+    stack_trace text,
+    created_at  timestamp(6)
+);
+
+CREATE INDEX idx_log_build ON log (build_id);
+
+CREATE TABLE log_block (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    build_id   bigint     NOT NULL REFERENCES build (id),
+    first_line integer    NOT NULL,
+    line_count integer    NOT NULL,
+    level_mask integer    NOT NULL,
+    raw_size   integer    NOT NULL,
+    codec      varchar(8) NOT NULL,
+    levels     bytea      NOT NULL,
+    payload    bytea      NOT NULL,
+    created_at timestamp(6)
+);
+
+CREATE INDEX idx_log_block_build ON log_block (build_id, first_line);
+
+CREATE TABLE backfill_checkpoint (
+    job_name          varchar(255) PRIMARY KEY,
+    last_build_number integer NOT NULL,
+    completed         boolean NOT NULL,
+    updated_at        timestamp(6)
+);
+
+CREATE TABLE retention_policy (
+    pipeline_name    varchar(255) PRIMARY KEY,
+    keep_days        integer,
+    keep_failed_days integer,
+    keep_last_builds integer,
+    updated_at       timestamp(6)
+);
+
+CREATE TABLE test_case (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pipeline_id       bigint       NOT NULL REFERENCES pipeline (id),
+    class_name        varchar(512) NOT NULL,
+    name              varchar(512) NOT NULL,
+    last_status       smallint CHECK (last_status BETWEEN 0 AND 2),
+    last_build_number integer,
+    last_duration_ms  integer,
+    failing_since     integer,
+    run_count         integer,
+    failure_count     integer,
+    CONSTRAINT uk_test_case_name UNIQUE (pipeline_id, class_name, name)
+);
+
+CREATE INDEX idx_test_case_duration ON test_case (pipeline_id, last_duration_ms);
+CREATE INDEX idx_test_case_failing ON test_case (pipeline_id, failing_since);
+
+CREATE TABLE test_result (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    build_id     bigint   NOT NULL REFERENCES build (id),
+    test_case_id bigint   NOT NULL REFERENCES test_case (id),
+    status       smallint NOT NULL CHECK (status BETWEEN 0 AND 2),
+    duration_ms  integer  NOT NULL,
+    message      varchar(1000)
+);
+
+CREATE INDEX idx_test_result_case ON test_result (test_case_id, build_id);
+CREATE INDEX idx_test_result_build ON test_result (build_id, duration_ms);
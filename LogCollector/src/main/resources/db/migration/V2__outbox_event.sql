@@ -0,0 +1,10 @@
+-- Outbox des événements de changement (OutboxEvent) : écrits dans la transaction d'ingestion,
+-- publiés sur Kafka par OutboxService dans l'ordre des id puis supprimés (la clé primaire suffit).
+
+CREATE TABLE outbox_event (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_key  varchar(255) NOT NULL,
+    event_type varchar(32)  NOT NULL CHECK (event_type IN ('BUILD_INGESTED', 'BUILD_STATUS_CHANGED')),
+    payload    text         NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Dernier build (GET /builds/last, RecentBuildCache) : lecture du premier id de cet index au lieu d'un
+-- parcours de la table build.
+
+CREATE INDEX idx_build_created_at ON build (created_at);
@@ -0,0 +1,133 @@
+package com.example.LogCollector.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        primaryJdbc = new JdbcTemplate(h2("rw_primary"));
+        replicaJdbc = new JdbcTemplate(h2("rw_replica"));
+        for (JdbcTemplate db : new JdbcTemplate[]{primaryJdbc, replicaJdbc}) {
+            db.execute("DROP ALL OBJECTS");
+            db.execute("CREATE TABLE node (name VARCHAR(20))");
+            db.execute("CREATE TABLE replica_lag (ms BIGINT)");
+            db.update("INSERT INTO replica_lag VALUES (0)");
+        }
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+
+        routing = new ReadWriteRoutingDataSource(primaryJdbc.getDataSource(), replicaJdbc.getDataSource(),
+                "SELECT ms FROM replica_lag", 1000, 200);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private String node(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaOnceLagIsKnown() {
+        assertEquals("primary", node(readTx));
+
+        routing.checkReplicaLag();
+        assertEquals("replica", node(readTx));
+        assertEquals("primary", node(writeTx));
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaLagsOrIsDown() {
+        routing.checkReplicaLag();
+        replicaJdbc.update("UPDATE replica_lag SET ms = 5000");
+        routing.checkReplicaLag();
+        assertEquals(5000, routing.getReplicaLagMillis());
+        assertEquals("primary", node(readTx));
+
+        replicaJdbc.update("UPDATE replica_lag SET ms = 40");
+        routing.checkReplicaLag();
+        assertEquals("replica", node(readTx));
+
+        replicaJdbc.execute("DROP TABLE replica_lag");
+        routing.checkReplicaLag();
+        assertEquals(-1, routing.getReplicaLagMillis());
+        assertEquals("primary", node(readTx));
+    }
+
+    @Test
+    void threadReadsItsOwnWritesFromPrimary() throws Exception {
+        routing.checkReplicaLag();
+        writeTx.executeWithoutResult(status -> jdbc.update("INSERT INTO node VALUES ('written')"));
+
+        assertEquals(2, (int) readTx.execute(status -> jdbc.queryForObject("SELECT COUNT(*) FROM node", Integer.class)));
+        assertEquals("replica", CompletableFuture.supplyAsync(() -> node(readTx)).get());
+
+        Thread.sleep(250);
+        assertEquals("replica", node(readTx));
+        assertEquals(1L, routing.getStats().get("readYourWritesFallbacks"));
+    }
+
+    private int count(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT COUNT(*) FROM node", Integer.class));
+    }
+
+    @Test
+    void onPrimaryReadsSeeWritesOfOtherThreads() throws Exception {
+        routing.checkReplicaLag();
+        CompletableFuture.runAsync(() ->
+                writeTx.executeWithoutResult(status -> jdbc.update("INSERT INTO node VALUES ('written')"))).get();
+
+        assertEquals(1, count(readTx));
+        assertEquals(2, (int) ReadWriteRoutingDataSource.onPrimary(() -> count(readTx)));
+        assertEquals(1L, routing.getStats().get("forcedPrimaryReads"));
+    }
+
+    @Test
+    void credentialedConnectionsAreRoutedToo() throws Exception {
+        routing.checkReplicaLag();
+        String node = readTx.execute(status -> {
+            try (Connection connection = routing.getConnection("", "");
+                 ResultSet rs = connection.createStatement().executeQuery("SELECT name FROM node")) {
+                return rs.next() ? rs.getString(1) : null;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals("replica", node);
+        try (Connection connection = routing.getConnection("", "")) {
+            assertEquals("rw_primary", connection.getCatalog().toLowerCase());
+        }
+    }
+}
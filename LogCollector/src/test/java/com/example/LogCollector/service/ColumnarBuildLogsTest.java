@@ -0,0 +1,124 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.LogLevel;
+import com.example.LogCollector.dto.LogDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarBuildLogsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 17, 10, 30, 12);
+
+    private static LogLevel levelOf(int line) {
+        return line % 50 == 0 ? LogLevel.ERROR : line % 7 == 0 ? LogLevel.WARN : line % 11 == 0 ? LogLevel.DEBUG : LogLevel.INFO;
+    }
+
+    private static List<LogDTO> dtos(int lines) {
+        List<LogDTO> logs = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            String stackTrace = i == 100 ? "java.lang.IllegalStateException\n\tat Main.run(Main.java:3)" : null;
+            logs.add(new LogDTO(1000L + i, levelOf(i).name(), "[" + levelOf(i) + "] ligne " + i + " \"é\" ✓ \u0001",
+                    stackTrace, CREATED_AT));
+        }
+        return logs;
+    }
+
+    private static ColumnarBuildLogs columnar(List<LogDTO> logs, boolean withIds) {
+        ColumnarBuildLogs.Builder builder = ColumnarBuildLogs.builder(4);
+        long[] ids = new long[logs.size()];
+        for (int i = 0; i < logs.size(); i++) {
+            LogDTO log = logs.get(i);
+            ids[i] = log.getId();
+            builder.add(LogLevel.valueOf(log.getLogLevel()), log.getMessage(), log.getStackTrace(),
+                    log.getCreatedAt() != null ? RecentBuildCache.DTO_DATE.format(log.getCreatedAt()) : null);
+        }
+        return builder.build(withIds ? ids : null);
+    }
+
+    private static JsonSerializable json(ColumnarBuildLogs logs, int levelMask) {
+        return new JsonSerializable.Base() {
+            @Override
+            public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                logs.writeLogs(gen, levelMask);
+            }
+
+            @Override
+            public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+                    throws IOException {
+                serialize(gen, serializers);
+            }
+        };
+    }
+
+    @Test
+    void countsAndLinesByLevel() {
+        List<LogDTO> logs = dtos(1000);
+        ColumnarBuildLogs columnar = columnar(logs, true);
+
+        assertEquals(1000, columnar.size());
+        assertEquals(1000, columnar.count(ColumnarBuildLogs.ALL_LEVELS));
+        for (LogLevel level : LogLevel.values()) {
+            long expected = logs.stream().filter(log -> log.getLogLevel().equals(level.name())).count();
+            assertEquals(expected, columnar.count(ColumnarBuildLogs.mask(level)), level.name());
+        }
+        assertEquals(ColumnarBuildLogs.ALL_LEVELS, ColumnarBuildLogs.mask());
+        assertEquals(LogLevel.ERROR, columnar.level(950));
+        assertEquals(logs.get(999).getMessage(), columnar.message(999));
+    }
+
+    @Test
+    void writesTheSameJsonAsLogDtos() throws Exception {
+        List<LogDTO> logs = dtos(1000);
+        ColumnarBuildLogs columnar = columnar(logs, true);
+
+        // writeValueAsBytes : générateur UTF-8 (messages copiés depuis l'arena), writeValueAsString : générateur char
+        assertEquals(MAPPER.writeValueAsString(logs),
+                new String(MAPPER.writeValueAsBytes(json(columnar, ColumnarBuildLogs.ALL_LEVELS)), StandardCharsets.UTF_8));
+        assertEquals(MAPPER.writeValueAsString(logs), MAPPER.writeValueAsString(json(columnar, ColumnarBuildLogs.ALL_LEVELS)));
+    }
+
+    @Test
+    void levelFilterKeepsConsoleOrder() throws Exception {
+        List<LogDTO> logs = dtos(1000);
+        ColumnarBuildLogs columnar = columnar(logs, true);
+
+        List<LogDTO> important = logs.stream()
+                .filter(log -> log.getLogLevel().equals("ERROR") || log.getLogLevel().equals("WARN"))
+                .toList();
+        assertEquals(MAPPER.writeValueAsString(important), new String(MAPPER.writeValueAsBytes(
+                json(columnar, ColumnarBuildLogs.mask(LogLevel.ERROR, LogLevel.WARN))), StandardCharsets.UTF_8));
+        assertEquals("[]", MAPPER.writeValueAsString(json(columnar, 0)));
+    }
+
+    @Test
+    void keepsPerLineDatesAndMissingIds() throws Exception {
+        List<LogDTO> logs = dtos(130);
+        for (int i = 64; i < logs.size(); i++) logs.get(i).setCreatedAt(CREATED_AT.plusSeconds(1));
+        logs.get(129).setCreatedAt(null);
+        ColumnarBuildLogs columnar = columnar(logs, false);
+
+        logs.forEach(log -> log.setId(null));
+        assertEquals(MAPPER.writeValueAsString(logs),
+                new String(MAPPER.writeValueAsBytes(json(columnar, ColumnarBuildLogs.ALL_LEVELS)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsIdsOfAnotherLength() {
+        ColumnarBuildLogs.Builder builder = ColumnarBuildLogs.builder(2).add(LogLevel.INFO, "a", null, null);
+        assertThrows(IllegalArgumentException.class, () -> builder.build(new long[2]));
+    }
+}
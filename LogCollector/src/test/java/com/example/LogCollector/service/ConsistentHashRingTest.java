@@ -0,0 +1,65 @@
+package com.example.LogCollector.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    private static Map<String, String> owners(ConsistentHashRing ring) {
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) owners.put("job-" + i, ring.owner("job-" + i));
+        return owners;
+    }
+
+    @Test
+    void spreadsKeysEvenly() {
+        Map<String, Integer> counts = new HashMap<>();
+        owners(new ConsistentHashRing(List.of("a", "b", "c"), 160)).values().forEach(o -> counts.merge(o, 1, Integer::sum));
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > KEYS / 3 * 0.8 && count < KEYS / 3 * 1.2, "unbalanced: " + counts);
+        }
+    }
+
+    @Test
+    void joinOnlyMovesKeysToTheNewMember() {
+        Map<String, String> before = owners(new ConsistentHashRing(List.of("a", "b", "c"), 160));
+        Map<String, String> after = owners(new ConsistentHashRing(List.of("a", "b", "c", "d"), 160));
+
+        int moved = 0;
+        for (String key : before.keySet()) {
+            if (!before.get(key).equals(after.get(key))) {
+                assertEquals("d", after.get(key));
+                moved++;
+            }
+        }
+        assertTrue(moved > KEYS / 4 * 0.8 && moved < KEYS / 4 * 1.2, "moved " + moved);
+    }
+
+    @Test
+    void leaveOnlyMovesTheLeavingMembersKeys() {
+        Map<String, String> before = owners(new ConsistentHashRing(List.of("a", "b", "c"), 160));
+        Map<String, String> after = owners(new ConsistentHashRing(List.of("a", "c"), 160));
+
+        for (String key : before.keySet()) {
+            if (!before.get(key).equals("b")) assertEquals(before.get(key), after.get(key));
+        }
+    }
+
+    @Test
+    void ownershipDoesNotDependOnMemberOrder() {
+        assertEquals(owners(new ConsistentHashRing(List.of("c", "a", "b"), 160)),
+                owners(new ConsistentHashRing(List.of("a", "b", "c"), 160)));
+        assertNull(new ConsistentHashRing(List.of(), 160).owner("job-1"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.Entity.TestStatus;
+import com.example.LogCollector.service.JUnitReportParser.TestCaseResult;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JUnitReportParserTest {
+
+    private static List<TestCaseResult> parse(String xml) throws Exception {
+        List<TestCaseResult> results = new ArrayList<>();
+        JUnitReportParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), 40, results::add);
+        return results;
+    }
+
+    @Test
+    void readsJenkinsTestReportApi() throws Exception {
+        List<TestCaseResult> results = parse("""
+                <testResult _class="hudson.tasks.junit.TestResult"><suite><case>
+                  <className>com.acme.OrderTest</className><duration>1.25</duration><name>creates</name><status>PASSED</status>
+                </case><case>
+                  <className>com.acme.OrderTest</className><duration>0.003</duration>
+                  <errorDetails>expected: &lt;1&gt; but was: &lt;2&gt;</errorDetails><name>cancels</name><status>REGRESSION</status>
+                </case><case>
+                  <className>com.acme.PayTest</className><name>refund</name><status>SKIPPED</status>
+                </case></suite></testResult>""");
+
+        assertEquals(3, results.size());
+        assertEquals(new TestCaseResult("com.acme.OrderTest", "creates", TestStatus.PASSED, 1250, null), results.get(0));
+        assertEquals(new TestCaseResult("com.acme.OrderTest", "cancels", TestStatus.FAILED, 3, "expected: <1> but was: <2>"), results.get(1));
+        assertEquals(TestStatus.SKIPPED, results.get(2).status());
+        assertEquals(0, results.get(2).durationMs());
+    }
+
+    @Test
+    void readsJUnitXmlAndSkipsOutputs() throws Exception {
+        List<TestCaseResult> results = parse("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuites><testsuite name="com.acme.OrderTest" tests="4">
+                  <testcase classname="com.acme.OrderTest" name="creates" time="1,002.5"><system-out>noise</system-out></testcase>
+                  <testcase classname="com.acme.OrderTest" name="cancels" time="0.1">
+                    <failure message="boom" type="java.lang.AssertionError">stack trace</failure>
+                  </testcase>
+                  <testcase classname="com.acme.OrderTest" name="errors" time="0.2">
+                    <error type="java.lang.IllegalStateException"><![CDATA[java.lang.IllegalStateException: a very long stack trace message that is truncated]]></error>
+                  </testcase>
+                  <testcase classname="com.acme.OrderTest" name="ignored"><skipped/></testcase>
+                </testsuite></testsuites>""");
+
+        assertEquals(4, results.size());
+        assertEquals(new TestCaseResult("com.acme.OrderTest", "creates", TestStatus.PASSED, 1_002_500, null), results.get(0));
+        assertEquals(new TestCaseResult("com.acme.OrderTest", "cancels", TestStatus.FAILED, 100, "boom"), results.get(1));
+        assertEquals("java.lang.IllegalStateException: a very", results.get(2).message());
+        assertEquals(TestStatus.SKIPPED, results.get(3).status());
+        assertNull(results.get(3).message());
+    }
+
+    @Test
+    void streamsLargeReportsOneCaseAtATime() throws Exception {
+        int cases = 200_000;
+        String testCase = "<testcase classname=\"c.T\" name=\"t\" time=\"0.001\"><system-out>" + "x".repeat(1000) + "</system-out></testcase>";
+        byte[] one = testCase.getBytes(StandardCharsets.UTF_8);
+        List<InputStream> parts = new ArrayList<>();
+        parts.add(new ByteArrayInputStream("<testsuite>".getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < cases; i++) parts.add(new ByteArrayInputStream(one));
+        parts.add(new ByteArrayInputStream("</testsuite>".getBytes(StandardCharsets.UTF_8)));
+
+        long[] totalMillis = {0};
+        long count = JUnitReportParser.parse(new SequenceInputStream(Collections.enumeration(parts)), 40,
+                result -> totalMillis[0] += result.durationMs());
+
+        assertEquals(cases, count);
+        assertEquals(cases, totalMillis[0]);
+    }
+
+    @Test
+    void rejectsExternalEntities() {
+        assertThrows(XMLStreamException.class, () -> parse("""
+                <?xml version="1.0"?>
+                <!DOCTYPE r [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <testsuite><testcase classname="c.T" name="t"><failure message="x">&secret;</failure></testcase></testsuite>"""));
+    }
+}
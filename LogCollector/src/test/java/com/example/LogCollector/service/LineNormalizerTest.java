@@ -0,0 +1,43 @@
+package com.example.LogCollector.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineNormalizerTest {
+
+    @Test
+    void masksNumbersTimestampsAndHashes() {
+        assertEquals("[#-#-#T#:#:#.#Z] Checking out Revision <hex> (origin/main)",
+                LineNormalizer.normalize("  [2026-10-19T09:30:15.865Z] Checking out Revision 3f9c21ab7e (origin/main)\t"));
+        assertEquals("Tests run: #, Failures: #, Time elapsed: #.# s",
+                LineNormalizer.normalize("Tests run: 128, Failures: 0, Time elapsed: 12.5 s"));
+        // mots sans chiffre ou trop courts : conservés
+        assertEquals("BUILD SUCCESS deadbeef x#", LineNormalizer.normalize("BUILD SUCCESS deadbeef x86"));
+    }
+
+    @Test
+    void hashMatchesNormalizedText() {
+        String a = "Finished in 1234 ms (build 42, commit a1b2c3d4)";
+        String b = "Finished in 87 ms (build 43, commit 9f8e7d6c)";
+        assertEquals(LineNormalizer.hash(a), LineNormalizer.hash(b));
+        assertNotEquals(LineNormalizer.hash(a), LineNormalizer.hash("Failed in 87 ms (build 43, commit 9f8e7d6c)"));
+    }
+
+    @Test
+    void hashSetFindsEveryInsertedHashAcrossGrowth() {
+        LineHashSet set = new LineHashSet(4);
+        for (long i = -5000; i < 5000; i++) {
+            set.add(i * 0x9E3779B97F4A7C15L);
+        }
+        assertEquals(10000, set.size());
+        for (long i = -5000; i < 5000; i++) {
+            assertTrue(set.contains(i * 0x9E3779B97F4A7C15L));
+        }
+        assertFalse(set.contains(12345L));
+        assertTrue(set.contains(0L));
+    }
+}
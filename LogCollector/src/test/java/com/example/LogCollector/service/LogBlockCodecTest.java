@@ -0,0 +1,37 @@
+package com.example.LogCollector.service;
+
+import com.example.LogCollector.service.LogBlockCodec.Line;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogBlockCodecTest {
+
+    private List<Line> sampleLines() {
+        List<Line> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add(new Line("[INFO] Building module-" + (i % 7) + " step " + i + " ✓", null));
+        }
+        lines.add(new Line("ERROR: java.lang.IllegalStateException: boom", "\tat com.example.Foo.bar(Foo.java:42)"));
+        lines.add(new Line("", null));
+        return lines;
+    }
+
+    @Test
+    void gzipAndZstdRoundTripAllLines() {
+        List<Line> lines = sampleLines();
+        byte[] raw = LogBlockCodec.encodeLines(lines);
+
+        for (String codec : List.of(LogBlockCodec.GZIP, LogBlockCodec.ZSTD)) {
+            byte[] payload = LogBlockCodec.compress(raw, codec);
+            assertTrue(payload.length < raw.length / 4, codec + " should shrink repetitive console text");
+
+            byte[] decompressed = LogBlockCodec.decompress(payload, codec, raw.length);
+            assertEquals(lines, LogBlockCodec.decodeLines(decompressed, lines.size()));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.LogCollector.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineIngestionExecutorTest {
+
+    private final ExecutorService backing = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        backing.shutdownNow();
+    }
+
+    @Test
+    void tasksOfOnePipelineRunSeriallyInSubmissionOrder() throws Exception {
+        PipelineIngestionExecutor executor = new PipelineIngestionExecutor(backing, 4);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            futures.add(executor.submit("project5", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(n);
+                running.decrementAndGet();
+                return n;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void differentPipelinesRunInParallel() throws Exception {
+        PipelineIngestionExecutor executor = new PipelineIngestionExecutor(backing, 64);
+        // deux noms qui tombent dans des lanes différentes
+        String first = "job-a";
+        String second = "job-b";
+        assertTrue(Math.floorMod(first.hashCode(), 64) != Math.floorMod(second.hashCode(), 64));
+
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CompletableFuture<Boolean> a = executor.submit(first, () -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Boolean> b = executor.submit(second, () -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        });
+
+        assertTrue(a.get(10, TimeUnit.SECONDS));
+        assertTrue(b.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectedSubmissionKeepsTasksQueuedMeanwhileRunning() throws Exception {
+        CountDownLatch secondQueued = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Executor saturatedOnce = command -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    secondQueued.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new RejectedExecutionException("saturated");
+            }
+            backing.execute(command);
+        };
+        PipelineIngestionExecutor executor = new PipelineIngestionExecutor(saturatedOnce, 4);
+
+        CompletableFuture<Void> rejected = CompletableFuture.runAsync(() -> executor.execute("project5", () -> { }));
+        while (calls.get() == 0) Thread.onSpinWait();
+        // lane déjà en cours de drain pour le premier appelant : la tâche est seulement mise en file
+        CompletableFuture<String> queued = executor.submit("project5", () -> "ran");
+        secondQueued.countDown();
+
+        assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertEquals("ran", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("again", executor.submit("project5", () -> "again").get(5, TimeUnit.SECONDS));
+    }
+}
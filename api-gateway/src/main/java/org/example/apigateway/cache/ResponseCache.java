@@ -0,0 +1,135 @@
+package org.example.apigateway.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU des réponses GET servies par la gateway, borné en nombre d'entrées et en octets.
+ *
+ * Deux sortes d'entrées : les immuables (logs d'un build terminé) ne sortent que par éviction LRU ;
+ * les autres (listes, résumés) expirent après ttlMillis et sont invalidées quand le Collector signale
+ * un nouveau build ({@link #invalidateMutable()}).
+ */
+public class ResponseCache {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long stores;
+    private long evictions;
+    private long invalidations;
+
+    public ResponseCache(int maxEntries, long maxBytes, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** Réponse mise en cache : corps, ETag et les en-têtes nécessaires pour la rejouer. */
+    public record Entry(byte[] body, String etag, String contentType, String contentEncoding,
+                        boolean immutable, long createdAt) {}
+
+    public synchronized Entry get(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.immutable() && now - entry.createdAt() > ttlMillis) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        if (entry.body().length > maxBytes) return;
+        Entry previous = entries.put(key, entry);
+        bytes += entry.body().length - (previous != null ? previous.body().length : 0);
+        stores++;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().body().length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /** Supprime les entrées non immuables ; renvoie le nombre supprimé. */
+    public synchronized int invalidateMutable() {
+        int removed = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.immutable()) continue;
+            bytes -= entry.body().length;
+            it.remove();
+            removed++;
+        }
+        invalidations++;
+        return removed;
+    }
+
+    public synchronized int clear() {
+        int removed = entries.size();
+        entries.clear();
+        bytes = 0;
+        invalidations++;
+        return removed;
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) bytes -= removed.body().length;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", bytes);
+        stats.put("maxEntries", maxEntries);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("stores", stores);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+
+    /** ETag fort : 128 premiers bits du SHA-256 du corps. */
+    public static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** If-None-Match : "*", ou liste d'ETags séparés par des virgules ; comparaison faible (W/ ignoré). */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        String target = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(target)) return true;
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.apigateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache responseCache(@Value("${gateway.cache.max-entries:2000}") int maxEntries,
+                                       @Value("${gateway.cache.max-bytes:67108864}") long maxBytes,
+                                       @Value("${gateway.cache.ttl-seconds:300}") long ttlSeconds) {
+        return new ResponseCache(maxEntries, maxBytes, ttlSeconds * 1000);
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.apigateway.cache;
+
+import java.util.List;
+
+import org.example.apigateway.support.BoundedBody;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache des GET routés vers les backends, pour les chemins gateway.cache.paths (chemins vus par la gateway,
+ * avant StripPrefix).
+ *
+ * Chaque réponse 200 reçoit un ETag (celui du backend, sinon un hachage du corps) ; un If-None-Match
+ * correspondant reçoit 304 sans corps, qu'il vienne du cache ou d'une réponse fraîche. Une réponse marquée
+ * Cache-Control: immutable par le backend (données d'un build terminé) n'est jamais invalidée, seulement évincée ;
+ * le chemin seul ne suffit pas (un build inconnu ou RUNNING changera encore).
+ * Non mis en cache : statut autre que 200, Cache-Control no-store/private, Set-Cookie, corps au-delà de
+ * gateway.cache.max-entry-bytes (lu au plus jusqu'à cette taille, puis transmis en flux sans être gardé en mémoire). Une requête Cache-Control: no-cache repasse par le backend et rafraîchit l'entrée.
+ * En-tête X-Cache : HIT ou MISS.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+
+    private final ResponseCache cache;
+    private final boolean enabled;
+    private final List<PathPattern> paths;
+    private final int maxEntryBytes;
+
+    public ResponseCacheFilter(ResponseCache cache,
+                               @Value("${gateway.cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.cache.paths:}") List<String> paths,
+                               @Value("${gateway.cache.max-entry-bytes:2097152}") int maxEntryBytes) {
+        this.cache = cache;
+        this.enabled = enabled;
+        this.paths = parse(paths);
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Avant NettyWriteResponseFilter, pour décorer la réponse qu'il écrit, et avant la coalescence et la limite
+     * de débit : un HIT ne consomme rien.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.GET || !matchesAny(paths, request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        boolean revalidate = hasDirective(request.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL), "no-cache");
+        ResponseCache.Entry entry = revalidate ? null : cache.get(key, System.currentTimeMillis());
+        if (entry != null) {
+            return writeCached(exchange.getResponse(), entry, ifNoneMatch);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (!HttpStatus.OK.equals(getStatusCode())) {
+                    return super.writeWith(body);
+                }
+                if (getHeaders().getContentLength() > maxEntryBytes) {
+                    return writeUncached(body);
+                }
+                return BoundedBody.read(body, maxEntryBytes, bytes -> {
+                    HttpHeaders headers = getHeaders();
+                    String etag = headers.getETag() != null ? headers.getETag() : ResponseCache.etag(bytes);
+                    headers.setETag(etag);
+                    headers.set("X-Cache", "MISS");
+                    if (isStorable(headers)) {
+                        boolean immutable = hasDirective(headers.getFirst(HttpHeaders.CACHE_CONTROL), "immutable");
+                        cache.put(key, new ResponseCache.Entry(bytes, etag, headers.getFirst(HttpHeaders.CONTENT_TYPE),
+                                headers.getFirst(HttpHeaders.CONTENT_ENCODING), immutable, System.currentTimeMillis()));
+                    }
+                    if (ResponseCache.matches(ifNoneMatch, etag)) {
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        return getDelegate().setComplete();
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }, this::writeUncached);
+            }
+
+            /** Corps au-delà de max-entry-bytes : transmis en flux, sans ETag calculé ni mise en cache. */
+            private Mono<Void> writeUncached(Publisher<? extends DataBuffer> body) {
+                HttpHeaders headers = getHeaders();
+                headers.set("X-Cache", "MISS");
+                if (headers.getETag() != null && ResponseCache.matches(ifNoneMatch, headers.getETag())) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    return Flux.from(body).doOnNext(DataBufferUtils::release).then(getDelegate().setComplete());
+                }
+                return super.writeWith(body);
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, ResponseCache.Entry entry, String ifNoneMatch) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(entry.etag());
+        headers.set("X-Cache", "HIT");
+        if (ResponseCache.matches(ifNoneMatch, entry.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (entry.contentType() != null) headers.set(HttpHeaders.CONTENT_TYPE, entry.contentType());
+        if (entry.contentEncoding() != null) headers.set(HttpHeaders.CONTENT_ENCODING, entry.contentEncoding());
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    /** La représentation dépend aussi de l'encodage négocié (gzip ou non). */
+    private static String key(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String encoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        return request.getPath().value() + (query != null ? "?" + query : "") + "|" + (encoding != null ? encoding : "");
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        String cacheControl = headers.getFirst(HttpHeaders.CACHE_CONTROL);
+        return !headers.containsHeader(HttpHeaders.SET_COOKIE)
+                && !hasDirective(cacheControl, "no-store") && !hasDirective(cacheControl, "private");
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) return false;
+        for (String part : cacheControl.split(",")) {
+            if (part.trim().equalsIgnoreCase(directive)) return true;
+        }
+        return false;
+    }
+
+    private static boolean matchesAny(List<PathPattern> patterns, ServerHttpRequest request) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(request.getPath().pathWithinApplication())) return true;
+        }
+        return false;
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream().filter(p -> !p.isBlank()).map(p -> PARSER.parse(p.trim())).toList();
+    }
+}
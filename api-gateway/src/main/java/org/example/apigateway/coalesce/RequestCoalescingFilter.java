@@ -0,0 +1,176 @@
+package org.example.apigateway.coalesce;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.apigateway.support.BoundedBody;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Coalescence ("singleflight") des GET identiques simultanés sur gateway.coalesce.paths : la première requête
+ * part vers le backend, celles qui arrivent pendant qu'elle est en cours attendent sa réponse et la reçoivent
+ * telle quelle. Trois tableaux de bord ouverts en même temps sur un dump complet = un seul scan.
+ *
+ * Seule une réponse 200 d'au plus gateway.coalesce.max-body-bytes est partagée ; sinon (erreur, 429, corps trop
+ * gros, attente au-delà de gateway.coalesce.wait-timeout-ms) chaque requête en attente fait son propre appel.
+ * Le corps n'est gardé en mémoire que jusqu'à max-body-bytes : au-delà, la suite est transmise en flux.
+ * Il n'y a pas de cache ici : une requête arrivée après la réponse repart vers le backend.
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final List<String> HOP_BY_HOP = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH);
+
+    private final boolean enabled;
+    private final List<PathPattern> paths;
+    private final int maxBodyBytes;
+    private final Duration waitTimeout;
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public RequestCoalescingFilter(@Value("${gateway.coalesce.enabled:true}") boolean enabled,
+                                   @Value("${gateway.coalesce.paths:}") List<String> paths,
+                                   @Value("${gateway.coalesce.max-body-bytes:67108864}") int maxBodyBytes,
+                                   @Value("${gateway.coalesce.wait-timeout-ms:30000}") long waitTimeoutMillis) {
+        this.enabled = enabled;
+        this.paths = paths.stream().filter(p -> !p.isBlank()).map(p -> PathPatternParser.defaultInstance.parse(p.trim())).toList();
+        this.maxBodyBytes = maxBodyBytes;
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMillis);
+    }
+
+    /** Après le cache (un HIT ne coalesce rien), avant la limite de débit (les requêtes en attente ne consomment pas de jeton). */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.GET || !matches(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            coalesced.increment();
+            return leader.asMono()
+                    .timeout(waitTimeout, Mono.empty())
+                    .flatMap(shared -> write(exchange.getResponse(), shared).thenReturn(true))
+                    .switchIfEmpty(Mono.defer(() -> {
+                        fallbacks.increment();
+                        return chain.filter(exchange).thenReturn(true);
+                    }))
+                    .then();
+        }
+
+        upstreamCalls.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (!HttpStatus.OK.equals(getStatusCode())) {
+                    release(key, sink, null);
+                    return super.writeWith(body);
+                }
+                if (getHeaders().getContentLength() > maxBodyBytes) {
+                    release(key, sink, null);
+                    return super.writeWith(body);
+                }
+                return BoundedBody.read(body, maxBodyBytes, bytes -> {
+                    release(key, sink, new SharedResponse(copy(getHeaders()), bytes));
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }, stream -> {
+                    // trop gros pour être partagé : les requêtes en attente repartent dès maintenant vers le backend
+                    release(key, sink, null);
+                    return super.writeWith(stream);
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorated).build())
+                .doFinally(signal -> release(key, sink, null));
+    }
+
+    /** Libère la clé ; sans réponse partageable, les requêtes en attente repartent chacune vers le backend. */
+    private void release(String key, Sinks.One<SharedResponse> sink, SharedResponse shared) {
+        inFlight.remove(key, sink);
+        if (shared != null) {
+            sink.tryEmitValue(shared);
+        } else {
+            sink.tryEmitEmpty();
+        }
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(HttpStatus.OK);
+        HttpHeaders headers = response.getHeaders();
+        shared.headers().forEach((name, values) -> {
+            if (!headers.containsHeader(name)) headers.put(name, values);
+        });
+        headers.setContentLength(shared.body().length);
+        headers.set("X-Coalesced", "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static HttpHeaders copy(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (HOP_BY_HOP.stream().noneMatch(name::equalsIgnoreCase)) copy.put(name, List.copyOf(values));
+        });
+        return copy;
+    }
+
+    private static String key(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String encoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        return request.getPath().value() + (query != null ? "?" + query : "") + "|" + (encoding != null ? encoding : "");
+    }
+
+    private boolean matches(ServerHttpRequest request) {
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(request.getPath().pathWithinApplication())) return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("upstreamCalls", upstreamCalls.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private record SharedResponse(HttpHeaders headers, byte[] body) {}
+}
@@ -0,0 +1,27 @@
+package org.example.apigateway.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.netty.http.HttpProtocol;
+
+@Configuration
+public class UpstreamProtocolConfig {
+
+    /**
+     * Protocoles du client HTTP vers les services (gateway.upstream.protocols) : H2C,HTTP11 tente l'upgrade
+     * HTTP/1.1 -> h2c et reste en HTTP/1.1 si le service ne le propose pas ; H2C seul = h2c direct.
+     * Les requêtes vers un même service sont alors multiplexées sur quelques connexions.
+     * L'Accept-Encoding du client est transmis tel quel : le corps compressé par le service traverse
+     * la gateway sans être décompressé.
+     */
+    @Bean
+    public HttpClientCustomizer upstreamProtocols(@Value("${gateway.upstream.protocols:H2C,HTTP11}") List<HttpProtocol> protocols) {
+        HttpProtocol[] supported = protocols.toArray(HttpProtocol[]::new);
+        return httpClient -> httpClient.protocol(supported);
+    }
+}
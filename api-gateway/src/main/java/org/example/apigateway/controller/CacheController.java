@@ -0,0 +1,58 @@
+package org.example.apigateway.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.example.apigateway.cache.ResponseCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/gateway/cache")
+public class CacheController {
+
+    private final ResponseCache cache;
+    private final String invalidateToken;
+
+    public CacheController(ResponseCache cache, @Value("${gateway.cache.invalidate-token:}") String invalidateToken) {
+        this.cache = cache;
+        this.invalidateToken = invalidateToken;
+    }
+
+    /**
+     * Cache counters (hits, misses, evictions, size)
+     * GET /gateway/cache/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", cache.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Invalidation event, sent by the collector after each ingested build.
+     * scope=mutable drops lists and summaries, scope=all also drops immutable build data.
+     * POST /gateway/cache/invalidate?scope=mutable&token=xxx
+     */
+    @PostMapping("/invalidate")
+    public ResponseEntity<?> invalidate(@RequestParam(defaultValue = "mutable") String scope,
+                                        @RequestParam(required = false) String token) {
+        Map<String, Object> response = new HashMap<>();
+        if (!invalidateToken.isEmpty() && !invalidateToken.equals(token)) {
+            response.put("status", "error");
+            response.put("message", "Invalid token");
+            return ResponseEntity.status(403).body(response);
+        }
+        int removed = "all".equals(scope) ? cache.clear() : cache.invalidateMutable();
+        response.put("status", "success");
+        response.put("data", Map.of("scope", scope, "removed", removed));
+        return ResponseEntity.ok(response);
+    }
+}
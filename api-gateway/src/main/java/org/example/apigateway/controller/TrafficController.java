@@ -0,0 +1,62 @@
+package org.example.apigateway.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.example.apigateway.coalesce.RequestCoalescingFilter;
+import org.example.apigateway.loadbalancer.LoadTracker;
+import org.example.apigateway.ratelimit.RateLimitFilter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/gateway")
+public class TrafficController {
+
+    private final RequestCoalescingFilter coalescingFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final LoadTracker loadTracker;
+
+    public TrafficController(RequestCoalescingFilter coalescingFilter, RateLimitFilter rateLimitFilter,
+                             LoadTracker loadTracker) {
+        this.coalescingFilter = coalescingFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.loadTracker = loadTracker;
+    }
+
+    /**
+     * Coalescing counters (upstream calls, coalesced requests, fallbacks)
+     * GET /gateway/coalescing/stats
+     */
+    @GetMapping("/coalescing/stats")
+    public ResponseEntity<?> coalescingStats() {
+        return ok(coalescingFilter.getStats());
+    }
+
+    /**
+     * Allowed and rejected requests per rate limit rule
+     * GET /gateway/rate-limits/stats
+     */
+    @GetMapping("/rate-limits/stats")
+    public ResponseEntity<?> rateLimitStats() {
+        return ok(rateLimitFilter.getStats());
+    }
+
+    /**
+     * Per-instance load seen by the load balancer (in-flight requests, peak EWMA latency, advertised load, picks)
+     * GET /gateway/load-balancer/stats
+     */
+    @GetMapping("/load-balancer/stats")
+    public ResponseEntity<?> loadBalancerStats() {
+        return ok(loadTracker.getStats());
+    }
+
+    private static ResponseEntity<?> ok(Object data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", data);
+        return ResponseEntity.ok(response);
+    }
+}
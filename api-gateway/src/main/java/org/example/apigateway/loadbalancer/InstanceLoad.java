@@ -0,0 +1,76 @@
+package org.example.apigateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Charge observée d'une instance : requêtes en vol et temps de réponse en "peak EWMA" (un temps plus lent
+ * que la moyenne la remplace aussitôt, un temps plus rapide y entre avec un poids qui croît avec le temps
+ * écoulé depuis la dernière mesure, constante decayNanos). Sans mesure, la moyenne décroît vers 0 :
+ * une instance lente écartée finit par être réessayée.
+ */
+public class InstanceLoad {
+
+    private final long decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder picks = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private double ewmaNanos;
+    private long lastUpdateNanos;
+
+    public InstanceLoad(long decayNanos, long nowNanos) {
+        this.decayNanos = decayNanos;
+        this.lastUpdateNanos = nowNanos;
+    }
+
+    public void begin() {
+        inFlight.incrementAndGet();
+        picks.increment();
+    }
+
+    /** Fin d'une requête ; rttNanos < 0 pour une requête abandonnée (pas de mesure). */
+    public void end(long nowNanos, long rttNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        if (failed) failures.increment();
+        if (rttNanos >= 0) observe(nowNanos, rttNanos);
+    }
+
+    /**
+     * Coût de l'instance : temps de réponse attendu multiplié par (requêtes en vol + 1), pondéré par la charge
+     * annoncée. Une instance jamais mesurée mais déjà occupée coûte penaltyNanos par requête en vol.
+     */
+    public double cost(long nowNanos, double advertisedLoad, double loadWeight, long penaltyNanos) {
+        int pending = inFlight.get();
+        double latency = observe(nowNanos, 0);
+        double base = latency == 0 ? pending * (double) penaltyNanos : latency * (pending + 1);
+        return base * (1 + loadWeight * advertisedLoad);
+    }
+
+    private synchronized double observe(long nowNanos, long rttNanos) {
+        long elapsed = Math.max(0, nowNanos - lastUpdateNanos);
+        lastUpdateNanos = Math.max(lastUpdateNanos, nowNanos);
+        if (rttNanos > ewmaNanos) {
+            ewmaNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-(double) elapsed / decayNanos);
+            ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+        }
+        return ewmaNanos;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getPicks() {
+        return picks.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public synchronized double getEwmaMillis() {
+        return ewmaNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.apigateway.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * lb://service : peak EWMA + power of two choices pour tous les services (gateway.load-balancer.strategy=peak-ewma,
+ * défaut) ; round-robin, le défaut de Spring Cloud LoadBalancer, avec toute autre valeur.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.strategy", havingValue = "peak-ewma", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,86 @@
+package org.example.apigateway.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * Charge de chaque instance connue, partagée par les load balancers des services et par
+ * {@link LoadTrackingLifecycle} qui la met à jour à chaque requête routée.
+ */
+@Component
+public class LoadTracker {
+
+    /** Métadonnée Eureka dans laquelle une instance annonce sa charge (nombre >= 0, 1 = saturée). */
+    public static final String LOAD_METADATA = "load";
+
+    private final long decayNanos;
+    private final double loadWeight;
+    private final long penaltyNanos;
+    private final Map<String, InstanceLoad> instances = new ConcurrentHashMap<>();
+    // dernière version vue de chaque instance (métadonnées), pour les stats
+    private final Map<String, ServiceInstance> lastSeen = new ConcurrentHashMap<>();
+
+    public LoadTracker(@Value("${gateway.load-balancer.decay-ms:10000}") long decayMillis,
+                       @Value("${gateway.load-balancer.load-weight:1.0}") double loadWeight,
+                       @Value("${gateway.load-balancer.penalty-ms:1000}") long penaltyMillis) {
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMillis);
+        this.loadWeight = loadWeight;
+        this.penaltyNanos = TimeUnit.MILLISECONDS.toNanos(penaltyMillis);
+    }
+
+    public InstanceLoad get(ServiceInstance instance) {
+        String key = key(instance);
+        lastSeen.put(key, instance);
+        return instances.computeIfAbsent(key, k -> new InstanceLoad(decayNanos, System.nanoTime()));
+    }
+
+    public double cost(ServiceInstance instance, long nowNanos) {
+        return get(instance).cost(nowNanos, advertisedLoad(instance), loadWeight, penaltyNanos);
+    }
+
+    /** Une requête en échec compte au moins penalty-ms, pour écarter une instance qui répond vite mais en erreur. */
+    public long failureRttNanos(long rttNanos) {
+        return Math.max(rttNanos, penaltyNanos);
+    }
+
+    static double advertisedLoad(ServiceInstance instance) {
+        String value = instance.getMetadata() != null ? instance.getMetadata().get(LOAD_METADATA) : null;
+        if (value == null || value.isBlank()) return 0;
+        try {
+            double load = Double.parseDouble(value.trim());
+            return Double.isFinite(load) && load > 0 ? load : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static String key(ServiceInstance instance) {
+        String id = instance.getInstanceId();
+        return instance.getServiceId() + "/" + (id != null ? id : instance.getHost() + ":" + instance.getPort());
+    }
+
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        instances.forEach((key, load) -> {
+            ServiceInstance instance = lastSeen.get(key);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("instance", key);
+            entry.put("uri", instance.getUri().toString());
+            entry.put("inFlight", load.getInFlight());
+            entry.put("ewmaMs", Math.round(load.getEwmaMillis() * 10) / 10.0);
+            entry.put("advertisedLoad", advertisedLoad(instance));
+            entry.put("picks", load.getPicks());
+            entry.put("failures", load.getFailures());
+            stats.add(entry);
+        });
+        return stats;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mesure chaque requête routée par un load balancer : requête en vol dès le choix de l'instance, temps de
+ * réponse complet (corps compris) à la fin. Un 5xx ou une erreur de connexion compte comme une requête lente.
+ */
+@Component
+public class LoadTrackingLifecycle implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final String START_ATTRIBUTE = LoadTrackingLifecycle.class.getName() + ".start";
+
+    private final LoadTracker tracker;
+
+    public LoadTrackingLifecycle(LoadTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) return;
+        tracker.get(lbResponse.getServer()).begin();
+        request.getContext().getClientRequest().getAttributes().put(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        Response<ServiceInstance> lbResponse = context.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) return;
+        Object start = context.getLoadBalancerRequest().getContext().getClientRequest().getAttributes().get(START_ATTRIBUTE);
+        if (!(start instanceof Long startNanos)) return;
+
+        long now = System.nanoTime();
+        InstanceLoad load = tracker.get(lbResponse.getServer());
+        if (context.status() == CompletionContext.Status.DISCARD) {
+            load.end(now, -1, false);
+            return;
+        }
+        ResponseData response = context.getClientResponse();
+        boolean failed = context.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+        long rtt = now - startNanos;
+        load.end(now, failed ? tracker.failureRttNanos(rtt) : rtt, failed);
+    }
+}
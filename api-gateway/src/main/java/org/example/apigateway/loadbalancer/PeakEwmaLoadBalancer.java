@@ -0,0 +1,58 @@
+package org.example.apigateway.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Power of two choices : deux instances tirées au hasard, la moins coûteuse au sens de {@link InstanceLoad#cost}
+ * l'emporte. Pas de tri de toutes les instances ni d'état partagé à verrouiller, et une instance à peine
+ * meilleure que les autres ne reçoit pas tout le trafic d'un coup (contrairement au "moins chargé" strict).
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final LoadTracker tracker;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId, LoadTracker tracker) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.tracker = tracker;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            System.err.println("⚠️ No instance available for " + serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) return new DefaultResponse(instances.get(0));
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) second++;
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        long now = System.nanoTime();
+        return new DefaultResponse(tracker.cost(b, now) < tracker.cost(a, now) ? b : a);
+    }
+}
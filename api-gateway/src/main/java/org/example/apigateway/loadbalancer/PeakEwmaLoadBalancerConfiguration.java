@@ -0,0 +1,24 @@
+package org.example.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration du contexte LoadBalancer de chaque service (référencée par {@link LoadBalancerConfig}) :
+ * volontairement sans @Configuration, pour ne pas être chargée dans le contexte principal.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+                                                                     LoadBalancerClientFactory clientFactory,
+                                                                     LoadTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, tracker);
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.apigateway.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.apigateway.ratelimit.RateLimitProperties.Rule;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Limites de débit en mémoire (token buckets), par route et par client, selon gateway.rate-limit.rules.
+ *
+ * Placé après le cache et la coalescence : seules les requêtes qui partiraient réellement vers un backend
+ * consomment un jeton. Au-delà de la limite, réponse 429 immédiate avec Retry-After (secondes) et
+ * X-RateLimit-Scope (route ou client), sans attente côté gateway ni file sur les backends.
+ * Client : adresse distante, ou premier X-Forwarded-For si gateway.rate-limit.trust-forwarded-for=true.
+ *
+ * Au plus gateway.rate-limit.max-clients seaux par règle : au-delà, les nouveaux clients partagent un seau
+ * de débordement (même débit qu'un client), si bien que des adresses tournantes ne font pas grossir la mémoire.
+ * Les seaux redevenus pleins (clients inactifs) sont oubliés toutes les gateway.rate-limit.sweep-interval-ms,
+ * jamais à chaque requête.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final boolean enabled;
+    private final int maxClients;
+    private final long sweepIntervalNanos;
+    private final boolean trustForwardedFor;
+    private final List<CompiledRule> rules = new ArrayList<>();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.enabled = properties.enabled();
+        this.maxClients = properties.maxClients();
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.sweepIntervalMs());
+        this.trustForwardedFor = properties.trustForwardedFor();
+        long now = System.nanoTime();
+        for (Rule rule : properties.rules()) {
+            rules.add(new CompiledRule(rule, now));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) return chain.filter(exchange);
+        ServerHttpRequest request = exchange.getRequest();
+        CompiledRule rule = find(request);
+        if (rule == null) return chain.filter(exchange);
+
+        long now = System.nanoTime();
+        TokenBucket clientBucket = rule.clientBucket(clientKey(request), now);
+        if (clientBucket != null) {
+            long wait = clientBucket.tryAcquire(now);
+            if (wait > 0) return reject(exchange, rule, "client", wait);
+        }
+        if (rule.routeBucket != null) {
+            long wait = rule.routeBucket.tryAcquire(now);
+            if (wait > 0) {
+                if (clientBucket != null) clientBucket.refund();
+                return reject(exchange, rule, "route", wait);
+            }
+        }
+        rule.allowed.increment();
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, CompiledRule rule, String scope, long waitNanos) {
+        rule.rejected.increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.getHeaders().set("X-RateLimit-Scope", scope);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"status\":\"error\",\"message\":\"Too many requests (" + scope + " limit), retry in "
+                + retryAfter + "s\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private CompiledRule find(ServerHttpRequest request) {
+        for (CompiledRule rule : rules) {
+            if (rule.pattern.matches(request.getPath().pathWithinApplication())) return rule;
+        }
+        return null;
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeaders().getFirst("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) return forwarded.split(",")[0].trim();
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("path", rule.rule.path());
+            entry.put("routePerSecond", rule.rule.routePerSecond());
+            entry.put("clientPerSecond", rule.rule.clientPerSecond());
+            entry.put("allowed", rule.allowed.sum());
+            entry.put("rejected", rule.rejected.sum());
+            entry.put("trackedClients", rule.trackedClients.get());
+            entry.put("overflowRequests", rule.overflowRequests.sum());
+            stats.add(entry);
+        }
+        return stats;
+    }
+
+    private final class CompiledRule {
+
+        final Rule rule;
+        final PathPattern pattern;
+        final TokenBucket routeBucket;
+        final Map<String, TokenBucket> clients = new ConcurrentHashMap<>();
+        // réservé avant l'insertion : la taille de clients ne dépasse jamais maxClients
+        final AtomicInteger trackedClients = new AtomicInteger();
+        final TokenBucket overflowBucket;
+        final AtomicLong nextSweepNanos;
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder overflowRequests = new LongAdder();
+
+        CompiledRule(Rule rule, long now) {
+            this.rule = rule;
+            this.pattern = PathPatternParser.defaultInstance.parse(rule.path());
+            this.routeBucket = rule.routePerSecond() != null
+                    ? new TokenBucket(rule.routePerSecond(), burst(rule.routeBurst(), rule.routePerSecond()), now)
+                    : null;
+            this.overflowBucket = rule.clientPerSecond() != null
+                    ? new TokenBucket(rule.clientPerSecond(), burst(rule.clientBurst(), rule.clientPerSecond()), now)
+                    : null;
+            this.nextSweepNanos = new AtomicLong(now + sweepIntervalNanos);
+        }
+
+        TokenBucket clientBucket(String client, long now) {
+            if (rule.clientPerSecond() == null) return null;
+            sweepIfDue(now);
+            TokenBucket bucket = clients.get(client);
+            if (bucket != null) return bucket;
+
+            if (trackedClients.incrementAndGet() > maxClients) {
+                trackedClients.decrementAndGet();
+                overflowRequests.increment();
+                return overflowBucket;
+            }
+            TokenBucket created = new TokenBucket(rule.clientPerSecond(), burst(rule.clientBurst(), rule.clientPerSecond()), now);
+            TokenBucket existing = clients.putIfAbsent(client, created);
+            if (existing != null) {
+                trackedClients.decrementAndGet();
+                return existing;
+            }
+            return created;
+        }
+
+        /** Un seul thread balaie, au plus une fois par intervalle ; seaux pleins = clients inactifs, rien à mémoriser. */
+        private void sweepIfDue(long now) {
+            long due = nextSweepNanos.get();
+            if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + sweepIntervalNanos)) return;
+            for (Map.Entry<String, TokenBucket> entry : clients.entrySet()) {
+                if (entry.getValue().isFull(now) && clients.remove(entry.getKey(), entry.getValue())) {
+                    trackedClients.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static int burst(Integer burst, double perSecond) {
+        return burst != null ? burst : (int) Math.max(1, Math.ceil(perSecond));
+    }
+}
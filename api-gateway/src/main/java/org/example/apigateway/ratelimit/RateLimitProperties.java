@@ -0,0 +1,25 @@
+package org.example.apigateway.ratelimit;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * gateway.rate-limit.* : règles évaluées dans l'ordre, la première dont le chemin correspond s'applique.
+ * Chaque règle a un seau partagé par tous les clients (route-*) et un seau par client (client-*) ;
+ * un débit absent (null) désactive ce seau.
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(Boolean enabled, Integer maxClients, Long sweepIntervalMs, Boolean trustForwardedFor,
+                                  List<Rule> rules) {
+
+    public RateLimitProperties {
+        enabled = enabled == null || enabled;
+        maxClients = maxClients != null ? maxClients : 10_000;
+        sweepIntervalMs = sweepIntervalMs != null ? sweepIntervalMs : 10_000L;
+        trustForwardedFor = trustForwardedFor != null && trustForwardedFor;
+        rules = rules != null ? rules : List.of();
+    }
+
+    public record Rule(String path, Double routePerSecond, Integer routeBurst, Double clientPerSecond, Integer clientBurst) {}
+}
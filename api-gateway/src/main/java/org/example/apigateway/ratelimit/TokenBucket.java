@@ -0,0 +1,52 @@
+package org.example.apigateway.ratelimit;
+
+/**
+ * Token bucket non bloquant : {@code perSecond} jetons par seconde, au plus {@code burst} en réserve.
+ * tryAcquire() ne fait jamais attendre : il renvoie le délai avant le prochain jeton, que la gateway
+ * transmet au client (Retry-After) au lieu de mettre la requête en file.
+ */
+public class TokenBucket {
+
+    private final double perNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double perSecond, int burst, long nowNanos) {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("perSecond must be > 0 and burst >= 1");
+        }
+        this.perNano = perSecond / 1_000_000_000.0;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /** @return 0 si un jeton est pris, sinon le nombre de nanosecondes avant qu'un jeton soit disponible */
+    public synchronized long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        return (long) Math.ceil((1.0 - tokens) / perNano);
+    }
+
+    /** Rend un jeton pris pour une requête finalement refusée par une autre limite. */
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1.0);
+    }
+
+    /** Seau plein : plus aucune trace de l'activité du client, il peut être oublié. */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * perNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.apigateway.support;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecture d'un corps de réponse plafonnée à maxBytes octets en mémoire.
+ *
+ * Tant que le plafond n'est pas dépassé, les buffers sont gardés ; à la fin du corps, whole reçoit ses octets.
+ * Dès que le plafond est dépassé, tooLarge reçoit le corps complet en flux (buffers déjà lus, puis la suite
+ * au fil de l'eau) : rien de plus n'est accumulé.
+ */
+public final class BoundedBody {
+
+    private BoundedBody() {
+    }
+
+    public static Mono<Void> read(Publisher<? extends DataBuffer> body, int maxBytes,
+                                  Function<byte[], Mono<Void>> whole,
+                                  Function<Flux<DataBuffer>, Mono<Void>> tooLarge) {
+        return Flux.defer(() -> {
+            long[] size = {0};
+            return Flux.from(body).cast(DataBuffer.class)
+                    // premier lot : tout le corps, ou ses buffers jusqu'au dépassement ; ensuite un buffer par lot
+                    .bufferUntil(buffer -> (size[0] += buffer.readableByteCount()) > maxBytes)
+                    .switchOnFirst((first, chunks) -> {
+                        if (first.isOnError()) {
+                            return Mono.error(first.getThrowable());
+                        }
+                        if (size[0] > maxBytes) {
+                            return tooLarge.apply(chunks.concatMapIterable(Function.identity()));
+                        }
+                        return whole.apply(first.hasValue() ? toBytes(first.get()) : new byte[0]);
+                    });
+        }).then();
+    }
+
+    private static byte[] toBytes(List<DataBuffer> buffers) {
+        int length = 0;
+        for (DataBuffer buffer : buffers) {
+            length += buffer.readableByteCount();
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int count = buffer.readableByteCount();
+            buffer.read(bytes, offset, count);
+            offset += count;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+}
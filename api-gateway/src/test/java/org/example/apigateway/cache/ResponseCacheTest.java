@@ -0,0 +1,63 @@
+package org.example.apigateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+    private static ResponseCache.Entry entry(String body, boolean immutable, long createdAt) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new ResponseCache.Entry(bytes, ResponseCache.etag(bytes), "application/json", null, immutable, createdAt);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByCountAndBytes() {
+        ResponseCache cache = new ResponseCache(2, 10, 60_000);
+        cache.put("a", entry("aaaa", false, 0));
+        cache.put("b", entry("bbbb", false, 0));
+        cache.get("a", 0);
+        cache.put("c", entry("cccc", false, 0));
+        assertNull(cache.get("b", 0));
+        assertNotNull(cache.get("a", 0));
+
+        cache.put("d", entry("dddddddd", false, 0)); // 4 + 8 > 10 octets
+        assertNull(cache.get("a", 0));
+        assertNull(cache.get("c", 0));
+        assertNotNull(cache.get("d", 0));
+        assertEquals(8L, cache.getStats().get("bytes"));
+    }
+
+    @Test
+    void invalidationAndTtlSpareImmutableEntries() {
+        ResponseCache cache = new ResponseCache(10, 1000, 1000);
+        cache.put("/builds", entry("[1,2]", false, 0));
+        cache.put("/builds/1/logs", entry("log", true, 0));
+        assertEquals(1, cache.invalidateMutable());
+        assertNull(cache.get("/builds", 0));
+        assertNotNull(cache.get("/builds/1/logs", 0));
+
+        cache.put("/builds", entry("[1,2,3]", false, 0));
+        assertNull(cache.get("/builds", 1001));
+        assertNotNull(cache.get("/builds/1/logs", 1_000_000));
+    }
+
+    @Test
+    void etagsMatchIfNoneMatchLists() {
+        String etag = ResponseCache.etag("body".getBytes(StandardCharsets.UTF_8));
+        assertEquals(etag, ResponseCache.etag("body".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(etag, ResponseCache.etag("other".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(ResponseCache.matches("\"x\", " + etag, etag));
+        assertTrue(ResponseCache.matches("W/" + etag, etag));
+        assertTrue(ResponseCache.matches("*", etag));
+        assertFalse(ResponseCache.matches("\"x\"", etag));
+        assertFalse(ResponseCache.matches(null, etag));
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.apigateway.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private static ServiceInstance instance(String id, Map<String, String> metadata) {
+        return new DefaultServiceInstance(id, "log-collector", "localhost", 8081, false, metadata);
+    }
+
+    @Test
+    void peakEwmaJumpsOnSlowResponsesAndDecaysWithTime() {
+        InstanceLoad load = new InstanceLoad(10_000 * MS, 0);
+        load.begin();
+        load.end(0, 100 * MS, false);
+        assertEquals(100.0, load.getEwmaMillis(), 0.001);
+
+        load.begin();
+        load.end(10 * MS, 500 * MS, false);
+        assertEquals(500.0, load.getEwmaMillis(), 0.001);
+
+        // une constante de temps plus tard, une réponse rapide ne garde que 1/e de l'ancienne moyenne
+        load.begin();
+        load.end(10_010 * MS, 0, false);
+        assertEquals(500.0 / Math.E, load.getEwmaMillis(), 0.01);
+    }
+
+    @Test
+    void costGrowsWithInFlightRequestsAndAdvertisedLoad() {
+        InstanceLoad load = new InstanceLoad(10_000 * MS, 0);
+        assertEquals(0.0, load.cost(0, 0, 1, 1000 * MS));
+        load.begin();
+        assertEquals(1000.0 * MS, load.cost(0, 0, 1, 1000 * MS)); // jamais mesurée mais occupée
+        load.end(0, 20 * MS, false);
+
+        load.begin();
+        load.begin();
+        assertEquals(3 * 20.0 * MS, load.cost(0, 0, 1, 1000 * MS), 1);
+        assertEquals(3 * 20.0 * MS * 1.5, load.cost(0, 0.5, 1, 1000 * MS), 1);
+    }
+
+    @Test
+    void avoidsSlowAndLoadedInstances() {
+        LoadTracker tracker = new LoadTracker(10_000, 1.0, 1000);
+        ServiceInstance fast = instance("fast", Map.of());
+        ServiceInstance slow = instance("slow", Map.of());
+        ServiceInstance busy = instance("busy", Map.of("load", "4"));
+        long now = System.nanoTime();
+        for (ServiceInstance instance : List.of(fast, busy)) {
+            tracker.get(instance).begin();
+            tracker.get(instance).end(now, 10 * MS, false);
+        }
+        tracker.get(slow).begin();
+        tracker.get(slow).end(now, 800 * MS, false);
+
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, "log-collector", tracker);
+        List<ServiceInstance> instances = List.of(fast, slow, busy);
+        int fastPicks = 0;
+        for (int i = 0; i < 300; i++) {
+            ServiceInstance chosen = balancer.choose(instances).getServer();
+            assertNotSame(slow, chosen);
+            if (chosen == fast) fastPicks++;
+        }
+        // fast gagne chaque tirage où il figure (2 sur 3) ; busy (5x plus cher) gagne face à slow
+        assertTrue(fastPicks > 150, "fast picked " + fastPicks + " times");
+    }
+
+    @Test
+    void ignoresInvalidAdvertisedLoad() {
+        assertEquals(0.0, LoadTracker.advertisedLoad(instance("a", Map.of("load", "n/a"))));
+        assertEquals(0.0, LoadTracker.advertisedLoad(instance("b", Map.of("load", "-1"))));
+        assertEquals(0.75, LoadTracker.advertisedLoad(instance("c", Map.of("load", " 0.75 "))));
+    }
+}
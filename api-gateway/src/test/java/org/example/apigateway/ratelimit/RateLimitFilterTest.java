@@ -0,0 +1,65 @@
+package org.example.apigateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+class RateLimitFilterTest {
+
+    private static RateLimitFilter filter(int maxClients, long sweepIntervalMs) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule("/api/**", null, null, 0.001, 1);
+        return new RateLimitFilter(new RateLimitProperties(true, maxClients, sweepIntervalMs, false, List.of(rule)));
+    }
+
+    private static HttpStatus call(RateLimitFilter filter, String client) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/builds")
+                .remoteAddress(new InetSocketAddress(client, 40000)));
+        filter.filter(exchange, e -> {
+            e.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        }).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private static Map<String, Object> stats(RateLimitFilter filter) {
+        return filter.getStats().get(0);
+    }
+
+    @Test
+    void newClientsBeyondMaxClientsShareOneOverflowBucket() {
+        RateLimitFilter filter = filter(2, 60_000);
+        assertEquals(HttpStatus.OK, call(filter, "10.0.0.1"));
+        assertEquals(HttpStatus.OK, call(filter, "10.0.0.2"));
+
+        // table pleine de clients actifs : les suivants ne sont pas mémorisés
+        assertEquals(HttpStatus.OK, call(filter, "10.0.0.3"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, call(filter, "10.0.0.4"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, call(filter, "10.0.0.1"));
+        assertEquals(2, stats(filter).get("trackedClients"));
+        assertEquals(2L, stats(filter).get("overflowRequests"));
+    }
+
+    @Test
+    void idleClientsAreSweptOnTheNextInterval() throws Exception {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule("/api/**", null, null, 1000.0, 1);
+        RateLimitFilter filter = new RateLimitFilter(new RateLimitProperties(true, 2, 20L, false, List.of(rule)));
+        call(filter, "10.0.0.1");
+        call(filter, "10.0.0.2");
+        assertEquals(2, stats(filter).get("trackedClients"));
+
+        Thread.sleep(50);
+        // seaux redevenus pleins : balayés, le nouveau client a sa propre place
+        call(filter, "10.0.0.3");
+        assertEquals(1, stats(filter).get("trackedClients"));
+        assertEquals(0L, stats(filter).get("overflowRequests"));
+    }
+}
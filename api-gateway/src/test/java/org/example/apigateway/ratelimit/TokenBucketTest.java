@@ -0,0 +1,57 @@
+package org.example.apigateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenReportsWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+
+        assertTrue(bucket.tryAcquire(SECOND / 4) > 0);
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void refillIsCappedAtBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(60 * SECOND));
+
+        assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        assertTrue(bucket.tryAcquire(60 * SECOND) > 0);
+    }
+
+    @Test
+    void slowRateAndRefund() {
+        TokenBucket bucket = new TokenBucket(0.2, 1, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(5 * SECOND, bucket.tryAcquire(0));
+
+        bucket.refund();
+        assertEquals(0, bucket.tryAcquire(0));
+        bucket.refund();
+        bucket.refund();
+        assertTrue(bucket.isFull(0));
+    }
+
+    @Test
+    void rejectsInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+}
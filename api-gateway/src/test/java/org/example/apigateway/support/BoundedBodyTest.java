@@ -0,0 +1,83 @@
+package org.example.apigateway.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class BoundedBodyTest {
+
+    private static DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mono<Void> collect(Flux<DataBuffer> body, ByteArrayOutputStream out) {
+        return body.doOnNext(buffer -> {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            out.writeBytes(bytes);
+            DataBufferUtils.release(buffer);
+        }).then();
+    }
+
+    @Test
+    void bodyWithinLimitIsJoined() {
+        AtomicReference<byte[]> whole = new AtomicReference<>();
+        BoundedBody.read(Flux.just(buffer("abc"), buffer("def"), buffer("gh")), 8,
+                bytes -> Mono.fromRunnable(() -> whole.set(bytes)),
+                body -> Mono.error(new AssertionError("streamed"))).block(Duration.ofSeconds(5));
+
+        assertArrayEquals("abcdefgh".getBytes(StandardCharsets.UTF_8), whole.get());
+    }
+
+    @Test
+    void emptyBodyIsJoined() {
+        AtomicReference<byte[]> whole = new AtomicReference<>();
+        BoundedBody.read(Flux.empty(), 8, bytes -> Mono.fromRunnable(() -> whole.set(bytes)),
+                body -> Mono.error(new AssertionError("streamed"))).block(Duration.ofSeconds(5));
+
+        assertEquals(0, whole.get().length);
+    }
+
+    @Test
+    void largerBodyIsStreamedAsSoonAsTheLimitIsPassed() {
+        Sinks.Many<DataBuffer> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicReference<byte[]> whole = new AtomicReference<>();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        AtomicReference<Boolean> streaming = new AtomicReference<>(false);
+
+        Mono<Void> done = BoundedBody.read(upstream.asFlux(), 8, bytes -> Mono.fromRunnable(() -> whole.set(bytes)),
+                body -> {
+                    streaming.set(true);
+                    return collect(body, streamed);
+                }).cache();
+        done.subscribe();
+
+        upstream.tryEmitNext(buffer("abcde"));
+        upstream.tryEmitNext(buffer("fghij"));
+        // plafond dépassé : le corps part en flux avant sa fin
+        assertTrue(streaming.get());
+        assertEquals("abcdefghij", streamed.toString(StandardCharsets.UTF_8));
+
+        upstream.tryEmitNext(buffer("klm"));
+        upstream.tryEmitComplete();
+        done.block(Duration.ofSeconds(5));
+
+        assertNull(whole.get());
+        assertEquals("abcdefghijklm", streamed.toString(StandardCharsets.UTF_8));
+    }
+}
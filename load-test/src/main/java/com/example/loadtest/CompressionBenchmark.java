@@ -0,0 +1,104 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Octets sur le fil et latence des lectures selon l'encodage : JSON indenté sans compression (ancien défaut),
+ * JSON compact, compact + gzip, compact + gzip en h2c. Chaque chemin de --paths est lu --requests fois par
+ * variante, à la suite, sur --target-url (un service, ou la gateway avec le préfixe du service).
+ * Le client ne décompresse pas : la taille mesurée est celle du corps transmis.
+ *
+ * Exemple : --mode=compression --target-url=http://localhost:8080/log-collector --paths=/api/jenkins-logs/builds/1/logs
+ */
+public class CompressionBenchmark {
+
+    private record Variant(String name, boolean pretty, boolean gzip, HttpClient.Version version) {}
+
+    private static final List<Variant> VARIANTS = List.of(
+            new Variant("pretty, identity, HTTP/1.1", true, false, HttpClient.Version.HTTP_1_1),
+            new Variant("compact, identity, HTTP/1.1", false, false, HttpClient.Version.HTTP_1_1),
+            new Variant("compact, gzip, HTTP/1.1", false, true, HttpClient.Version.HTTP_1_1),
+            new Variant("compact, gzip, h2c", false, true, HttpClient.Version.HTTP_2));
+
+    private final LoadTestConfig config;
+
+    public CompressionBenchmark(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void run() throws Exception {
+        String target = config.get("target-url", config.collectorUrl());
+        int requests = config.getInt("requests", 50);
+        int warmup = config.getInt("warmup", 5);
+
+        List<String> rows = new ArrayList<>();
+        for (String path : config.get("paths", "/api/jenkins-logs/builds/1/logs,/api/jenkins-logs/pipelines").split(",")) {
+            long baselineBytes = -1;
+            double baselineP50 = -1;
+            for (Variant variant : VARIANTS) {
+                Result result = measure(target + path.trim(), variant, requests, warmup);
+                if (baselineBytes < 0) {
+                    baselineBytes = result.bytes;
+                    baselineP50 = result.latency.percentileMillis(50);
+                }
+                rows.add(String.format("%-40s | %-28s | %-8s | %-5s | %11d | %6.1f%% | %8.1f | %8.1f | %+6.1f%%",
+                        abbreviate(path.trim()), variant.name(), result.protocol, result.encoding, result.bytes,
+                        100.0 * result.bytes / Math.max(1, baselineBytes),
+                        result.latency.percentileMillis(50), result.latency.percentileMillis(99),
+                        100.0 * (result.latency.percentileMillis(50) - baselineP50) / baselineP50));
+            }
+        }
+
+        System.out.println();
+        System.out.println("================================================ COMPRESSION BENCHMARK ================================================");
+        System.out.println("Target  : " + target + " (" + requests + " requests per variant)");
+        System.out.println("path                                     | variant                      | protocol | enc.  | bytes/resp  | vs pretty | p50 (ms) | p99 (ms) | p50 vs pretty");
+        rows.forEach(System.out::println);
+        System.out.println("=======================================================================================================================");
+    }
+
+    private Result measure(String url, Variant variant, int requests, int warmup) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(variant.version())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + (url.contains("?") ? "&" : "?") + "pretty=" + variant.pretty()))
+                .timeout(Duration.ofSeconds(120))
+                .GET();
+        if (variant.gzip()) builder.header("Accept-Encoding", "gzip");
+        HttpRequest request = builder.build();
+
+        Result result = new Result();
+        for (int i = 0; i < warmup + requests; i++) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + " for " + url);
+            }
+            if (i < warmup) continue;
+            result.latency.record(elapsed);
+            result.bytes = response.body().length;
+            result.encoding = response.headers().firstValue("Content-Encoding").orElse("-");
+            result.protocol = response.version() == HttpClient.Version.HTTP_2 ? "h2c" : "HTTP/1.1";
+        }
+        return result;
+    }
+
+    private static String abbreviate(String path) {
+        return path.length() <= 40 ? path : "..." + path.substring(path.length() - 37);
+    }
+
+    private static class Result {
+        final LatencyRecorder latency = new LatencyRecorder();
+        long bytes;
+        String encoding;
+        String protocol;
+    }
+}
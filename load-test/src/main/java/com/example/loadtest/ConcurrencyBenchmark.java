@@ -0,0 +1,124 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark fermé : N clients concurrents envoient des webhooks en boucle pendant --level-duration secondes,
+ * pour chaque N de --levels. On lance le même benchmark contre un Collector en threads plateforme puis en
+ * profil virtual-threads ; la ligne "sustained" donne le plus grand N tenu sous le SLA (--sla-ms) avec
+ * moins de 1 % d'erreurs.
+ *
+ * Exemple : --mode=concurrency --levels=16,64,256,1024 --jenkins-latency-ms=500
+ */
+public class ConcurrencyBenchmark {
+
+    private final LoadTestConfig config;
+    private final FakeJenkinsServer jenkins;
+    private final HttpClient httpClient;
+
+    public ConcurrencyBenchmark(LoadTestConfig config, FakeJenkinsServer jenkins) {
+        this.config = config;
+        this.jenkins = jenkins;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    public void run() throws InterruptedException {
+        int levelSeconds = config.getInt("level-duration", 30);
+        double slaMillis = config.getDouble("sla-ms", 5000);
+        int buildCounter = config.buildOffset();
+
+        List<String> rows = new ArrayList<>();
+        int sustained = 0;
+        for (String levelValue : config.get("levels", "16,64,256,1024").split(",")) {
+            int concurrency = Integer.parseInt(levelValue.trim());
+            LevelResult result = runLevel(concurrency, levelSeconds, buildCounter);
+            buildCounter += result.latency.count() + concurrency;
+
+            rows.add(String.format("%6d | %9.1f | %8.1f | %8.1f | %6.2f%%",
+                    concurrency, result.throughput(), result.latency.percentileMillis(50),
+                    result.latency.percentileMillis(99), result.errorRate() * 100));
+            if (result.errorRate() < 0.01 && result.latency.percentileMillis(99) <= slaMillis) {
+                sustained = concurrency;
+            }
+        }
+
+        System.out.println();
+        System.out.println("================ CONCURRENCY BENCHMARK ================");
+        System.out.println("Target  : " + config.collectorUrl() + " (Jenkins latency " + config.jenkinsLatencyMs() + " ms)");
+        System.out.println("  conc. | builds/s  | p50 (ms) | p99 (ms) | errors");
+        rows.forEach(System.out::println);
+        System.out.printf("Sustained concurrency (p99 <= %.0f ms, errors < 1%%): %d%n", slaMillis, sustained);
+        System.out.println("=======================================================");
+    }
+
+    private LevelResult runLevel(int concurrency, int seconds, int firstBuild) throws InterruptedException {
+        System.out.println("🚀 " + concurrency + " concurrent webhooks for " + seconds + "s");
+        LevelResult result = new LevelResult();
+        AtomicInteger nextBuild = new AtomicInteger(firstBuild);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+
+        CountDownLatch clients = new CountDownLatch(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            String job = "bench-job-" + (c % config.jobs());
+            loop(job, nextBuild, deadline, result, clients);
+        }
+        clients.await(seconds + 180L, TimeUnit.SECONDS);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /** Un client : enchaîne les webhooks (sans thread dédié) jusqu'à la deadline. */
+    private void loop(String job, AtomicInteger nextBuild, long deadline, LevelResult result, CountDownLatch clients) {
+        if (System.nanoTime() > deadline) {
+            clients.countDown();
+            return;
+        }
+        int buildNumber = nextBuild.getAndIncrement();
+        String status = jenkins.isFailed(job, buildNumber) ? "FAILURE" : "SUCCESS";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(config.collectorUrl() + "/api/jenkins-logs/webhook"
+                        + "?jobName=" + job + "&buildNumber=" + buildNumber + "&buildStatus=" + status
+                        + "&token=" + config.webhookToken()))
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        long sendStart = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    result.latency.record(System.nanoTime() - sendStart);
+                    if (error != null || response.statusCode() != 200) {
+                        result.errors.incrementAndGet();
+                    }
+                    loop(job, nextBuild, deadline, result, clients);
+                });
+    }
+
+    private static class LevelResult {
+        final LatencyRecorder latency = new LatencyRecorder();
+        final AtomicInteger errors = new AtomicInteger();
+        long elapsedNanos;
+
+        double throughput() {
+            return (latency.count() - errors.get()) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double errorRate() {
+            int count = latency.count();
+            return count == 0 ? 1.0 : errors.get() / (double) count;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Jenkins local minimal pour les tests de charge.
+ *
+ * GET /job/{job}/{build}/consoleText                      -> console complet
+ * GET /job/{job}/{build}/logText/progressiveText?start=N  -> suite du console à partir de l'offset N
+ * GET /job/{job}/{build}/testReport/api/xml                -> rapport de tests (tests-per-build tests)
+ * GET /job/{job}/{build}/api/json?tree=timestamp,duration   -> horaires du build (terminé, durée déterministe)
+ * GET /api/json?tree=jobs[name]                            -> loadtest-job-0 .. loadtest-job-(jobs-1)
+ * GET /job/{job}/api/json?tree=allBuilds[...]{0,N}         -> builds 1..history-builds (avec horaires), du plus récent au plus ancien
+ *
+ * Chaque réponse est retardée de jenkins-latency-ms pour simuler un Jenkins chargé.
+ */
+public class FakeJenkinsServer {
+
+    private static final Pattern RANGE = Pattern.compile("\\{(\\d+),(\\d+)}");
+
+    private final LoadTestConfig config;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public FakeJenkinsServer(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(config.jenkinsPort()), 512);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/job/", this::handleJob);
+        server.createContext("/api/json", this::handleJobList);
+        server.start();
+        System.out.println("🧪 Fake Jenkins listening on http://localhost:" + config.jenkinsPort());
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    public long getRequests() { return requests.get(); }
+
+    public long getBytesServed() { return bytesServed.get(); }
+
+    /** Statut déterministe d'un build, partagé avec le driver pour envoyer le même buildStatus au webhook. */
+    public boolean isFailed(String job, int buildNumber) {
+        double roll = Math.floorMod(job.hashCode() * 31 + buildNumber, 1000) / 1000.0;
+        return roll < config.failureRatio();
+    }
+
+    private void handleJob(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            sleep(config.jenkinsLatencyMs());
+
+            URI uri = exchange.getRequestURI();
+            // /job/{job}/{build}/consoleText  ou  /job/{job}/{build}/logText/progressiveText
+            String[] parts = uri.getPath().split("/");
+            if (parts.length < 5) {
+                send(exchange, 404, new byte[0], null);
+                return;
+            }
+            String job = parts[2];
+            if (parts.length == 5 && "api".equals(parts[3]) && "json".equals(parts[4])) {
+                send(exchange, 200, buildListJson(job, uri.getQuery()), "application/json");
+                return;
+            }
+            int buildNumber;
+            try {
+                buildNumber = Integer.parseInt(parts[3]);
+            } catch (NumberFormatException e) {
+                send(exchange, 404, new byte[0], null);
+                return;
+            }
+
+            if (parts.length == 6 && "api".equals(parts[4]) && "json".equals(parts[5])) {
+                send(exchange, 200, buildJson(job, buildNumber), "application/json");
+                return;
+            }
+
+            if (uri.getPath().endsWith("/testReport/api/xml")) {
+                if (config.testsPerBuild() <= 0) {
+                    send(exchange, 404, new byte[0], null);
+                } else {
+                    send(exchange, 200, SyntheticTestReport.generate(job, buildNumber, config.testsPerBuild(),
+                            isFailed(job, buildNumber)), "application/xml");
+                }
+                return;
+            }
+
+            byte[] console = SyntheticConsole.generate(job, buildNumber, config.consoleLines(),
+                    config.lineBytes(), config.errorRatio(), isFailed(job, buildNumber));
+
+            if (uri.getPath().endsWith("/consoleText")) {
+                send(exchange, 200, console, null);
+            } else if (uri.getPath().endsWith("/logText/progressiveText")) {
+                int start = Math.min(parseStart(uri.getQuery()), console.length);
+                byte[] chunk = new byte[console.length - start];
+                System.arraycopy(console, start, chunk, 0, chunk.length);
+                exchange.getResponseHeaders().set("X-Text-Size", String.valueOf(console.length));
+                exchange.getResponseHeaders().set("X-More-Data", "false");
+                send(exchange, 200, chunk, null);
+            } else {
+                send(exchange, 404, new byte[0], null);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Fake Jenkins error: " + e.getMessage());
+            send(exchange, 500, new byte[0], null);
+        }
+    }
+
+    private void handleJobList(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        sleep(config.jenkinsLatencyMs());
+        StringBuilder json = new StringBuilder("{\"_class\":\"hudson.model.Hudson\",\"jobs\":[");
+        for (int i = 0; i < config.jobs(); i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"_class\":\"org.jenkinsci.plugins.workflow.job.WorkflowJob\",\"name\":\"loadtest-job-")
+                    .append(i).append("\"}");
+        }
+        send(exchange, 200, json.append("]}").toString().getBytes(StandardCharsets.UTF_8), "application/json");
+    }
+
+    /** Build terminé il y a buildNumber minutes, durée de 30 à 90 s stable pour un (job, build) donné. */
+    private byte[] buildJson(String job, int buildNumber) {
+        return ("{\"_class\":\"org.jenkinsci.plugins.workflow.job.WorkflowRun\",\"building\":false,"
+                + timingJson(job, buildNumber) + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String timingJson(String job, int buildNumber) {
+        long duration = 30_000 + Math.floorMod(job.hashCode() * 31 + buildNumber, 60) * 1000L;
+        long timestamp = System.currentTimeMillis() / 60_000 * 60_000 - buildNumber * 60_000L - duration;
+        return "\"duration\":" + duration + ",\"timestamp\":" + timestamp;
+    }
+
+    /** Honore la plage {from,to} du paramètre tree= comme Jenkins (allBuilds est trié du plus récent au plus ancien). */
+    private byte[] buildListJson(String job, String query) {
+        int from = 0;
+        int to = Integer.MAX_VALUE;
+        Matcher range = RANGE.matcher(query != null ? query : "");
+        if (range.find()) {
+            from = Integer.parseInt(range.group(1));
+            to = Integer.parseInt(range.group(2));
+        }
+        StringBuilder json = new StringBuilder("{\"allBuilds\":[");
+        int history = config.historyBuilds();
+        for (int i = from; i < Math.min(to, history); i++) {
+            int number = history - i;
+            if (i > from) json.append(',');
+            json.append("{\"building\":false,\"number\":").append(number)
+                    .append(",\"result\":\"").append(isFailed(job, number) ? "FAILURE" : "SUCCESS").append("\",")
+                    .append(timingJson(job, number)).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int parseStart(String query) {
+        if (query == null) return 0;
+        for (String param : query.split("&")) {
+            if (param.startsWith("start=")) {
+                return Integer.parseInt(param.substring("start=".length()));
+            }
+        }
+        return 0;
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body, String contentType) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType != null ? contentType : "text/plain;charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        bytesServed.addAndGet(body.length);
+        exchange.close();
+    }
+
+    private static void sleep(int millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Enregistre des durées (en nanosecondes) et calcule les percentiles à la fin du run.
+ * Un simple tableau trié suffit : un run produit au plus quelques centaines de milliers de points.
+ */
+public class LatencyRecorder {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    public synchronized void record(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    /** Percentile en millisecondes (p entre 0 et 100), -1 si aucune mesure. */
+    public synchronized double percentileMillis(double p) {
+        if (size == 0) return -1;
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * size) - 1;
+        index = Math.max(0, Math.min(size - 1, index));
+        return sorted[index] / 1_000_000.0;
+    }
+
+    public synchronized double maxMillis() {
+        if (size == 0) return -1;
+        long max = 0;
+        for (int i = 0; i < size; i++) max = Math.max(max, values[i]);
+        return max / 1_000_000.0;
+    }
+}
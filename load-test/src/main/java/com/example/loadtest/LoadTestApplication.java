@@ -0,0 +1,84 @@
+package com.example.loadtest;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Point d'entrée du harness de charge.
+ *
+ * 1. démarre le faux Jenkins (et éventuellement un Kafka embarqué),
+ * 2. attend que le Collector et l'Analyzer répondent (lancés avec le profil "loadtest"),
+ * 3. rejoue une tempête de webhooks et affiche p50/p99, débit et lag bout-en-bout.
+ *
+ * Modes : --mode=webhook (défaut), --mode=concurrency (voir ConcurrencyBenchmark),
+ * --mode=compression (voir CompressionBenchmark), --mode=startup (voir StartupBenchmark)
+ * ou --mode=jenkins-only pour ne lancer que les bouchons.
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+
+        FakeJenkinsServer jenkins = new FakeJenkinsServer(config);
+        if (config.startJenkins()) {
+            jenkins.start();
+        }
+
+        EmbeddedKafkaKraftBroker kafka = null;
+        if (config.embeddedKafka()) {
+            kafka = new EmbeddedKafkaKraftBroker(1, 1, "last_build", "jenkins-logs");
+            kafka.afterPropertiesSet();
+            System.out.println("🧪 Embedded Kafka bootstrap servers: " + kafka.getBrokersAsString());
+            System.out.println("   start the services with --spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString());
+        }
+
+        try {
+            if ("jenkins-only".equals(config.mode())) {
+                System.out.println("⏳ Stubs running, press Ctrl+C to stop");
+                Thread.currentThread().join();
+                return;
+            }
+
+            if ("startup".equals(config.mode())) {
+                new StartupBenchmark(config).run();
+            } else if ("compression".equals(config.mode())) {
+                new CompressionBenchmark(config).run();
+            } else if ("concurrency".equals(config.mode())) {
+                waitUntilReady(config.collectorUrl() + "/api/jenkins-logs/info");
+                new ConcurrencyBenchmark(config, jenkins).run();
+            } else {
+                waitUntilReady(config.collectorUrl() + "/api/jenkins-logs/info");
+                waitUntilReady(config.analyzerUrl() + "/api/analyzer/builds/lookup?pipelineId=0&buildNumber=0");
+                LoadTestReport report = new WebhookLoadDriver(config, jenkins).run();
+                report.print();
+            }
+        } finally {
+            jenkins.stop();
+            if (kafka != null) kafka.destroy();
+        }
+        System.exit(0);
+    }
+
+    /** Attend qu'un service réponde (n'importe quel code HTTP), au plus 5 minutes. */
+    static void waitUntilReady(String url) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = System.currentTimeMillis() + Duration.ofMinutes(5).toMillis();
+        System.out.println("⏳ Waiting for " + url);
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                System.out.println("✓ Ready: " + url);
+                return;
+            } catch (Exception e) {
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException("Service not reachable: " + url);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paramètres du run, lus depuis la ligne de commande sous la forme --clé=valeur.
+ * Exemple : --rate=50 --duration=120 --console-lines=5000 --jenkins-latency-ms=200
+ */
+public class LoadTestConfig {
+
+    private final Map<String, String> args;
+
+    private LoadTestConfig(Map<String, String> args) {
+        this.args = args;
+    }
+
+    public static LoadTestConfig fromArgs(String[] argv) {
+        Map<String, String> args = new HashMap<>();
+        for (String arg : argv) {
+            if (!arg.startsWith("--")) continue;
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                args.put(arg.substring(2), "true");
+            } else {
+                args.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return new LoadTestConfig(args);
+    }
+
+    public String get(String key, String defaultValue) {
+        return args.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return args.containsKey(key) ? Integer.parseInt(args.get(key)) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return args.containsKey(key) ? Double.parseDouble(args.get(key)) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return args.containsKey(key) ? Boolean.parseBoolean(args.get(key)) : defaultValue;
+    }
+
+    // ==================== TARGETS ====================
+
+    public String mode() { return get("mode", "webhook"); }
+
+    public String collectorUrl() { return get("collector-url", "http://localhost:8081"); }
+
+    public String analyzerUrl() { return get("analyzer-url", "http://localhost:8082"); }
+
+    public String webhookToken() { return get("token", "test"); }
+
+    // ==================== FAKE JENKINS ====================
+
+    public boolean startJenkins() { return getBoolean("start-jenkins", true); }
+
+    public int jenkinsPort() { return getInt("jenkins-port", 18080); }
+
+    public int jenkinsLatencyMs() { return getInt("jenkins-latency-ms", 50); }
+
+    public int consoleLines() { return getInt("console-lines", 2000); }
+
+    public int lineBytes() { return getInt("line-bytes", 120); }
+
+    public double errorRatio() { return getDouble("error-ratio", 0.02); }
+
+    public double failureRatio() { return getDouble("failure-ratio", 0.2); }
+
+    /** Tests par rapport testReport/api/xml ; 0 = pas de rapport (404, comme un job sans tests). */
+    public int testsPerBuild() { return getInt("tests-per-build", 200); }
+
+    // ==================== LOAD ====================
+
+    public double rate() { return getDouble("rate", 20); }
+
+    public int durationSeconds() { return getInt("duration", 60); }
+
+    public int jobs() { return getInt("jobs", 10); }
+
+    /** Numéro du premier build : par défaut dérivé de l'horloge pour ne pas retomber sur des builds déjà ingérés. */
+    public int buildOffset() {
+        return getInt("build-offset", (int) ((System.currentTimeMillis() / 1000) % 1_000_000) * 1000);
+    }
+
+    public int lagTimeoutSeconds() { return getInt("lag-timeout", 30); }
+
+    /** Builds terminés annoncés par l'API JSON du faux Jenkins (1..N) pour chaque job, utilisés par le backfill. */
+    public int historyBuilds() { return getInt("history-builds", 50); }
+
+    public boolean embeddedKafka() { return getBoolean("embedded-kafka", false); }
+}
@@ -0,0 +1,56 @@
+package com.example.loadtest;
+
+/**
+ * Résultat d'un run : latence du webhook, débit soutenu et lag bout-en-bout jusqu'à l'Analyzer.
+ */
+public class LoadTestReport {
+
+    private final LoadTestConfig config;
+    private final int sent;
+    private final int succeeded;
+    private final int failed;
+    private final int lagTimeouts;
+    private final long elapsedNanos;
+    private final LatencyRecorder webhookLatency;
+    private final LatencyRecorder endToEndLag;
+    private final long responseBytes;
+    private final long jenkinsRequests;
+    private final long jenkinsBytes;
+
+    public LoadTestReport(LoadTestConfig config, int sent, int succeeded, int failed, int lagTimeouts,
+                          long elapsedNanos, LatencyRecorder webhookLatency, LatencyRecorder endToEndLag,
+                          long responseBytes, long jenkinsRequests, long jenkinsBytes) {
+        this.config = config;
+        this.sent = sent;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.lagTimeouts = lagTimeouts;
+        this.elapsedNanos = elapsedNanos;
+        this.webhookLatency = webhookLatency;
+        this.endToEndLag = endToEndLag;
+        this.responseBytes = responseBytes;
+        this.jenkinsRequests = jenkinsRequests;
+        this.jenkinsBytes = jenkinsBytes;
+    }
+
+    public double throughputPerSecond() {
+        return succeeded / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public void print() {
+        System.out.println();
+        System.out.println("==================== LOAD TEST REPORT ====================");
+        System.out.printf("Target rate          : %.1f webhooks/s for %ds (%d jobs, %d lines x %d bytes)%n",
+                config.rate(), config.durationSeconds(), config.jobs(), config.consoleLines(), config.lineBytes());
+        System.out.printf("Webhooks             : sent=%d ok=%d failed=%d%n", sent, succeeded, failed);
+        System.out.printf("Throughput           : %.1f builds/s%n", throughputPerSecond());
+        System.out.printf("Webhook latency (ms) : p50=%.1f p99=%.1f max=%.1f%n",
+                webhookLatency.percentileMillis(50), webhookLatency.percentileMillis(99), webhookLatency.maxMillis());
+        System.out.printf("End-to-end lag (ms)  : p50=%.1f p99=%.1f max=%.1f (samples=%d, timeouts=%d)%n",
+                endToEndLag.percentileMillis(50), endToEndLag.percentileMillis(99), endToEndLag.maxMillis(),
+                endToEndLag.count(), lagTimeouts);
+        System.out.printf("Collector responses  : %.1f MB%n", responseBytes / 1_048_576.0);
+        System.out.printf("Fake Jenkins         : %d requests, %.1f MB served%n", jenkinsRequests, jenkinsBytes / 1_048_576.0);
+        System.out.println("==========================================================");
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Temps de démarrage de chaque service : lance le jar, mesure le délai jusqu'à la première réponse 200 de son
+ * URL de readiness, arrête le process, --runs fois. Deux variantes par service : jar classique
+ * (target/&lt;jar&gt;) et fast-start (AOT + AppCDS, target/fast-start après mvn -Pfast-start package) ;
+ * une variante dont le jar est absent est ignorée. Les services sont démarrés un par un.
+ *
+ * Exemple : --mode=startup --repo-dir=.. --services=eureka-server,log-collector --runs=5
+ * Par service : --&lt;service&gt;-jar, --&lt;service&gt;-ready-url, --&lt;service&gt;-args="--spring.datasource.url=..."
+ */
+public class StartupBenchmark {
+
+    private record Service(String name, String module, String jar, String readyUrl) {}
+
+    private record Variant(String name, List<String> jvmArgs, String directory) {}
+
+    private static final Map<String, Service> SERVICES = new LinkedHashMap<>();
+
+    static {
+        SERVICES.put("eureka-server", new Service("eureka-server", "eureka-server",
+                "eureka-server-0.0.1-SNAPSHOT.jar", "http://localhost:8761/actuator/health"));
+        SERVICES.put("api-gateway", new Service("api-gateway", "api-gateway",
+                "api-gateway-0.0.1-SNAPSHOT.jar", "http://localhost:8080/actuator/health"));
+        SERVICES.put("log-collector", new Service("log-collector", "LogCollector",
+                "jenkins-log-collector-1.0.0.jar", "http://localhost:8081/api/jenkins-logs/info"));
+        SERVICES.put("log-analyser", new Service("log-analyser", "LogAnalyser",
+                "LogCollector-0.0.1-SNAPSHOT.jar", "http://localhost:8082/actuator/health"));
+    }
+
+    private static final List<Variant> VARIANTS = List.of(
+            new Variant("jvm", List.of(), "target"),
+            new Variant("fast-start", List.of("-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=error",
+                    "-Dspring.aot.enabled=true"), "target/fast-start"));
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+
+    public StartupBenchmark(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void run() throws Exception {
+        Path repo = Path.of(config.get("repo-dir", "..")).toAbsolutePath().normalize();
+        int runs = config.getInt("runs", 3);
+        Duration timeout = Duration.ofSeconds(config.getInt("startup-timeout", 180));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<String> rows = new ArrayList<>();
+        for (String name : config.get("services", String.join(",", SERVICES.keySet())).split(",")) {
+            Service defaults = SERVICES.get(name.trim());
+            if (defaults == null) throw new IllegalArgumentException("Unknown service: " + name);
+            String jar = config.get(defaults.name() + "-jar", defaults.jar());
+            String readyUrl = config.get(defaults.name() + "-ready-url", defaults.readyUrl());
+            List<String> appArgs = split(config.get(defaults.name() + "-args", ""));
+
+            double jvmMedian = -1;
+            for (Variant variant : VARIANTS) {
+                Path directory = repo.resolve(defaults.module()).resolve(variant.directory());
+                if (!Files.exists(directory.resolve(jar))) {
+                    System.out.println("⚠️ " + name + " / " + variant.name() + ": " + directory.resolve(jar) + " not found, skipped");
+                    continue;
+                }
+                List<String> command = new ArrayList<>();
+                command.add(java);
+                command.addAll(variant.jvmArgs());
+                command.add("-jar");
+                command.add(jar);
+                command.addAll(appArgs);
+
+                long[] readyMillis = new long[runs];
+                double[] springSeconds = new double[runs];
+                for (int i = 0; i < runs; i++) {
+                    Path log = Files.createTempFile("startup-" + name + "-" + variant.name() + "-", ".log");
+                    readyMillis[i] = startOnce(command, directory.toFile(), log, readyUrl, timeout);
+                    springSeconds[i] = startedSeconds(log);
+                    System.out.printf("   %s / %s run %d: ready in %d ms (log %s)%n", name, variant.name(), i + 1, readyMillis[i], log);
+                }
+                Arrays.sort(readyMillis);
+                Arrays.sort(springSeconds);
+                double median = readyMillis[runs / 2];
+                if (jvmMedian < 0) jvmMedian = median;
+                rows.add(String.format("%-14s | %-10s | %8d | %8.0f | %8d | %9.2f | %+7.1f%%",
+                        name, variant.name(), readyMillis[0], median, readyMillis[runs - 1], springSeconds[runs / 2],
+                        100.0 * (median - jvmMedian) / jvmMedian));
+            }
+        }
+
+        System.out.println();
+        System.out.println("=================================== STARTUP BENCHMARK ===================================");
+        System.out.println("Time to ready = process start -> first HTTP 200 on the readiness URL (" + runs + " runs)");
+        System.out.println("service        | variant    | min (ms) | p50 (ms) | max (ms) | spring (s) | p50 vs jvm");
+        rows.forEach(System.out::println);
+        System.out.println("=========================================================================================");
+    }
+
+    /** Démarre le service, attend la readiness puis l'arrête ; renvoie le délai en millisecondes. */
+    private long startOnce(List<String> command, File directory, Path log, String readyUrl, Duration timeout) throws Exception {
+        awaitPortFree(readyUrl);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(readyUrl)).timeout(Duration.ofSeconds(2)).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Process exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // pas encore à l'écoute
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Not ready after " + timeout.toSeconds() + " s: " + readyUrl + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    /** Le run suivant ne doit pas répondre à la place du précédent (arrêt encore en cours sur le même port). */
+    private void awaitPortFree(String readyUrl) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(readyUrl)).timeout(Duration.ofSeconds(1)).GET().build();
+        for (int i = 0; i < 100; i++) {
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Port still in use: " + readyUrl);
+    }
+
+    /** Durée annoncée par Spring ("Started X in 4.2 seconds"), -1 si absente du log. */
+    private static double startedSeconds(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+    }
+
+    private static List<String> split(String args) {
+        return args.isBlank() ? List.of() : List.of(args.trim().split("\\s+"));
+    }
+}
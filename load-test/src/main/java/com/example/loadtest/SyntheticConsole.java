@@ -0,0 +1,99 @@
+package com.example.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Génère un consoleText Jenkins synthétique, déterministe pour un couple (job, build).
+ * Le contenu imite un pipeline déclaratif : stages, lignes Maven, WARNING, ERROR et stack traces.
+ */
+public class SyntheticConsole {
+
+    private static final String[] STAGES = {"Checkout", "Build", "Test", "Package", "Deploy"};
+
+    private static final String[] INFO_LINES = {
+            "[INFO] Compiling %d source files to /var/jenkins/workspace/%s/target/classes",
+            "[INFO] Downloaded from central: https://repo.maven.apache.org/maven2/org/example/lib/%d/lib-%d.jar",
+            "[INFO] Tests run: %d, Failures: 0, Errors: 0, Skipped: 0, Time elapsed: 0.%d s",
+            "+ docker build -t registry.local/%s:%d .",
+            "Step %d/12 : RUN mvn -B -q package -DskipTests",
+            "[Pipeline] sh",
+            "[Pipeline] echo"
+    };
+
+    private static final String[] WARN_LINES = {
+            "[WARNING] Using platform encoding (UTF-8 actually) to copy filtered resources, build %d",
+            "WARNING: An illegal reflective access operation has occurred (%s, %d)"
+    };
+
+    private static final String[] ERROR_LINES = {
+            "[ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:3.2.5:test (default-test) on project %s: There are %d test failures",
+            "ERROR: connection refused to db-%d.internal:5432 while running %s",
+            "java.lang.IllegalStateException: Failed to load ApplicationContext for %s (attempt %d)"
+    };
+
+    private SyntheticConsole() {}
+
+    public static byte[] generate(String job, int buildNumber, int lines, int lineBytes,
+                                  double errorRatio, boolean failed) {
+        Random random = new Random(job.hashCode() * 31L + buildNumber);
+        StringBuilder sb = new StringBuilder(lines * (lineBytes + 1));
+        sb.append("Started by remote host 10.0.0.").append(buildNumber % 255).append('\n');
+        sb.append("Running in Durability level: MAX_SURVIVABILITY\n");
+
+        int perStage = Math.max(1, lines / STAGES.length);
+        for (int i = 0; i < lines; i++) {
+            if (i % perStage == 0) {
+                sb.append("[Pipeline] { (").append(STAGES[(i / perStage) % STAGES.length]).append(")\n");
+                sb.append("[Pipeline] stage\n");
+                continue;
+            }
+            double roll = random.nextDouble();
+            String line;
+            if (roll < errorRatio) {
+                line = format(pick(ERROR_LINES, random), job, random);
+                sb.append(pad(line, lineBytes, random)).append('\n');
+                // Une stack trace courte derrière chaque erreur, comme dans les vrais consoles
+                sb.append("\tat org.example.").append(job.replace('-', '_')).append(".Service.run(Service.java:")
+                        .append(10 + random.nextInt(400)).append(")\n");
+                sb.append("\tat java.base/java.lang.Thread.run(Thread.java:833)\n");
+                continue;
+            } else if (roll < errorRatio * 3) {
+                line = format(pick(WARN_LINES, random), job, random);
+            } else {
+                line = format(pick(INFO_LINES, random), job, random);
+            }
+            sb.append(pad(line, lineBytes, random)).append('\n');
+        }
+
+        sb.append("Finished: ").append(failed ? "FAILURE" : "SUCCESS").append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Remplit les %s avec le nom du job et les %d avec un entier aléatoire, quel que soit leur ordre. */
+    private static String format(String template, String job, Random random) {
+        if (template.contains("%s") && template.indexOf("%s") < template.indexOf("%d")) {
+            return String.format(template, job, random.nextInt(500));
+        }
+        if (template.contains("%s")) {
+            return String.format(template, random.nextInt(500), job);
+        }
+        if (template.contains("%d")) {
+            return String.format(template, random.nextInt(500), random.nextInt(500));
+        }
+        return template;
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String pad(String line, int lineBytes, Random random) {
+        if (line.length() >= lineBytes) return line;
+        StringBuilder sb = new StringBuilder(lineBytes).append(line).append(' ');
+        while (sb.length() < lineBytes) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
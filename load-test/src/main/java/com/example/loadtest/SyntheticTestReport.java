@@ -0,0 +1,51 @@
+package com.example.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Génère la réponse de testReport/api/xml d'un build, déterministe pour un couple (job, build).
+ * Chaque test garde d'un build à l'autre sa classe, son nom et une durée de base (quelques tests lents) ;
+ * un build en échec fait échouer quelques tests, tirés selon le numéro du build.
+ */
+public class SyntheticTestReport {
+
+    private static final int TESTS_PER_CLASS = 20;
+
+    private SyntheticTestReport() {}
+
+    public static byte[] generate(String job, int buildNumber, int tests, boolean failed) {
+        Random build = new Random(job.hashCode() * 31L + buildNumber);
+        int failures = failed ? 1 + build.nextInt(3) : 0;
+        int firstFailure = failures > 0 ? build.nextInt(tests) : -1;
+
+        StringBuilder sb = new StringBuilder(tests * 160);
+        sb.append("<testResult _class=\"hudson.tasks.junit.TestResult\">");
+        for (int i = 0; i < tests; i++) {
+            if (i % TESTS_PER_CLASS == 0) {
+                if (i > 0) sb.append("</suite>");
+                sb.append("<suite>");
+            }
+            Random test = new Random(job.hashCode() * 31L + i);
+            // 5 % de tests lents (plusieurs secondes), les autres en millisecondes
+            double baseSeconds = test.nextInt(20) == 0 ? 2 + test.nextDouble() * 8 : test.nextDouble() * 0.2;
+            double duration = baseSeconds * (0.9 + build.nextDouble() * 0.2);
+            boolean failing = failures > 0 && (i - firstFailure + tests) % tests < failures;
+
+            sb.append("<case><className>com.example.").append(job.replace('-', '_'))
+                    .append(".Module").append(i / TESTS_PER_CLASS).append("Test</className>")
+                    .append("<duration>").append(String.format(Locale.ROOT, "%.3f", duration)).append("</duration>");
+            if (failing) {
+                sb.append("<errorDetails>expected: &lt;200&gt; but was: &lt;500&gt;</errorDetails>")
+                        .append("<errorStackTrace>java.lang.AssertionError: expected: &lt;200&gt; but was: &lt;500&gt;")
+                        .append("\n\tat org.junit.jupiter.api.AssertionUtils.fail(AssertionUtils.java:55)</errorStackTrace>");
+            }
+            sb.append("<name>test").append(i).append("</name>")
+                    .append("<status>").append(failing ? "FAILED" : "PASSED").append("</status></case>");
+        }
+        if (tests > 0) sb.append("</suite>");
+        sb.append("</testResult>");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
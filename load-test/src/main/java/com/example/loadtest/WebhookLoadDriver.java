@@ -0,0 +1,147 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoie des webhooks Jenkins au Collector à un débit cible (open-loop : le débit ne ralentit pas
+ * quand le Collector sature), puis suit chaque build jusqu'à sa persistance dans l'Analyzer.
+ */
+public class WebhookLoadDriver {
+
+    private static final long LAG_POLL_MS = 25;
+
+    private final LoadTestConfig config;
+    private final FakeJenkinsServer jenkins;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+
+    private final LatencyRecorder webhookLatency = new LatencyRecorder();
+    private final LatencyRecorder endToEndLag = new LatencyRecorder();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger lagTimeouts = new AtomicInteger();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    public WebhookLoadDriver(LoadTestConfig config, FakeJenkinsServer jenkins) {
+        this.config = config;
+        this.jenkins = jenkins;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        int total = (int) Math.round(config.rate() * config.durationSeconds());
+        long intervalNanos = (long) (1_000_000_000L / config.rate());
+        int offset = config.buildOffset();
+        int[] nextBuild = new int[config.jobs()];
+
+        // Un compteur pour les webhooks, un pour les sondes de lag
+        CountDownLatch done = new CountDownLatch(total * 2);
+
+        System.out.println("🚀 Sending " + total + " webhooks at " + config.rate() + "/s to " + config.collectorUrl());
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            String job = "loadtest-job-" + (i % config.jobs());
+            int buildNumber = offset + nextBuild[i % config.jobs()]++;
+            long scheduledAt = startNanos + i * intervalNanos;
+            scheduler.schedule(() -> fire(job, buildNumber, done),
+                    scheduledAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        long waitSeconds = config.durationSeconds() + config.lagTimeoutSeconds() + 30L;
+        done.await(waitSeconds, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        scheduler.shutdownNow();
+
+        return new LoadTestReport(config, sent.get(), succeeded.get(), failed.get(), lagTimeouts.get(),
+                elapsedNanos, webhookLatency, endToEndLag, responseBytes.get(),
+                jenkins.getRequests(), jenkins.getBytesServed());
+    }
+
+    private void fire(String job, int buildNumber, CountDownLatch done) {
+        String status = jenkins.isFailed(job, buildNumber) ? "FAILURE" : "SUCCESS";
+        String url = config.collectorUrl() + "/api/jenkins-logs/webhook"
+                + "?jobName=" + URLEncoder.encode(job, StandardCharsets.UTF_8)
+                + "&buildNumber=" + buildNumber
+                + "&buildStatus=" + status
+                + "&token=" + URLEncoder.encode(config.webhookToken(), StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        long start = System.nanoTime();
+        sent.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    webhookLatency.record(System.nanoTime() - start);
+                    done.countDown();
+                    if (error != null || response.statusCode() != 200) {
+                        failed.incrementAndGet();
+                        done.countDown();
+                        return;
+                    }
+                    succeeded.incrementAndGet();
+                    responseBytes.addAndGet(response.body().length);
+                    String pipelineId = extractPipelineId(response.body());
+                    if (pipelineId == null) {
+                        done.countDown();
+                        return;
+                    }
+                    pollAnalyzer(pipelineId, buildNumber, start, done);
+                });
+    }
+
+    private String extractPipelineId(byte[] body) {
+        try {
+            JsonNode data = objectMapper.readTree(body).path("data");
+            return data.hasNonNull("pipelineId") ? data.get("pipelineId").asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** Interroge l'Analyzer jusqu'à ce que le build y soit persisté, pour mesurer le lag webhook -> analyse. */
+    private void pollAnalyzer(String pipelineId, int buildNumber, long start, CountDownLatch done) {
+        String url = config.analyzerUrl() + "/api/analyzer/builds/lookup?pipelineId="
+                + URLEncoder.encode(pipelineId, StandardCharsets.UTF_8) + "&buildNumber=" + buildNumber;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = start + TimeUnit.SECONDS.toNanos(config.lagTimeoutSeconds());
+
+        Runnable[] probe = new Runnable[1];
+        probe[0] = () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    if (error == null && response.statusCode() == 200) {
+                        endToEndLag.record(now - start);
+                        done.countDown();
+                    } else if (now > deadline) {
+                        lagTimeouts.incrementAndGet();
+                        done.countDown();
+                    } else if (!scheduler.isShutdown()) {
+                        scheduler.schedule(probe[0], LAG_POLL_MS, TimeUnit.MILLISECONDS);
+                    }
+                });
+        probe[0].run();
+    }
+}